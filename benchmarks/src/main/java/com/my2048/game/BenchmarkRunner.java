@@ -0,0 +1,31 @@
+package com.my2048.game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punkt wejścia testów wydajności. Uruchamia JMH z profilerem alokacji ({@code -prof gc}),
+ * więc przy każdym pomiarze raportowana jest liczba bajtów alokowanych na operację.
+ * Przyjmuje te same argumenty co {@code org.openjdk.jmh.Main}, np. wyrażenie regularne wybierające testy.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Uruchamia testy wydajności.
+     *
+     * @param args argumenty wiersza poleceń JMH.
+     * @throws RunnerException jeśli uruchomienie testów się nie powiodło.
+     * @throws CommandLineOptionException jeśli argumenty są niepoprawne.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.my2048.game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testy wydajności silników planszy: {@link BitBoard} dla planszy 4x4 i {@link GridBoard} dla dowolnego rozmiaru.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    /**
+     * Rozmiar planszy dla pomiarów {@link GridBoard}.
+     */
+    @Param({"3", "4", "5"})
+    public int size;
+
+    /**
+     * Pozycja 4x4 dla pomiarów {@link BitBoard}.
+     */
+    private long bits;
+
+    /**
+     * Pozycja początkowa dla pomiarów {@link GridBoard}.
+     */
+    private GridBoard position;
+
+    /**
+     * Plansza robocza dla pomiarów {@link GridBoard}.
+     */
+    private GridBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(size);
+        position = new GridBoard(size);
+        for (int cell = 0; cell < position.cellCount(); cell++) {
+            position.set(cell, random.nextBoolean() ? 0 : 1 + random.nextInt(6));
+        }
+        board = new GridBoard(size);
+        for (int cell = 0; cell < 16; cell++) {
+            bits = BitBoard.set(bits, cell / 4, cell % 4, random.nextBoolean() ? 0 : 1 + random.nextInt(6));
+        }
+    }
+
+    @Benchmark
+    public long bitBoardLeft() {
+        return BitBoard.left(bits);
+    }
+
+    @Benchmark
+    public long bitBoardUp() {
+        return BitBoard.up(bits);
+    }
+
+    @Benchmark
+    public int gridBoardLeft() {
+        board.copyFrom(position);
+        return board.move(Direction.LEFT);
+    }
+
+    @Benchmark
+    public int gridBoardUp() {
+        board.copyFrom(position);
+        return board.move(Direction.UP);
+    }
+}
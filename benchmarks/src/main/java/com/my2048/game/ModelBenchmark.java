@@ -0,0 +1,162 @@
+package com.my2048.game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testy wydajności operacji klasy {@link Model} na planszach 3x3, 4x4 i 5x5.
+ * <p>
+ * Operacje zmieniające planszę zaczynają od przywrócenia tej samej pozycji ze środka gry
+ * i wyczyszczenia historii, żeby kolejne wywołania mierzyły ten sam przypadek, a historia ruchów
+ * nie rosła bez końca. Koszt przywrócenia jest mierzony osobno w {@link #restore()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    /**
+     * Limit czasu przeszukiwania w {@link #autoMove()} w milisekundach.
+     */
+    private static final long AUTO_MOVE_TIME_BUDGET = 60_000;
+
+    /**
+     * Rozmiar planszy.
+     */
+    @Param({"3", "4", "5"})
+    public int size;
+
+    /**
+     * Model gry używany w pomiarach.
+     */
+    private Model model;
+
+    /**
+     * Wartości kafelków pozycji, od której zaczyna się każdy pomiar.
+     */
+    private int[][] position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = new Model(SpawnRandom.seeded(size));
+        model.setFieldWidth(size);
+        model.resetGameTiles();
+        model.setAutoPlayer(new Expectimax(BoardHeuristic.standard(), 2, AUTO_MOVE_TIME_BUDGET));
+
+        // Pozycja ze środka gry: około połowa pól zajęta, są możliwe połączenia w każdym kierunku.
+        Random random = new Random(size);
+        position = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                position[i][j] = random.nextBoolean() ? 0 : 1 << (1 + random.nextInt(6));
+            }
+        }
+        restore();
+    }
+
+    /**
+     * Przywraca pozycję początkową, czyści historię ruchów i rozpoczyna nowy zapis przebiegu gry,
+     * żeby zapis nie rósł z każdym wywołaniem.
+     */
+    @Benchmark
+    public void restore() {
+        Tile[][] tiles = model.getGameTiles();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                tiles[i][j].value = position[i][j];
+            }
+        }
+        model.markTilesChanged();
+        model.clearHistory();
+        model.restartReplay();
+    }
+
+    @Benchmark
+    public Model left() {
+        restore();
+        model.left();
+        return model;
+    }
+
+    @Benchmark
+    public Model right() {
+        restore();
+        model.right();
+        return model;
+    }
+
+    @Benchmark
+    public Model up() {
+        restore();
+        model.up();
+        return model;
+    }
+
+    @Benchmark
+    public Model down() {
+        restore();
+        model.down();
+        return model;
+    }
+
+    @Benchmark
+    public Model addTile() {
+        restore();
+        model.addTile();
+        return model;
+    }
+
+    @Benchmark
+    public boolean canMove() {
+        return model.canMove();
+    }
+
+    @Benchmark
+    public boolean hasBoardChanged() {
+        restore();
+        model.saveState(model.getGameTiles());
+        return model.hasBoardChanged();
+    }
+
+    @Benchmark
+    public Model saveStateAndRollback() {
+        model.saveState(model.getGameTiles());
+        model.rollback();
+        return model;
+    }
+
+    @Benchmark
+    public MoveEfficiency getMoveEfficiency() {
+        restore();
+        return model.getMoveEfficiency(Direction.LEFT);
+    }
+
+    @Benchmark
+    public MoveEvaluation evaluate() {
+        restore();
+        return model.evaluate(Direction.LEFT);
+    }
+
+    @Benchmark
+    public Model greedyMove() {
+        restore();
+        model.greedyMove();
+        return model;
+    }
+
+    /**
+     * Automatyczny ruch z przeszukiwaniem na stałą głębokość 2. Limit czasu {@link #AUTO_MOVE_TIME_BUDGET}
+     * jest o rzędy wielkości dłuższy niż takie przeszukiwanie, więc wynik nie zależy od limitu czasu na ruch.
+     */
+    @Benchmark
+    public Model autoMove() {
+        restore();
+        model.autoMove();
+        return model;
+    }
+}
@@ -0,0 +1,15 @@
+package com.my2048.game;
+
+/**
+ * Funkcjonalny interfejs reprezentujący automatycznego gracza, który wybiera ruch dla podanej planszy.
+ */
+@FunctionalInterface
+public interface AutoPlayer {
+    /**
+     * Wybiera ruch dla podanej planszy.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie może być modyfikowana.
+     * @return wybrany kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    Direction bestMove(GridBoard board);
+}
@@ -0,0 +1,382 @@
+package com.my2048.game;
+
+/**
+ * Klasa narzędziowa realizująca ruchy na planszy 4x4 zapisanej w jednej liczbie typu long.
+ * <p>
+ * Każde pole planszy zajmuje 4 bity i przechowuje wykładnik wartości kafelka
+ * (0 - pole puste, 1 - kafelek 2, 2 - kafelek 4, ..., 15 - kafelek 32768).
+ * Pole w wierszu {@code r} i kolumnie {@code c} zajmuje bity od {@code 16 * r + 4 * c},
+ * więc każdy wiersz to 16 kolejnych bitów. Ruchy są wykonywane przez odczyt z
+ * tablic przejść wyliczonych raz dla wszystkich 65 536 możliwych wierszy,
+ * a ruchy pionowe przez transpozycję planszy. Żadna operacja nie alokuje pamięci.
+ */
+public final class BitBoard {
+
+    /**
+     * Rozmiar planszy obsługiwanej przez tę klasę.
+     */
+    public static final int SIZE = 4;
+
+    /**
+     * Największy wykładnik, który mieści się w 4 bitach.
+     */
+    public static final int MAX_EXPONENT = 15;
+
+    /**
+     * Maska pojedynczego wiersza.
+     */
+    private static final int ROW_MASK = 0xFFFF;
+
+    /**
+     * Tablica przejść wiersza przy ruchu w lewo.
+     */
+    private static final char[] ROW_LEFT = new char[1 << 16];
+
+    /**
+     * Tablica przejść wiersza przy ruchu w prawo.
+     */
+    private static final char[] ROW_RIGHT = new char[1 << 16];
+
+    /**
+     * Punkty zdobyte za połączenia w wierszu. Są takie same dla ruchu w lewo i w prawo,
+     * bo w każdej serii równych kafelków łączy się tyle samo par o tej samej wartości.
+     */
+    private static final int[] ROW_SCORE = new int[1 << 16];
+
+    /**
+     * Dozwolone ruchy wiersza: bit {@link Direction#LEFT}, jeśli ruch w lewo zmienia wiersz,
+     * i bit {@link Direction#RIGHT}, jeśli zmienia go ruch w prawo. Dla kolumn (po transpozycji)
+     * te same bity oznaczają ruch do góry i w dół.
+     */
+    private static final byte[] ROW_LEGAL = new byte[1 << 16];
+
+    static {
+        int[] line = new int[SIZE];
+        for (int row = 0; row <= ROW_MASK; row++) {
+            for (int c = 0; c < SIZE; c++) {
+                line[c] = (row >>> (4 * c)) & 0xF;
+            }
+            ROW_SCORE[row] = slideLeft(line);
+            int result = 0;
+            for (int c = 0; c < SIZE; c++) {
+                result |= line[c] << (4 * c);
+            }
+            ROW_LEFT[row] = (char) result;
+        }
+        for (int row = 0; row <= ROW_MASK; row++) {
+            ROW_RIGHT[row] = (char) reverseRow(ROW_LEFT[reverseRow(row)]);
+            int legal = 0;
+            if (ROW_LEFT[row] != row) legal |= 1 << Direction.LEFT.ordinal();
+            if (ROW_RIGHT[row] != row) legal |= 1 << Direction.RIGHT.ordinal();
+            ROW_LEGAL[row] = (byte) legal;
+        }
+    }
+
+    /**
+     * Prywatny konstruktor - klasa zawiera wyłącznie metody statyczne.
+     */
+    private BitBoard() {
+    }
+
+    /**
+     * Przesuwa i łączy wykładniki w wierszu w lewo, zgodnie z zasadami gry:
+     * każdy kafelek może zostać połączony co najwyżej raz w jednym ruchu.
+     * Kafelki o maksymalnym wykładniku nie są łączone, bo wynik nie zmieściłby się w 4 bitach.
+     *
+     * @param line wiersz wykładników, modyfikowany w miejscu.
+     * @return punkty zdobyte za połączenia.
+     */
+    private static int slideLeft(int[] line) {
+        int score = 0;
+        int target = 0;
+        int pending = 0;
+        for (int exponent : line) {
+            if (exponent == 0) continue;
+            if (pending == exponent && exponent < MAX_EXPONENT) {
+                line[target++] = exponent + 1;
+                score += 1 << (exponent + 1);
+                pending = 0;
+            } else {
+                if (pending != 0) line[target++] = pending;
+                pending = exponent;
+            }
+        }
+        if (pending != 0) line[target++] = pending;
+        while (target < line.length) line[target++] = 0;
+        return score;
+    }
+
+    /**
+     * Odwraca kolejność pól w 16-bitowym wierszu.
+     *
+     * @param row wiersz do odwrócenia.
+     * @return odwrócony wiersz.
+     */
+    private static int reverseRow(int row) {
+        return ((row & 0xF) << 12) | ((row & 0xF0) << 4) | ((row >>> 4) & 0xF0) | ((row >>> 12) & 0xF);
+    }
+
+    /**
+     * Przekształca każdy wiersz planszy według podanej tablicy przejść.
+     *
+     * @param board plansza.
+     * @param table tablica przejść wiersza.
+     * @return plansza po przekształceniu.
+     */
+    private static long moveRows(long board, char[] table) {
+        return (long) table[(int) (board & ROW_MASK)]
+                | (long) table[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) table[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) table[(int) (board >>> 48)] << 48;
+    }
+
+    /**
+     * Sumuje punkty zdobyte za połączenia we wszystkich wierszach planszy.
+     *
+     * @param board plansza.
+     * @return suma punktów.
+     */
+    private static int rowsScore(long board) {
+        return ROW_SCORE[(int) (board & ROW_MASK)]
+                + ROW_SCORE[(int) ((board >>> 16) & ROW_MASK)]
+                + ROW_SCORE[(int) ((board >>> 32) & ROW_MASK)]
+                + ROW_SCORE[(int) (board >>> 48)];
+    }
+
+    /**
+     * Transponuje planszę (zamienia wiersze z kolumnami).
+     *
+     * @param board plansza.
+     * @return plansza po transpozycji.
+     */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /**
+     * Wykonuje ruch w lewo.
+     *
+     * @param board plansza.
+     * @return plansza po ruchu (bez dodania nowego kafelka).
+     */
+    public static long left(long board) {
+        return moveRows(board, ROW_LEFT);
+    }
+
+    /**
+     * Wykonuje ruch w prawo.
+     *
+     * @param board plansza.
+     * @return plansza po ruchu (bez dodania nowego kafelka).
+     */
+    public static long right(long board) {
+        return moveRows(board, ROW_RIGHT);
+    }
+
+    /**
+     * Wykonuje ruch do góry.
+     *
+     * @param board plansza.
+     * @return plansza po ruchu (bez dodania nowego kafelka).
+     */
+    public static long up(long board) {
+        return transpose(moveRows(transpose(board), ROW_LEFT));
+    }
+
+    /**
+     * Wykonuje ruch w dół.
+     *
+     * @param board plansza.
+     * @return plansza po ruchu (bez dodania nowego kafelka).
+     */
+    public static long down(long board) {
+        return transpose(moveRows(transpose(board), ROW_RIGHT));
+    }
+
+    /**
+     * Wykonuje ruch w podanym kierunku.
+     *
+     * @param board plansza.
+     * @param direction kierunek ruchu.
+     * @return plansza po ruchu (bez dodania nowego kafelka).
+     */
+    public static long move(long board, Direction direction) {
+        switch (direction) {
+            case LEFT:
+                return left(board);
+            case RIGHT:
+                return right(board);
+            case UP:
+                return up(board);
+            default:
+                return down(board);
+        }
+    }
+
+    /**
+     * Zwraca liczbę punktów, które zostaną zdobyte za ruch w podanym kierunku.
+     *
+     * @param board plansza przed ruchem.
+     * @param direction kierunek ruchu.
+     * @return liczba zdobytych punktów.
+     */
+    public static int moveScore(long board, Direction direction) {
+        if (direction == Direction.LEFT || direction == Direction.RIGHT) {
+            return rowsScore(board);
+        }
+        return rowsScore(transpose(board));
+    }
+
+    /**
+     * Zwraca maskę dozwolonych ruchów, czyli ruchów zmieniających planszę. Bit o numerze
+     * {@link Direction#ordinal()} jest ustawiony, jeśli ruch w danym kierunku jest dozwolony.
+     * Wynik jest odczytywany z tablicy dla każdego wiersza i każdej kolumny, bez wykonywania ruchów.
+     *
+     * @param board plansza.
+     * @return maska dozwolonych ruchów (0, jeśli gra się skończyła).
+     */
+    public static int legalMoves(long board) {
+        long columns = transpose(board);
+        int rows = ROW_LEGAL[(int) (board & ROW_MASK)]
+                | ROW_LEGAL[(int) ((board >>> 16) & ROW_MASK)]
+                | ROW_LEGAL[(int) ((board >>> 32) & ROW_MASK)]
+                | ROW_LEGAL[(int) (board >>> 48)];
+        int cols = ROW_LEGAL[(int) (columns & ROW_MASK)]
+                | ROW_LEGAL[(int) ((columns >>> 16) & ROW_MASK)]
+                | ROW_LEGAL[(int) ((columns >>> 32) & ROW_MASK)]
+                | ROW_LEGAL[(int) (columns >>> 48)];
+        return rows | cols << Direction.UP.ordinal();
+    }
+
+    /**
+     * Zwraca liczbę pustych pól na planszy.
+     *
+     * @param board plansza.
+     * @return liczba pustych pól.
+     */
+    public static int countEmpty(long board) {
+        long x = board | (board >>> 2);
+        x |= x >>> 1;
+        return Long.bitCount(~x & 0x1111111111111111L);
+    }
+
+    /**
+     * Zwraca największy wykładnik na planszy.
+     *
+     * @param board plansza.
+     * @return największy wykładnik lub 0 dla pustej planszy.
+     */
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (; board != 0; board >>>= 4) {
+            max = Math.max(max, (int) (board & 0xF));
+        }
+        return max;
+    }
+
+    /**
+     * Zwraca wykładnik pola w podanym wierszu i kolumnie.
+     *
+     * @param board plansza.
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wykładnik (0 dla pustego pola).
+     */
+    public static int get(long board, int row, int col) {
+        return (int) (board >>> (16 * row + 4 * col)) & 0xF;
+    }
+
+    /**
+     * Ustawia wykładnik pola w podanym wierszu i kolumnie.
+     *
+     * @param board plansza.
+     * @param row wiersz.
+     * @param col kolumna.
+     * @param exponent nowy wykładnik (0-15).
+     * @return plansza z ustawionym polem.
+     */
+    public static long set(long board, int row, int col, int exponent) {
+        int shift = 16 * row + 4 * col;
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    /**
+     * Zamienia wartość kafelka na wykładnik.
+     *
+     * @param value wartość kafelka (0 lub potęga dwójki).
+     * @return wykładnik (0 dla pustego pola).
+     */
+    public static int toExponent(int value) {
+        return value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+    }
+
+    /**
+     * Zamienia wykładnik na wartość kafelka.
+     *
+     * @param exponent wykładnik.
+     * @return wartość kafelka (0 dla pustego pola).
+     */
+    public static int toValue(int exponent) {
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    /**
+     * Sprawdza, czy ruchy na planszy mogą być wykonane przez tę klasę tak samo jak przez {@link GridBoard}.
+     * Plansza musi mieć rozmiar 4x4, a wszystkie kafelki muszą być mniejsze od 32768: dwa kafelki
+     * 32768 połączyłyby się w kafelek, który nie mieści się w 4 bitach.
+     *
+     * @param tiles plansza kafelków.
+     * @return true, jeśli plansza może być przesuwana przez tę klasę.
+     */
+    public static boolean fits(Tile[][] tiles) {
+        if (tiles.length != SIZE) return false;
+        for (Tile[] row : tiles) {
+            for (Tile tile : row) {
+                if (tile.value >= 1 << MAX_EXPONENT) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pakuje planszę 4x4 złożoną z kafelków do liczby typu long.
+     *
+     * @param tiles plansza kafelków o rozmiarze 4x4.
+     * @return spakowana plansza.
+     * @throws IllegalArgumentException jeśli wykładnik któregoś kafelka nie mieści się w 4 bitach.
+     */
+    public static long fromTiles(Tile[][] tiles) {
+        long board = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int exponent = toExponent(tiles[row][col].value);
+                if (exponent > MAX_EXPONENT) {
+                    throw new IllegalArgumentException("Tile does not fit in a bit board: " + tiles[row][col].value);
+                }
+                board |= (long) exponent << (16 * row + 4 * col);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Zapisuje spakowaną planszę do istniejących kafelków, bez tworzenia nowych obiektów.
+     *
+     * @param board spakowana plansza.
+     * @param tiles plansza kafelków o rozmiarze 4x4, modyfikowana w miejscu.
+     */
+    public static void toTiles(long board, Tile[][] tiles) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                tiles[row][col].value = toValue(get(board, row, col));
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.my2048.game;
+
+/**
+ * Domyślna funkcja oceny planszy dla automatycznego gracza.
+ * Ocena jest ważoną sumą czterech składników:
+ * <ul>
+ *     <li>liczby pustych pól,</li>
+ *     <li>monotoniczności - kara za wiersze i kolumny, w których wartości nie rosną ani nie maleją,</li>
+ *     <li>gładkości - kara za różnice między sąsiednimi kafelkami,</li>
+ *     <li>premii za największy kafelek leżący w rogu planszy.</li>
+ * </ul>
+ * Wszystkie składniki są liczone na wykładnikach, więc ocena działa dla plansz dowolnego rozmiaru.
+ */
+public class BoardHeuristic implements Heuristic {
+
+    /**
+     * Waga liczby pustych pól.
+     */
+    private final double emptyWeight;
+
+    /**
+     * Waga kary za brak monotoniczności.
+     */
+    private final double monotonicityWeight;
+
+    /**
+     * Waga kary za brak gładkości.
+     */
+    private final double smoothnessWeight;
+
+    /**
+     * Waga premii za największy kafelek w rogu.
+     */
+    private final double cornerWeight;
+
+    /**
+     * Tworzy funkcję oceny o podanych wagach.
+     *
+     * @param emptyWeight waga liczby pustych pól.
+     * @param monotonicityWeight waga kary za brak monotoniczności.
+     * @param smoothnessWeight waga kary za brak gładkości.
+     * @param cornerWeight waga premii za największy kafelek w rogu.
+     */
+    public BoardHeuristic(double emptyWeight, double monotonicityWeight, double smoothnessWeight, double cornerWeight) {
+        this.emptyWeight = emptyWeight;
+        this.monotonicityWeight = monotonicityWeight;
+        this.smoothnessWeight = smoothnessWeight;
+        this.cornerWeight = cornerWeight;
+    }
+
+    /**
+     * Tworzy funkcję oceny z domyślnymi wagami.
+     *
+     * @return funkcja oceny z domyślnymi wagami.
+     */
+    public static BoardHeuristic standard() {
+        return new BoardHeuristic(16.0, 1.0, 3.0, 8.0);
+    }
+
+    /**
+     * Ocenia planszę jako ważoną sumę pustych pól, monotoniczności, gładkości i premii za róg.
+     *
+     * @param board plansza do oceny.
+     * @return ocena planszy.
+     */
+    @Override
+    public double evaluate(GridBoard board) {
+        int size = board.size();
+        double monotonicity = 0;
+        double smoothness = 0;
+        for (int line = 0; line < size; line++) {
+            double rowUp = 0, rowDown = 0, colUp = 0, colDown = 0;
+            for (int i = 1; i < size; i++) {
+                int rowPrev = board.get(line, i - 1), row = board.get(line, i);
+                int colPrev = board.get(i - 1, line), col = board.get(i, line);
+                if (rowPrev > row) rowDown += rowPrev * rowPrev - row * row;
+                else rowUp += row * row - rowPrev * rowPrev;
+                if (colPrev > col) colDown += colPrev * colPrev - col * col;
+                else colUp += col * col - colPrev * colPrev;
+                if (rowPrev != 0 && row != 0) smoothness += Math.abs(rowPrev - row);
+                if (colPrev != 0 && col != 0) smoothness += Math.abs(colPrev - col);
+            }
+            monotonicity += Math.min(rowUp, rowDown) + Math.min(colUp, colDown);
+        }
+
+        int max = board.maxExponent();
+        int last = size - 1;
+        boolean inCorner = board.get(0, 0) == max || board.get(0, last) == max
+                || board.get(last, 0) == max || board.get(last, last) == max;
+
+        return emptyWeight * board.countEmpty()
+                - monotonicityWeight * monotonicity
+                - smoothnessWeight * smoothness
+                + (inCorner ? cornerWeight * max : 0);
+    }
+}
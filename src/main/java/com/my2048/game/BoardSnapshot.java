@@ -0,0 +1,162 @@
+package com.my2048.game;
+
+/**
+ * Niezmienna kopia stanu gry: plansza, wynik i najlepszy wynik.
+ * <p>
+ * {@link Model} publikuje nową kopię po każdej zmianie stanu ({@link Model#getSnapshot()}),
+ * więc inne wątki - widok, zapis w tle, automatyczny gracz - mogą odczytywać spójny stan
+ * bez blokad i bez wstrzymywania gry. Kolejne kopie mają rosnący numer ({@link #getSequence()}),
+ * po którym czytający może rozpoznać, że stan się zmienił.
+ */
+public final class BoardSnapshot {
+
+    /**
+     * Wartość {@link #move} dla kopii, która nie powstała w wyniku ruchu (cofnięcie, wczytanie, reset).
+     */
+    static final long NO_MOVE = -1L;
+
+    /**
+     * Rozmiar planszy.
+     */
+    private final int size;
+
+    /**
+     * Wykładniki kafelków, wierszami.
+     */
+    private final byte[] cells;
+
+    /**
+     * Wynik.
+     */
+    private final int score;
+
+    /**
+     * Najlepszy wynik.
+     */
+    private final int bestScore;
+
+    /**
+     * Numer kopii, rosnący z każdą publikacją.
+     */
+    private final long sequence;
+
+    /**
+     * Ruch, po którym opublikowano kopię, spakowany przez {@link MoveRecord}, albo {@link #NO_MOVE}.
+     */
+    private final long move;
+
+    /**
+     * Tworzy kopię stanu gry.
+     *
+     * @param tiles plansza kafelków, kopiowana.
+     * @param score wynik.
+     * @param bestScore najlepszy wynik.
+     * @param sequence numer kopii.
+     */
+    BoardSnapshot(Tile[][] tiles, int score, int bestScore, long sequence) {
+        this(tiles, score, bestScore, sequence, NO_MOVE);
+    }
+
+    /**
+     * Tworzy kopię stanu gry po ruchu.
+     *
+     * @param tiles plansza kafelków, kopiowana.
+     * @param score wynik.
+     * @param bestScore najlepszy wynik.
+     * @param sequence numer kopii.
+     * @param move ruch spakowany przez {@link MoveRecord} albo {@link #NO_MOVE}.
+     */
+    BoardSnapshot(Tile[][] tiles, int score, int bestScore, long sequence, long move) {
+        this.size = tiles.length;
+        this.cells = new byte[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[i * size + j] = (byte) BitBoard.toExponent(tiles[i][j].value);
+            }
+        }
+        this.score = score;
+        this.bestScore = bestScore;
+        this.sequence = sequence;
+        this.move = move;
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return rozmiar planszy.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Zwraca wartość kafelka.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wartość kafelka (0 dla pustego pola).
+     */
+    public int getValue(int row, int col) {
+        return BitBoard.toValue(cells[row * size + col]);
+    }
+
+    /**
+     * Zwraca wykładnik kafelka.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wykładnik (0 dla pustego pola).
+     */
+    public int getExponent(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Zwraca wynik.
+     *
+     * @return wynik.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Zwraca najlepszy wynik.
+     *
+     * @return najlepszy wynik.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Zwraca numer kopii. Późniejsza kopia tego samego modelu ma większy numer.
+     *
+     * @return numer kopii.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Zwraca ruch, po którym opublikowano kopię.
+     *
+     * @return ruch spakowany przez {@link MoveRecord} albo {@link #NO_MOVE}.
+     */
+    long getMove() {
+        return move;
+    }
+
+    /**
+     * Tworzy planszę {@link GridBoard} z zawartością kopii, np. dla automatycznego gracza w innym wątku.
+     *
+     * @return nowa plansza.
+     */
+    public GridBoard toBoard() {
+        GridBoard board = new GridBoard(size);
+        for (int cell = 0; cell < cells.length; cell++) {
+            board.set(cell, cells[cell]);
+        }
+        return board;
+    }
+}
@@ -4,15 +4,25 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import javax.swing.*;
 import java.awt.event.*;
-import java.awt.*;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.awt.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
  * Klasa Controller odpowiada za interakcję użytkownika z grą 2048.
  * Kontroler reaguje na zdarzenia klawiatury i myszy, kontroluje stan gry
  * i wywołuje odpowiednie metody na modelu i widoku.
+ * <p>
+ * Model jest zmieniany wyłącznie w wątku gry {@link GameLoop}: obsługa zdarzeń tylko zleca mu
+ * polecenia, a widok rysuje kopie stanu publikowane przez model. Wyniki poleceń (wygrana, przegrana,
+ * odświeżenie widoku) wracają do wątku obsługi zdarzeń przez {@link SwingUtilities#invokeLater(Runnable)}.
+ * Pola widoku są używane tylko w wątku obsługi zdarzeń, a pola opisane jako należące do wątku gry - tylko w nim.
  */
 public class Controller extends KeyAdapter implements MouseListener, MouseMotionListener {
 
@@ -46,68 +56,175 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
      */
     private boolean isMouseDragging;
 
+    /**
+     * Wątek gry, jedyny wątek zmieniający model.
+     */
+    private final GameLoop gameLoop = new GameLoop();
+
+    /**
+     * Usługa zapisująca stan gry w tle, aby obsługa zdarzeń nie czekała na dysk.
+     */
+    private final SaveWriter saveWriter;
+
+    /**
+     * Domyślny odstęp między ruchami odtwarzanej gry w milisekundach.
+     */
+    private static final int PLAYBACK_DELAY_MILLIS = 200;
+
+    /**
+     * Najkrótszy odstęp między ruchami odtwarzanej gry w milisekundach.
+     */
+    private static final int MIN_PLAYBACK_DELAY_MILLIS = 5;
+
+    /**
+     * Najdłuższy odstęp między ruchami odtwarzanej gry w milisekundach.
+     */
+    private static final int MAX_PLAYBACK_DELAY_MILLIS = 3200;
+
+    /**
+     * Zegar wykonujący kolejne ruchy odtwarzanej gry.
+     */
+    private final Timer playbackTimer = new Timer(PLAYBACK_DELAY_MILLIS, e -> playbackStep());
+
+    /**
+     * Odtwarzana gra albo null, jeśli gra nie jest odtwarzana.
+     */
+    private Replay.Playback playback;
+
+    /**
+     * Pozycja gry sprzed rozpoczęcia odtwarzania, przywracana po jego zakończeniu. Należy do wątku gry.
+     */
+    private GridBoard positionBeforePlayback;
+
+    /**
+     * Wynik sprzed rozpoczęcia odtwarzania. Należy do wątku gry.
+     */
+    private int scoreBeforePlayback;
+
+    /**
+     * Największa liczba ruchów czekających na wykonanie.
+     */
+    private static final int INPUT_QUEUE_CAPACITY = 64;
+
+    /**
+     * Domyślny najkrótszy odstęp między ruchami z przytrzymanego klawisza w milisekundach.
+     */
+    private static final int REPEAT_INTERVAL_MILLIS = 50;
+
+    /**
+     * Kolejka ruchów zgłoszonych klawiaturą i myszą.
+     */
+    private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY, true,
+            TimeUnit.MILLISECONDS.toNanos(REPEAT_INTERVAL_MILLIS));
+
+    /**
+     * Czy wykonanie ruchów z kolejki zostało już zlecone wątkowi gry.
+     */
+    private final AtomicBoolean inputScheduled = new AtomicBoolean();
+
+    /**
+     * Klawisze, które są wciśnięte; ponowne naciśnięcie bez puszczenia jest powtórzeniem przytrzymanego klawisza.
+     */
+    private final Set<Integer> pressedKeys = new HashSet<>();
+
     /**
      * Konstruktor klasy Controller.
      *
      * @param model Obiekt modelu gry 2048.
      */
     public Controller(Model model) {
+        this(model, Paths.get(""));
+    }
+
+    /**
+     * Konstruktor klasy Controller zapisujący stan gry i przebiegi gier w podanym katalogu.
+     *
+     * @param model Obiekt modelu gry 2048.
+     * @param saveDirectory Katalog zapisu.
+     */
+    Controller(Model model, Path saveDirectory) {
         this.model = model;
+        this.saveWriter = new SaveWriter(saveDirectory, SaveWriter.DEFAULT_MIN_INTERVAL_MILLIS);
         this.view = new View(this);
         view.addMouseListener(this);
         view.addMouseMotionListener(this);
     }
 
     /**
-     * Metoda zwraca aktualny stan gry w postaci tablicy kafelków.
+     * Metoda zwraca kopię aktualnego stanu gry w postaci tablicy kafelków. Kopia jest wykonywana
+     * w wątku gry, po poleceniach zgłoszonych wcześniej, a jej zmiany nie wpływają na grę.
+     * Do rysowania służy {@link #getSnapshot()}, które nie czeka na wątek gry.
      *
      * @return Dwuwymiarowa tablica kafelków.
      */
-    public Tile[][] getGameTiles() {return model.getGameTiles();}
+    public Tile[][] getGameTiles() {
+        return gameLoop.call(() -> SavedGame.copy(model.getGameTiles()));
+    }
 
     /**
-     * Metoda zwraca aktualny wynik gry.
+     * Metoda zwraca ostatnią opublikowaną kopię stanu gry, którą można odczytywać bez blokad.
+     *
+     * @return Kopia planszy, wyniku i najlepszego wyniku.
+     */
+    public BoardSnapshot getSnapshot() {return model.getSnapshot();}
+
+    /**
+     * Metoda zwraca aktualny wynik gry z ostatniej opublikowanej kopii stanu.
      *
      * @return Wynik gry.
      */
     public int getScore() {
-        return model.getScore();
+        return model.getSnapshot().getScore();
     }
 
     /**
-     * Metoda zwraca najlepszy wynik.
+     * Metoda zwraca najlepszy wynik z ostatniej opublikowanej kopii stanu.
      *
      * @return Najlepszy wynik.
      */
     public int getbestScore() {
-        return model.getBestScore();
+        return model.getSnapshot().getBestScore();
     }
 
     /**
      * Setter służący do ustawiania wyniku modelu gry, głównie używany w testach.
+     * Czeka, aż wątek gry ustawi wynik.
      *
      * @param score Nowy wynik gry.
      */
-    public void setModelScore(int score) {this.model.setScore(score);}
+    public void setModelScore(int score) {
+        gameLoop.call(() -> {
+            model.setScore(score);
+            return null;
+        });
+    }
 
     /**
-     * Metoda resetująca stan gry do stanu początkowego.
+     * Metoda resetująca stan gry do stanu początkowego. Model jest resetowany w wątku gry,
+     * a flagi widoku - po zakończeniu resetu, w wątku obsługi zdarzeń. W trakcie odtwarzania gra nie jest resetowana.
      */
     public void resetGame() {
-        SwingUtilities.invokeLater(() -> {
+        gameLoop.execute(() -> {
+            if (positionBeforePlayback != null) return;
+            saveReplay();
             model.setScore(0);
             model.clearHistory();
-            view.isGameLost = false;
-            view.isGameWon = false;
-            view.hasPlayerWonBefore = false;
             model.maxTile = 0;
             model.resetGameTiles();
-            view.repaint();
+            saveGame();
+            SwingUtilities.invokeLater(() -> {
+                view.isGameLost = false;
+                view.isGameWon = false;
+                view.hasPlayerWonBefore = false;
+                view.repaint();
+            });
         });
     }
 
     /**
      * Metoda obsługująca naciśnięcia klawiszy na klawiaturze.
+     * Strzałki dodają ruch do kolejki {@link InputQueue}; pozostałe klawisze zlecają polecenie
+     * wątkowi gry, który wykonuje je po ruchach zgłoszonych wcześniej.
      *
      * @param e Zdarzenie klawiatury.
      */
@@ -115,20 +232,32 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
     public void keyPressed(KeyEvent e) {
         if (e.getKeyCode() == KeyEvent.VK_ESCAPE)
             System.exit(0);
-        if (!model.canMove()) view.isGameLost = true;
+        if (playback != null) {
+            handlePlaybackKey(e.getKeyCode());
+            return;
+        }
+        if (e.getKeyCode() == KeyEvent.VK_P && view.currentState == View.GameState.PLAYING) {
+            startPlayback();
+            return;
+        }
+        boolean repeat = !pressedKeys.add(e.getKeyCode());
+        Direction direction = direction(e.getKeyCode());
+        if (direction != null) {
+            if (!view.isGameLost) queueMove(direction, repeat);
+            return;
+        }
+        Runnable command = null;
         if (!view.isGameLost) {
-            if (e.getKeyCode() == KeyEvent.VK_LEFT) model.left();
-            if (e.getKeyCode() == KeyEvent.VK_RIGHT) model.right();
-            if (e.getKeyCode() == KeyEvent.VK_UP) model.up();
-            if (e.getKeyCode() == KeyEvent.VK_DOWN) model.down();
-            if (e.getKeyCode() == KeyEvent.VK_Z) model.rollback();
+            if (e.getKeyCode() == KeyEvent.VK_Z) command = model::rollback;
+            if (e.getKeyCode() == KeyEvent.VK_Y) command = model::redo;
             if (e.getKeyCode() == KeyEvent.VK_R) resetGame();
-            if (e.getKeyCode() == KeyEvent.VK_A) model.autoMove();
+            if (e.getKeyCode() == KeyEvent.VK_A) command = model::autoMove;
             if (e.getKeyCode() == KeyEvent.VK_M) view.currentState = View.GameState.MENU;
+            runCommand(command, true);
         }
         else if(view.currentState == View.GameState.LOST){
             if (e.getKeyCode() == KeyEvent.VK_Z) {
-                model.rollback();
+                command = model::rollback;
                 view.isGameLost = false;
                 view.currentState = View.GameState.PLAYING;
             }
@@ -138,13 +267,127 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
                 view.isGameLost = false;
                 view.currentState = View.GameState.PLAYING;
             }
+            runCommand(command, false);
         }
 
-        if (model.maxTile == WINNING_TILE) view.isGameWon = true;
+        view.refresh();
+    }
 
-        view.repaint();
-        model.saveGame();
+    /**
+     * Zleca wątkowi gry polecenie, po którym stan gry jest zapisywany, a widok dowiaduje się o wygranej lub przegranej.
+     * W trakcie odtwarzania polecenie jest pomijane.
+     *
+     * @param command polecenie zmieniające model albo null, jeśli tylko sprawdzany jest stan gry.
+     * @param checkLost true, jeśli przed poleceniem należy sprawdzić, czy gra nie jest przegrana
+     * (wtedy polecenie nie jest wykonywane).
+     */
+    private void runCommand(Runnable command, boolean checkLost) {
+        gameLoop.execute(() -> {
+            if (positionBeforePlayback != null) return;
+            boolean lost = checkLost && !model.canMove();
+            if (!lost && command != null) command.run();
+            saveGame();
+            boolean won = model.maxTile == WINNING_TILE;
+            SwingUtilities.invokeLater(() -> showStatus(won, lost));
+        });
+    }
+
+    /**
+     * Przekazuje widokowi wynik polecenia wykonanego w wątku gry. Wywoływana w wątku obsługi zdarzeń.
+     *
+     * @param won true, jeśli na planszy jest zwycięski kafelek.
+     * @param lost true, jeśli nie ma już dozwolonych ruchów.
+     */
+    private void showStatus(boolean won, boolean lost) {
+        if (lost) view.isGameLost = true;
+        if (won) view.isGameWon = true;
         checkGameStatus();
+        view.refresh();
+    }
+
+    /**
+     * Metoda obsługująca puszczenie klawisza. Kolejne naciśnięcie tego klawisza nie będzie traktowane jako powtórzenie.
+     *
+     * @param e Zdarzenie klawiatury.
+     */
+    @Override
+    public void keyReleased(KeyEvent e) {
+        pressedKeys.remove(e.getKeyCode());
+    }
+
+    /**
+     * Zwraca kierunek ruchu odpowiadający klawiszowi strzałki.
+     *
+     * @param keyCode kod klawisza.
+     * @return kierunek albo null, jeśli klawisz nie jest strzałką.
+     */
+    private static Direction direction(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_LEFT:
+                return Direction.LEFT;
+            case KeyEvent.VK_RIGHT:
+                return Direction.RIGHT;
+            case KeyEvent.VK_UP:
+                return Direction.UP;
+            case KeyEvent.VK_DOWN:
+                return Direction.DOWN;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Dodaje ruch do kolejki i zleca wątkowi gry wykonanie kolejki, jeśli nie zostało już zlecone.
+     * Ruchy zgłoszone przed wykonaniem kolejki są wykonywane razem, z jednym zapisem gry.
+     *
+     * @param direction kierunek ruchu.
+     * @param repeat true, jeśli ruch pochodzi z przytrzymanego klawisza.
+     */
+    private void queueMove(Direction direction, boolean repeat) {
+        if (inputQueue.offer(direction, repeat, System.nanoTime()) && inputScheduled.compareAndSet(false, true)) {
+            gameLoop.execute(this::applyQueuedMoves);
+        }
+    }
+
+    /**
+     * Wykonuje ruchy z kolejki w kolejności zgłoszenia. Wywoływana w wątku gry. Jeśli nie ma
+     * dozwolonego ruchu, pozostałe ruchy są odrzucane, a widok przechodzi do ekranu przegranej.
+     * Stan gry jest zapisywany raz, po wykonaniu wszystkich ruchów. W trakcie odtwarzania ruchy
+     * są odrzucane - zgłoszone tuż po rozpoczęciu odtwarzania zmieniłyby odtwarzaną pozycję.
+     */
+    private void applyQueuedMoves() {
+        // ruchy zgłoszone od tej chwili zlecą kolejne wykonanie, jeśli ta pętla ich nie pobierze
+        inputScheduled.set(false);
+        if (positionBeforePlayback != null) {
+            inputQueue.clear();
+            return;
+        }
+        boolean moved = false;
+        boolean lost = false;
+        Direction direction;
+        while ((direction = inputQueue.poll()) != null) {
+            if (!model.canMove()) {
+                lost = true;
+                inputQueue.clear();
+                break;
+            }
+            model.move(direction);
+            moved = true;
+            boolean won = model.maxTile == WINNING_TILE;
+            SwingUtilities.invokeLater(() -> showStatus(won, false));
+        }
+        if (moved) saveGame();
+        if (lost) SwingUtilities.invokeLater(() -> showStatus(false, true));
+    }
+
+    /**
+     * Zmienia sposób łączenia ruchów z przytrzymanego klawisza. Ruchy czekające w kolejce pozostają w niej.
+     *
+     * @param coalesceRepeats true, jeśli powtórzenie ruchu czekającego na wykonanie ma być pomijane.
+     * @param repeatIntervalMillis najkrótszy odstęp między ruchami z przytrzymanego klawisza w milisekundach (0 bez ograniczenia).
+     */
+    public void setInputRepeat(boolean coalesceRepeats, int repeatIntervalMillis) {
+        inputQueue.configure(coalesceRepeats, TimeUnit.MILLISECONDS.toNanos(repeatIntervalMillis));
     }
 
     /**
@@ -155,6 +398,7 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
      */
     @Override
     public void mousePressed(MouseEvent e) {
+        if (playback != null) stopPlayback();
         initialClick = e.getPoint();
         isMouseDragging = true;
         moveMade = false;
@@ -162,8 +406,8 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
 
     /**
      * Metoda obsługująca zdarzenie przeciągnięcia myszy.
-     * W zależności od kierunku przeciągnięcia, wywołuje odpowiednią metodę modelu gry
-     * (up, down, left, right).
+     * W zależności od kierunku przeciągnięcia, dodaje do kolejki odpowiedni ruch
+     * (up, down, left, right); jedno przeciągnięcie daje co najwyżej jeden ruch.
      *
      * @param e Zdarzenie myszy.
      */
@@ -174,34 +418,27 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
             int dy = e.getY() - initialClick.y;
 
             int minDist = 20;
-            boolean moved = false;
+            Direction direction = null;
 
             if (Math.abs(dx) > Math.abs(dy)) {
                 if (dx > minDist) {
-                    model.right();
-                    moved = true;
+                    direction = Direction.RIGHT;
                 } else if (dx < -minDist) {
-                    model.left();
-                    moved = true;
+                    direction = Direction.LEFT;
                 }
             } else {
                 if (dy > minDist) {
-                    model.down();
-                    moved = true;
+                    direction = Direction.DOWN;
                 } else if (dy < -minDist) {
-                    model.up();
-                    moved = true;
+                    direction = Direction.UP;
                 }
             }
 
-            if (moved) {
+            if (direction != null) {
                 initialClick = e.getPoint();
                 moveMade = true;
+                if (!view.isGameLost) queueMove(direction, false);
             }
-            if (model.maxTile == WINNING_TILE) view.isGameWon = true;
-            view.repaint();
-            model.saveGame();
-            checkGameStatus();
         }
     }
 
@@ -224,17 +461,14 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
         if (view.currentState == View.GameState.MENU) {
             if (view.get3x3ButtonArea().contains(p)) {
                 view.setTileSize(132);
-                model.setFieldWidth(3);
                 view.setBoardSize(3);
                 handleNewGame(3);
             } else if (view.get4x4ButtonArea().contains(p)) {
                 view.setTileSize(96);
-                model.setFieldWidth(4);
                 view.setBoardSize(4);
                 handleNewGame(4);
             } else if (view.get5x5ButtonArea().contains(p)) {
                 view.setTileSize(74);
-                model.setFieldWidth(5);
                 view.setBoardSize(5);
                 handleNewGame(5);
             }
@@ -249,23 +483,17 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
             // Sprawdź, czy kliknięcie było w obrębie przycisku "Z"
             else if (new Rectangle(181, 75, 15, 20).contains(p)) {
                 // Wywołaj funkcję cofania ruchu
-                model.rollback();
-                model.saveGame();
-                view.repaint();
+                runCommand(model::rollback, false);
             }
             // Sprawdź, czy kliknięcie było w obrębie przycisku "R"
             else if (new Rectangle(252, 75, 15, 20).contains(p)) {
                 // Wywołaj funkcję resetu gry
                 resetGame();
-                model.saveGame();
-                view.repaint();
             }
             // Sprawdź, czy kliknięcie było w obrębie przycisku "A"
             else if (new Rectangle(401, 75, 15, 20).contains(p)) {
                 // Wywołaj funkcję automatycznego ruchu
-                model.autoMove();
-                model.saveGame();
-                view.repaint();
+                runCommand(model::autoMove, false);
             }
 
         }
@@ -291,31 +519,145 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
     /**
      * Obsługuje rozpoczęcie nowej gry o podanym rozmiarze.
      * <p>
-     * Metoda sprawdza, czy istnieje zapis gry dla danego rozmiaru. Jeżeli tak, wczytuje go.
-     * W przeciwnym razie tworzy nowy plik zapisu gry i resetuje stan gry.
-     * Po wykonaniu tych działań, odświeża widok i ustawia stan gry na PLAYING.
+     * Metoda w wątku gry ustawia rozmiar planszy i wczytuje zapis gry dla danego rozmiaru z magazynu zapisów
+     * (wraz z ruchami z dziennika). Jeżeli zapisu nie ma lub jest uszkodzony, resetuje stan gry i zapisuje nowy plik.
+     * Widok przechodzi od razu do stanu PLAYING i jest odświeżany po wczytaniu gry.
      *
      * @param size rozmiar planszy gry, dla którego rozpoczyna się nowa gra
      */
     private void handleNewGame(int size) {
-        File file = new File("gameState" + size + ".json");
-        if (file.exists() && !file.isDirectory()) {
-            model.loadGame();
-        } else {
-            try {
-                if (file.createNewFile()) {
-                    model.resetGameTiles();
-                    model.saveGame();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
+        gameLoop.execute(() -> {
+            saveReplay();
+            model.setFieldWidth(size);
+            if (!model.loadGame(loadSaved(size))) {
+                model.resetGameTiles();
+                saveGame();
             }
-        }
+            SwingUtilities.invokeLater(view::refresh);
+        });
         view.repaint();
         view.currentState = View.GameState.PLAYING;
     }
 
 
+    /**
+     * Zgłasza bieżący stan gry do zapisu w tle. Kolejne zgłoszenia przed zapisem są łączone w jeden zapis.
+     * Wywoływana w wątku gry.
+     */
+    private void saveGame() {
+        saveWriter.submit(model.toSavedGame());
+    }
+
+    /**
+     * Zapisuje w tle przebieg zakończonej gry (jeśli zawiera jakieś ruchy) i rozpoczyna nowy zapis przebiegu.
+     * Wywoływana w wątku gry.
+     */
+    private void saveReplay() {
+        Replay replay = model.finishReplay();
+        if (replay.getMoveCount() > 0) {
+            saveWriter.saveReplay(replay);
+        }
+    }
+
+    /**
+     * Rozpoczyna odtwarzanie bieżącej gry od jej pozycji początkowej. Po zakończeniu (lub przerwaniu)
+     * przywracana jest pozycja sprzed odtwarzania. Pozycja jest zapamiętywana w wątku gry, a zegar
+     * odtwarzania jest uruchamiany w wątku obsługi zdarzeń. Do czasu przywrócenia pozycji wątek gry
+     * pomija ruchy i polecenia zmieniające grę, także zgłoszone zanim zegar zostanie uruchomiony.
+     */
+    private void startPlayback() {
+        gameLoop.execute(() -> {
+            Replay replay = model.getReplay();
+            if (positionBeforePlayback != null || replay.getMoveCount() == 0
+                    || replay.getSize() != model.getGameTiles().length) return;
+            positionBeforePlayback = new GridBoard(replay.getSize());
+            positionBeforePlayback.fromTiles(model.getGameTiles());
+            scoreBeforePlayback = model.getScore();
+            Replay.Playback started = replay.play();
+            model.showPosition(started.getBoard(), started.getScore());
+            SwingUtilities.invokeLater(() -> {
+                playback = started;
+                playbackTimer.start();
+                view.repaint();
+            });
+        });
+    }
+
+    /**
+     * Wykonuje kolejny ruch odtwarzanej gry albo kończy odtwarzanie po ostatnim ruchu.
+     * Pozycja jest kopiowana i wyświetlana przez wątek gry.
+     */
+    private void playbackStep() {
+        if (playback == null) return;
+        if (!playback.hasNext()) {
+            stopPlayback();
+            return;
+        }
+        playback.step();
+        GridBoard board = playback.getBoard().copy();
+        int score = playback.getScore();
+        gameLoop.execute(() -> {
+            model.showPosition(board, score);
+            SwingUtilities.invokeLater(view::refresh);
+        });
+    }
+
+    /**
+     * Kończy odtwarzanie i przywraca w wątku gry pozycję sprzed jego rozpoczęcia.
+     */
+    private void stopPlayback() {
+        playbackTimer.stop();
+        playback = null;
+        gameLoop.execute(() -> {
+            if (positionBeforePlayback == null) return;
+            model.showPosition(positionBeforePlayback, scoreBeforePlayback);
+            positionBeforePlayback = null;
+            SwingUtilities.invokeLater(view::repaint);
+        });
+    }
+
+    /**
+     * Obsługuje klawisze w trakcie odtwarzania: P przerywa odtwarzanie, + i - zmieniają jego szybkość.
+     *
+     * @param keyCode kod klawisza.
+     */
+    private void handlePlaybackKey(int keyCode) {
+        int delay = playbackTimer.getDelay();
+        if (keyCode == KeyEvent.VK_P) {
+            stopPlayback();
+        } else if (keyCode == KeyEvent.VK_EQUALS || keyCode == KeyEvent.VK_ADD) {
+            playbackTimer.setDelay(Math.max(MIN_PLAYBACK_DELAY_MILLIS, delay / 2));
+        } else if (keyCode == KeyEvent.VK_MINUS || keyCode == KeyEvent.VK_SUBTRACT) {
+            playbackTimer.setDelay(Math.min(MAX_PLAYBACK_DELAY_MILLIS, delay * 2));
+        }
+    }
+
+    /**
+     * Wczytuje zapis gry dla planszy podanego rozmiaru. Zgłoszone wcześniej stany są najpierw zapisywane.
+     * Wywoływana w wątku gry.
+     *
+     * @param size rozmiar planszy.
+     * @return zapisany stan gry albo null, jeśli zapisu nie ma lub nie można go odczytać.
+     */
+    private SavedGame loadSaved(int size) {
+        try {
+            return saveWriter.load(size);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Wykonuje zgłoszone polecenia, zatrzymuje wątek gry, a następnie zapisuje oczekujące stany gry
+     * i zatrzymuje wątek zapisu. Wywoływana przy zamykaniu programu.
+     */
+    public void close() {
+        playbackTimer.stop();
+        gameLoop.close();
+        saveWriter.close();
+    }
+
     /**
      * Metoda zwraca obiekt widoku gry.
      *
@@ -337,6 +679,7 @@ public class Controller extends KeyAdapter implements MouseListener, MouseMotion
         } else if (view.isGameLost) {
             // Przełączamy stan gry na LOST zamiast wywoływać JOptionPane
             view.currentState = View.GameState.LOST;
+            gameLoop.execute(this::saveReplay);
         }
     }
 }
@@ -0,0 +1,303 @@
+package com.my2048.game;
+
+import java.util.Arrays;
+
+/**
+ * Nieograniczona historia ruchów z możliwością cofania i ponawiania.
+ * <p>
+ * Zamiast pełnej kopii planszy dla każdego ruchu zapisywana jest tylko zmiana: kierunek ruchu,
+ * pole i wykładnik nowego kafelka oraz przyrost wyniku, spakowane w jedną liczbę typu long ({@link MoveRecord}).
+ * Co {@link #DEFAULT_CHECKPOINT_INTERVAL} ruchów (oraz po każdej zmianie planszy wykonanej poza ruchami)
+ * zapisywany jest pełny punkt kontrolny. Dowolna wcześniejsza pozycja jest odtwarzana
+ * z najbliższego wcześniejszego punktu kontrolnego przez ponowne wykonanie zapisanych ruchów
+ * na planszy {@link GridBoard}.
+ * <p>
+ * Historia śledzi bieżący stan gry na własnej planszy, dzięki czemu ponowienie ruchu wymaga
+ * wykonania tylko jednego zapisanego ruchu. Klasa nie jest bezpieczna wątkowo.
+ */
+public class DeltaHistory {
+
+    /**
+     * Domyślna liczba ruchów między kolejnymi punktami kontrolnymi.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    /**
+     * Początkowa liczba miejsc na ruchy i punkty kontrolne.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Liczba ruchów między kolejnymi punktami kontrolnymi.
+     */
+    private final int checkpointInterval;
+
+    /**
+     * Zapisane ruchy spakowane przez {@link MoveRecord}.
+     */
+    private long[] moves = new long[INITIAL_CAPACITY];
+
+    /**
+     * Liczba zapisanych ruchów, łącznie z cofniętymi, które można ponowić.
+     */
+    private int length;
+
+    /**
+     * Pozycja bieżącego stanu, czyli liczba ruchów wykonanych od początku historii.
+     */
+    private int cursor;
+
+    /**
+     * Pozycje punktów kontrolnych, rosnąco.
+     */
+    private int[] checkpointPositions = new int[INITIAL_CAPACITY];
+
+    /**
+     * Wyniki zapisane w punktach kontrolnych.
+     */
+    private int[] checkpointScores = new int[INITIAL_CAPACITY];
+
+    /**
+     * Wykładniki kafelków zapisane w punktach kontrolnych, po {@code cellCount} bajtów na punkt.
+     */
+    private byte[] checkpointCells = new byte[0];
+
+    /**
+     * Liczba punktów kontrolnych.
+     */
+    private int checkpointCount;
+
+    /**
+     * Plansza odpowiadająca pozycji {@link #cursor} albo null, jeśli historia nie została rozpoczęta.
+     */
+    private GridBoard current;
+
+    /**
+     * Wynik odpowiadający pozycji {@link #cursor}.
+     */
+    private int currentScore;
+
+    /**
+     * Tworzy historię z domyślnym odstępem między punktami kontrolnymi.
+     */
+    public DeltaHistory() {
+        this(DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Tworzy historię z podanym odstępem między punktami kontrolnymi.
+     *
+     * @param checkpointInterval liczba ruchów między punktami kontrolnymi, co najmniej 1.
+     */
+    public DeltaHistory(int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Zwraca rozmiar planszy, dla której zapisano historię.
+     *
+     * @return rozmiar planszy albo 0, jeśli historia nie została rozpoczęta.
+     */
+    public int boardSize() {
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Zwraca liczbę ruchów, które można cofnąć.
+     *
+     * @return liczba ruchów przed bieżącą pozycją.
+     */
+    public int position() {
+        return cursor;
+    }
+
+    /**
+     * Zwraca liczbę zapisanych ruchów, łącznie z cofniętymi.
+     *
+     * @return liczba zapisanych ruchów.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Zwraca liczbę zapisanych punktów kontrolnych.
+     *
+     * @return liczba punktów kontrolnych.
+     */
+    public int checkpointCount() {
+        return checkpointCount;
+    }
+
+    /**
+     * Sprawdza, czy można cofnąć ruch.
+     *
+     * @return true, jeśli przed bieżącą pozycją jest zapisany ruch.
+     */
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    /**
+     * Sprawdza, czy można ponowić ruch na podanej planszy. Ponowienie nie jest możliwe,
+     * jeśli plansza lub wynik zostały zmienione poza historią od ostatniego cofnięcia.
+     *
+     * @param tiles bieżąca plansza.
+     * @param score bieżący wynik.
+     * @return true, jeśli za bieżącą pozycją jest cofnięty ruch, a plansza zgadza się z historią.
+     */
+    public boolean canRedo(Tile[][] tiles, int score) {
+        return cursor < length && matches(tiles, score);
+    }
+
+    /**
+     * Sprawdza, czy ostatni ruch przed bieżącą pozycją zmienił planszę.
+     *
+     * @return true, jeśli ostatni ruch zmienił planszę.
+     */
+    public boolean lastMoveChangedBoard() {
+        return cursor > 0 && MoveRecord.spawnExponent(moves[cursor - 1]) != 0;
+    }
+
+    /**
+     * Usuwa całą historię.
+     */
+    public void clear() {
+        length = 0;
+        cursor = 0;
+        checkpointCount = 0;
+    }
+
+    /**
+     * Przygotowuje historię do zapisania ruchu wykonywanego z podanego stanu. Cofnięte ruchy są usuwane.
+     * Punkt kontrolny jest zapisywany na początku historii, co {@link #checkpointInterval} ruchów
+     * oraz wtedy, gdy plansza lub wynik zostały zmienione poza historią. Zmiana rozmiaru planszy czyści historię.
+     *
+     * @param tiles plansza przed ruchem.
+     * @param score wynik przed ruchem.
+     */
+    public void beginMove(Tile[][] tiles, int score) {
+        if (current == null || current.size() != tiles.length) {
+            current = new GridBoard(tiles.length);
+            checkpointCells = new byte[checkpointPositions.length * current.cellCount()];
+            clear();
+        }
+        length = cursor;
+        while (checkpointCount > 0 && checkpointPositions[checkpointCount - 1] > cursor) {
+            checkpointCount--;
+        }
+        boolean edited = checkpointCount == 0 || !matches(tiles, score);
+        if (edited) {
+            current.fromTiles(tiles);
+            currentScore = score;
+        }
+        if (edited || cursor - checkpointPositions[checkpointCount - 1] >= checkpointInterval) {
+            addCheckpoint();
+        }
+    }
+
+    /**
+     * Zapisuje ruch wykonany po {@link #beginMove(Tile[][], int)}.
+     *
+     * @param move ruch spakowany przez {@link MoveRecord#pack(Direction, int, int, int)}.
+     * @param tiles plansza po ruchu.
+     * @param score wynik po ruchu.
+     */
+    public void record(long move, Tile[][] tiles, int score) {
+        if (length == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[length++] = move;
+        cursor = length;
+        current.fromTiles(tiles);
+        currentScore = score;
+    }
+
+    /**
+     * Cofa ostatni ruch: odtwarza poprzednią pozycję z najbliższego punktu kontrolnego
+     * i zapisuje ją do istniejących kafelków.
+     *
+     * @param tiles plansza, do której zostanie zapisany stan (tego samego rozmiaru co historia).
+     * @return wynik w odtworzonej pozycji.
+     * @throws IllegalStateException jeśli nie ma ruchu do cofnięcia.
+     */
+    public int undo(Tile[][] tiles) {
+        if (cursor == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        int target = cursor - 1;
+        int checkpoint = checkpointCount - 1;
+        while (checkpointPositions[checkpoint] > target) {
+            checkpoint--;
+        }
+        int offset = checkpoint * current.cellCount();
+        for (int cell = 0; cell < current.cellCount(); cell++) {
+            current.set(cell, checkpointCells[offset + cell]);
+        }
+        currentScore = checkpointScores[checkpoint];
+        for (int position = checkpointPositions[checkpoint]; position < target; position++) {
+            currentScore += MoveRecord.apply(current, moves[position]);
+        }
+        cursor = target;
+        current.toTiles(tiles);
+        return currentScore;
+    }
+
+    /**
+     * Ponawia ostatnio cofnięty ruch i zapisuje wynikową pozycję do istniejących kafelków.
+     *
+     * @param tiles plansza, do której zostanie zapisany stan (tego samego rozmiaru co historia).
+     * @return wynik po ponowionym ruchu.
+     * @throws IllegalStateException jeśli nie ma ruchu do ponowienia.
+     */
+    public int redo(Tile[][] tiles) {
+        if (cursor == length) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        currentScore += MoveRecord.apply(current, moves[cursor++]);
+        current.toTiles(tiles);
+        return currentScore;
+    }
+
+    /**
+     * Zapisuje punkt kontrolny dla bieżącej pozycji. Punkt na tej samej pozycji jest zastępowany.
+     */
+    private void addCheckpoint() {
+        if (checkpointCount > 0 && checkpointPositions[checkpointCount - 1] == cursor) {
+            checkpointCount--;
+        }
+        if (checkpointCount == checkpointPositions.length) {
+            checkpointPositions = Arrays.copyOf(checkpointPositions, checkpointCount * 2);
+            checkpointScores = Arrays.copyOf(checkpointScores, checkpointCount * 2);
+            checkpointCells = Arrays.copyOf(checkpointCells, checkpointCount * 2 * current.cellCount());
+        }
+        int offset = checkpointCount * current.cellCount();
+        for (int cell = 0; cell < current.cellCount(); cell++) {
+            checkpointCells[offset + cell] = (byte) current.get(cell);
+        }
+        checkpointPositions[checkpointCount] = cursor;
+        checkpointScores[checkpointCount] = currentScore;
+        checkpointCount++;
+    }
+
+    /**
+     * Sprawdza, czy plansza i wynik odpowiadają bieżącej pozycji historii.
+     *
+     * @param tiles plansza.
+     * @param score wynik.
+     * @return true, jeśli stan zgadza się z historią.
+     */
+    private boolean matches(Tile[][] tiles, int score) {
+        if (current == null || tiles.length != current.size() || score != currentScore) return false;
+        int size = current.size();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (BitBoard.toExponent(tiles[i][j].value) != current.get(i, j)) return false;
+            }
+        }
+        return true;
+    }
+}
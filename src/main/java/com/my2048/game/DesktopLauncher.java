@@ -1,6 +1,8 @@
 package com.my2048.game;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Klasa DesktopLauncher służy do uruchamiania gry 2048 na pulpicie.
@@ -9,14 +11,29 @@ import javax.swing.*;
 public class DesktopLauncher {
     /**
      * Metoda main służy do inicjalizacji gry 2048 i wyświetlenia jej na pulpicie.
-     * Tworzy nowy model gry i kontroler, a następnie tworzy i konfiguruje nowe okno JFrame,
+     * Tworzy nowy model gry z nieograniczoną historią ruchów i kontroler
+     * (którego oczekujące zapisy są dokończone przy zamykaniu programu), a następnie tworzy i konfiguruje nowe okno JFrame,
      * do którego dodaje widok z kontrolera.
+     * Jeśli pierwszym argumentem jest {@code simulate}, zamiast okna gry uruchamiany jest
+     * {@link Simulator} z pozostałymi argumentami, a jeśli {@code replay} - {@link ReplayRunner}.
      *
-     * @param args Argumenty wiersza poleceń. Nie są używane w tej aplikacji.
+     * @param args Argumenty wiersza poleceń.
+     * @throws InterruptedException jeśli symulacja została przerwana.
+     * @throws IOException jeśli nie można odczytać zapisanych gier.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length > 0 && args[0].equals("simulate")) {
+            Simulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("replay")) {
+            ReplayRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Model model = new Model();
+        model.setUnlimitedUndo(true);
         Controller controller = new Controller(model);
+        Runtime.getRuntime().addShutdownHook(new Thread(controller::close, "save-on-exit"));
         JFrame game = new JFrame();
 
         game.setTitle("2048");
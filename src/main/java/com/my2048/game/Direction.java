@@ -0,0 +1,40 @@
+package com.my2048.game;
+
+/**
+ * Enum reprezentujący kierunek ruchu na planszy gry 2048.
+ * Kolejność stałych jest stała, dzięki czemu {@link #ordinal()} może być używany
+ * jako indeks w tablicach oraz jako numer bitu w maskach dozwolonych ruchów.
+ */
+public enum Direction {
+    /**
+     * Ruch w lewo.
+     */
+    LEFT,
+    /**
+     * Ruch w prawo.
+     */
+    RIGHT,
+    /**
+     * Ruch do góry.
+     */
+    UP,
+    /**
+     * Ruch w dół.
+     */
+    DOWN;
+
+    /**
+     * Tablica wszystkich kierunków, współdzielona, aby uniknąć kopiowania przy każdym wywołaniu {@link #values()}.
+     */
+    private static final Direction[] VALUES = values();
+
+    /**
+     * Zwraca kierunek o podanym numerze porządkowym.
+     *
+     * @param ordinal numer porządkowy kierunku (0-3).
+     * @return kierunek o podanym numerze.
+     */
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,180 @@
+package com.my2048.game;
+
+import java.util.Arrays;
+
+/**
+ * Maska bitowa pustych pól planszy wraz z ich liczbą, używana przez {@link Model} przy dodawaniu kafelków
+ * i sprawdzaniu, czy można wykonać ruch.
+ * <p>
+ * Bit o numerze {@code row * size + col} jest ustawiony, jeśli pole jest puste. Po ruchu maska jest
+ * odtwarzana z planszy silnika ({@link BitBoard} lub {@link GridBoard}), a po dodaniu kafelka
+ * zmieniany jest tylko jeden bit, więc wybór pola dla nowego kafelka nie przegląda kafelków
+ * i niczego nie alokuje. Po zmianach planszy wykonanych poza ruchami maska jest unieważniana
+ * i odtwarzana z kafelków przy następnym użyciu. Klasa nie jest bezpieczna wątkowo.
+ */
+final class EmptyCells {
+
+    /**
+     * Maska pustych pól na każde 64 pola planszy.
+     */
+    private long[] words = new long[1];
+
+    /**
+     * Liczba pól planszy.
+     */
+    private int cellCount;
+
+    /**
+     * Liczba pustych pól.
+     */
+    private int count;
+
+    /**
+     * Flaga określająca, czy maska odpowiada bieżącej planszy.
+     */
+    private boolean valid;
+
+    /**
+     * Sprawdza, czy maska odpowiada planszy o podanej liczbie pól.
+     *
+     * @param cellCount liczba pól planszy.
+     * @return true, jeśli maskę można użyć bez odtwarzania.
+     */
+    boolean isValid(int cellCount) {
+        return valid && this.cellCount == cellCount;
+    }
+
+    /**
+     * Unieważnia maskę po zmianie planszy wykonanej poza ruchami.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Ustawia maskę dla pustej planszy.
+     *
+     * @param cellCount liczba pól planszy.
+     */
+    void fill(int cellCount) {
+        reset(cellCount);
+        for (int word = 0; word < words.length; word++) {
+            int bits = Math.min(Long.SIZE, cellCount - word * Long.SIZE);
+            words[word] = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+        }
+        count = cellCount;
+    }
+
+    /**
+     * Odtwarza maskę z planszy kafelków.
+     *
+     * @param tiles plansza kafelków.
+     */
+    void fromTiles(Tile[][] tiles) {
+        int size = tiles.length;
+        reset(size * size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (tiles[i][j].isEmpty()) add(i * size + j);
+            }
+        }
+    }
+
+    /**
+     * Odtwarza maskę z planszy 4x4 spakowanej przez {@link BitBoard}.
+     *
+     * @param board spakowana plansza.
+     */
+    void fromBitBoard(long board) {
+        reset(BitBoard.SIZE * BitBoard.SIZE);
+        long x = board | (board >>> 2);
+        x |= x >>> 1;
+        long empty = ~x & 0x1111111111111111L;
+        long word = 0;
+        while (empty != 0) {
+            word |= 1L << (Long.numberOfTrailingZeros(empty) >>> 2);
+            empty &= empty - 1;
+        }
+        words[0] = word;
+        count = Long.bitCount(word);
+    }
+
+    /**
+     * Odtwarza maskę z planszy {@link GridBoard}.
+     *
+     * @param board plansza.
+     */
+    void fromGridBoard(GridBoard board) {
+        reset(board.cellCount());
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (board.get(cell) == 0) add(cell);
+        }
+    }
+
+    /**
+     * Oznacza puste pole jako zajęte, np. po dodaniu na nim kafelka.
+     *
+     * @param cell indeks pustego pola.
+     */
+    void remove(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+        count--;
+    }
+
+    /**
+     * Zwraca liczbę pustych pól.
+     *
+     * @return liczba pustych pól.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Zwraca indeks n-tego pustego pola w kolejności wierszy.
+     *
+     * @param n numer pustego pola, od 0 do {@link #count()} - 1.
+     * @return indeks pola (wiersz * rozmiar + kolumna).
+     */
+    int nth(int n) {
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            int inWord = Long.bitCount(bits);
+            if (n < inWord) {
+                for (int i = 0; i < n; i++) {
+                    bits &= bits - 1;
+                }
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+            n -= inWord;
+        }
+        throw new IndexOutOfBoundsException("Empty cell " + n + " out of " + count);
+    }
+
+    /**
+     * Czyści maskę i oznacza ją jako aktualną dla planszy o podanej liczbie pól.
+     *
+     * @param cellCount liczba pól planszy.
+     */
+    private void reset(int cellCount) {
+        int wordCount = (cellCount + Long.SIZE - 1) / Long.SIZE;
+        if (words.length != wordCount) {
+            words = new long[wordCount];
+        } else {
+            Arrays.fill(words, 0);
+        }
+        this.cellCount = cellCount;
+        count = 0;
+        valid = true;
+    }
+
+    /**
+     * Oznacza pole jako puste.
+     *
+     * @param cell indeks pola.
+     */
+    private void add(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+        count++;
+    }
+}
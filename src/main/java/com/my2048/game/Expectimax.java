@@ -0,0 +1,301 @@
+package com.my2048.game;
+
+/**
+ * Automatyczny gracz wybierający ruch przeszukiwaniem expectimax.
+ * <p>
+ * Węzły gracza wybierają najlepszy z czterech kierunków, a węzły losowe uśredniają
+ * wynik po wszystkich pustych polach, na których może pojawić się kafelek 2
+ * (z prawdopodobieństwem 90%) lub 4 (z prawdopodobieństwem 10%). Liście są oceniane
+ * przez wymienną funkcję {@link Heuristic}.
+ * <p>
+ * Przeszukiwanie jest pogłębiane iteracyjnie aż do maksymalnej głębokości lub do
+ * wyczerpania limitu czasu na ruch. Wynik przerwanej iteracji jest odrzucany,
+ * a zwracany jest ruch z ostatniej pełnej iteracji. Wartości węzłów gracza mogą być
+ * zapamiętywane w {@link TranspositionTable}, dzięki czemu plansze osiągane różnymi
+ * kolejnościami ruchów są oceniane tylko raz. Obiekt przechowuje bufory plansz
+ * dla kolejnych poziomów, dlatego nie jest bezpieczny wątkowo.
+ */
+public class Expectimax implements AutoPlayer {
+
+    /**
+     * Prawdopodobieństwo pojawienia się kafelka 2.
+     */
+    public static final double TWO_PROBABILITY = 0.9;
+
+    /**
+     * Ocena pozycji, w której nie ma już dozwolonych ruchów.
+     */
+    private static final double LOSS_VALUE = -1_000_000;
+
+    /**
+     * Próg prawdopodobieństwa, poniżej którego węzeł losowy nie jest dalej rozwijany.
+     */
+    private static final double MIN_PROBABILITY = 0.0001;
+
+    /**
+     * Co ile odwiedzonych węzłów sprawdzany jest limit przeszukiwania (maska bitowa).
+     */
+    private static final int LIMIT_CHECK_MASK = 0x3FF;
+
+    /**
+     * Funkcja oceny liści.
+     */
+    private final Heuristic heuristic;
+
+    /**
+     * Maksymalna głębokość przeszukiwania, liczona w ruchach gracza.
+     */
+    private final int maxDepth;
+
+    /**
+     * Limit czasu na jeden ruch w milisekundach.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * Tablica transpozycji albo null, jeśli wyniki nie są zapamiętywane.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Bufory plansz dla kolejnych poziomów przeszukiwania.
+     */
+    private GridBoard[] plies = new GridBoard[0];
+
+    /**
+     * Ograniczenie bieżącej iteracji albo null, jeśli iteracja nie może zostać przerwana.
+     */
+    private SearchLimit limit;
+
+    /**
+     * Flaga ustawiana po przerwaniu bieżącej iteracji.
+     */
+    private boolean aborted;
+
+    /**
+     * Licznik odwiedzonych węzłów, używany do rzadkiego sprawdzania limitu.
+     */
+    private int nodes;
+
+    /**
+     * Tworzy automatycznego gracza.
+     *
+     * @param heuristic funkcja oceny liści.
+     * @param maxDepth maksymalna głębokość przeszukiwania w ruchach gracza, co najmniej 1.
+     * @param timeBudgetMillis limit czasu na jeden ruch w milisekundach.
+     */
+    public Expectimax(Heuristic heuristic, int maxDepth, long timeBudgetMillis) {
+        this(heuristic, maxDepth, timeBudgetMillis, null);
+    }
+
+    /**
+     * Tworzy automatycznego gracza zapamiętującego wyniki w tablicy transpozycji.
+     *
+     * @param heuristic funkcja oceny liści.
+     * @param maxDepth maksymalna głębokość przeszukiwania w ruchach gracza, co najmniej 1.
+     * @param timeBudgetMillis limit czasu na jeden ruch w milisekundach.
+     * @param table tablica transpozycji albo null, aby nie zapamiętywać wyników.
+     */
+    public Expectimax(Heuristic heuristic, int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1: " + maxDepth);
+        }
+        this.heuristic = heuristic;
+        this.maxDepth = maxDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.table = table;
+    }
+
+    /**
+     * Zwraca maksymalną głębokość przeszukiwania.
+     *
+     * @return maksymalna głębokość w ruchach gracza.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Wybiera najlepszy ruch dla podanej planszy. Pierwsza iteracja (głębokość 1)
+     * jest zawsze wykonywana w całości, więc ruch jest zwracany nawet przy bardzo małym limicie czasu.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @return najlepszy kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    @Override
+    public Direction bestMove(GridBoard board) {
+        return bestMove(board, new SearchLimit(timeBudgetMillis, Long.MAX_VALUE));
+    }
+
+    /**
+     * Wybiera najlepszy ruch dla podanej planszy z zewnętrznym ograniczeniem przeszukiwania,
+     * które może zostać zatrzymane z innego wątku. Limit czasu podany w konstruktorze jest wtedy pomijany.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @param limit ograniczenie przeszukiwania.
+     * @return najlepszy kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    public Direction bestMove(GridBoard board, SearchLimit limit) {
+        ensureBuffers(board.size());
+        if (table != null) table.newSearch();
+        Direction best = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            this.limit = depth > 1 ? limit : null;
+            aborted = false;
+            Direction candidate = searchRoot(board, depth);
+            if (aborted || candidate == null) break;
+            best = candidate;
+        }
+        this.limit = null;
+        return best;
+    }
+
+    /**
+     * Wylicza wartość węzła gracza na podaną głębokość. Metoda jest używana przez
+     * {@link ParallelExpectimax} do przeszukiwania poddrzew w wątkach roboczych.
+     *
+     * @param board plansza po dodaniu losowego kafelka. Nie jest modyfikowana.
+     * @param depth głębokość w ruchach gracza.
+     * @param probability prawdopodobieństwo dojścia do tego węzła.
+     * @param limit ograniczenie przeszukiwania.
+     * @return wartość węzła; nieistotna, jeśli {@code limit.isStopped()} zwraca true.
+     */
+    double maxValue(GridBoard board, int depth, double probability, SearchLimit limit) {
+        ensureBuffers(board.size());
+        this.limit = limit;
+        aborted = false;
+        double value = max(board, depth, probability, 0);
+        this.limit = null;
+        return value;
+    }
+
+    /**
+     * Rozpoczyna nowe przeszukiwanie w tablicy transpozycji (postarza zapisane wpisy).
+     */
+    void newSearch() {
+        if (table != null) table.newSearch();
+    }
+
+    /**
+     * Ocenia planszę funkcją oceny liści.
+     *
+     * @param board plansza do oceny.
+     * @return ocena planszy.
+     */
+    double evaluate(GridBoard board) {
+        return heuristic.evaluate(board);
+    }
+
+    /**
+     * Przygotowuje bufory plansz dla podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     */
+    private void ensureBuffers(int size) {
+        if (plies.length == maxDepth + 1 && plies[0].size() == size) return;
+        plies = new GridBoard[maxDepth + 1];
+        for (int i = 0; i < plies.length; i++) {
+            plies[i] = new GridBoard(size);
+        }
+    }
+
+    /**
+     * Przeszukuje korzeń drzewa na podaną głębokość.
+     *
+     * @param board plansza w korzeniu.
+     * @param depth głębokość przeszukiwania.
+     * @return najlepszy kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    private Direction searchRoot(GridBoard board, int depth) {
+        Direction best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        GridBoard child = plies[0];
+        int legal = board.legalMoves();
+        for (int d = 0; d < 4; d++) {
+            if ((legal & (1 << d)) == 0) continue;
+            child.copyFrom(board);
+            child.move(Direction.of(d));
+            double value = chance(child, depth, 1.0, 1);
+            if (aborted) return null;
+            if (value > bestValue) {
+                bestValue = value;
+                best = Direction.of(d);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Węzeł gracza: wybiera najlepszą wartość spośród dozwolonych ruchów.
+     *
+     * @param board plansza po dodaniu losowego kafelka.
+     * @param depth pozostała głębokość w ruchach gracza.
+     * @param probability prawdopodobieństwo dojścia do tego węzła.
+     * @param ply numer poziomu, którego bufor jest używany dla ruchów.
+     * @return wartość węzła.
+     */
+    private double max(GridBoard board, int depth, double probability, int ply) {
+        if ((++nodes & LIMIT_CHECK_MASK) == 0 && limit != null && limit.check(LIMIT_CHECK_MASK + 1)) {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        long key = 0;
+        if (table != null) {
+            key = board.hash();
+            int slot = table.find(key);
+            if (slot != TranspositionTable.NOT_FOUND && table.depth(slot) >= depth) {
+                return table.value(slot);
+            }
+        }
+
+        double best = LOSS_VALUE;
+        int bestMove = TranspositionTable.NO_MOVE;
+        GridBoard child = plies[ply];
+        int legal = board.legalMoves();
+        for (int d = 0; d < 4; d++) {
+            if ((legal & (1 << d)) == 0) continue;
+            child.copyFrom(board);
+            child.move(Direction.of(d));
+            double value = chance(child, depth, probability, ply + 1);
+            if (value > best) {
+                best = value;
+                bestMove = d;
+            }
+        }
+        if (table != null && !aborted) {
+            table.store(key, depth, best, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Węzeł losowy: uśrednia wartość po wszystkich możliwych nowych kafelkach.
+     * Plansza jest modyfikowana na czas rozwinięcia i przywracana przed powrotem.
+     *
+     * @param board plansza po ruchu gracza.
+     * @param depth pozostała głębokość w ruchach gracza, łącznie z ruchem, który doprowadził do tej planszy.
+     * @param probability prawdopodobieństwo dojścia do tego węzła.
+     * @param ply numer poziomu dla kolejnych węzłów gracza.
+     * @return wartość oczekiwana węzła.
+     */
+    private double chance(GridBoard board, int depth, double probability, int ply) {
+        int empty = board.countEmpty();
+        if (depth <= 1 || empty == 0 || probability < MIN_PROBABILITY) {
+            return heuristic.evaluate(board);
+        }
+        double twoProbability = probability * TWO_PROBABILITY / empty;
+        double fourProbability = probability * (1 - TWO_PROBABILITY) / empty;
+        double sum = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.get(cell) != 0) continue;
+            board.set(cell, 1);
+            sum += TWO_PROBABILITY * max(board, depth - 1, twoProbability, ply);
+            board.set(cell, 2);
+            sum += (1 - TWO_PROBABILITY) * max(board, depth - 1, fourProbability, ply);
+            board.set(cell, 0);
+            if (aborted) return 0;
+        }
+        return sum / empty;
+    }
+}
@@ -0,0 +1,109 @@
+package com.my2048.game;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wątek gry, jedyny wątek zmieniający {@link Model} używany przez {@link Controller}.
+ * <p>
+ * Interfejs użytkownika przekazuje polecenia (ruchy, cofnięcia, automatyczny ruch, wczytanie gry)
+ * metodą {@link #execute(Runnable)} i nie czeka na ich wykonanie, a stan gry odczytuje z kopii
+ * publikowanych przez model ({@link Model#getSnapshot()}). Polecenia są wykonywane po kolei,
+ * w kolejności zgłoszenia, więc długie przeszukiwanie lub zapis nie wstrzymują rysowania,
+ * a jedynie kolejne polecenia.
+ */
+final class GameLoop implements AutoCloseable {
+
+    /**
+     * Wątek wykonujący polecenia.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Wątek gry, ustawiany przy jego utworzeniu.
+     */
+    private volatile Thread thread;
+
+    /**
+     * Tworzy i uruchamia wątek gry.
+     */
+    GameLoop() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread created = new Thread(runnable, "game-loop");
+            created.setDaemon(true);
+            thread = created;
+            return created;
+        });
+    }
+
+    /**
+     * Zleca wykonanie polecenia w wątku gry. Wyjątek zgłoszony przez polecenie jest wypisywany
+     * i nie zatrzymuje wątku gry. Po zamknięciu wątku polecenie jest pomijane.
+     *
+     * @param command polecenie.
+     */
+    void execute(Runnable command) {
+        try {
+            executor.execute(() -> {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Wątek gry jest zamykany - stan gry został już zapisany.
+        }
+    }
+
+    /**
+     * Wykonuje zadanie w wątku gry i czeka na jego wynik. Wywołane w wątku gry wykonuje zadanie od razu.
+     *
+     * @param task zadanie.
+     * @param <T> typ wyniku.
+     * @return wynik zadania.
+     * @throws IllegalStateException jeśli zadanie zgłosiło wyjątek, oczekiwanie zostało przerwane
+     * lub wątek gry jest zamknięty.
+     */
+    <T> T call(Callable<T> task) {
+        try {
+            if (isGameThread()) return task.call();
+            return executor.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the game loop", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game loop task failed", e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Game loop is closed", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Game loop task failed", e);
+        }
+    }
+
+    /**
+     * Sprawdza, czy bieżący wątek jest wątkiem gry.
+     *
+     * @return true w wątku gry.
+     */
+    boolean isGameThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Wykonuje zgłoszone polecenia i zatrzymuje wątek gry.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
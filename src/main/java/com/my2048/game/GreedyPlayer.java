@@ -0,0 +1,43 @@
+package com.my2048.game;
+
+/**
+ * Automatyczny gracz wybierający ruch tak samo jak {@link Model#greedyMove()}:
+ * ruch, po którym na planszy zostaje najwięcej pustych pól, a przy remisie - ruch dający najwięcej punktów.
+ * Nie uwzględnia losowych kafelków. Nie jest bezpieczny wątkowo.
+ */
+public class GreedyPlayer implements AutoPlayer {
+
+    /**
+     * Plansza robocza do sprawdzania ruchów.
+     */
+    private GridBoard scratch;
+
+    /**
+     * Wybiera ruch o największej efektywności w jednym kroku.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @return wybrany kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    @Override
+    public Direction bestMove(GridBoard board) {
+        if (scratch == null || scratch.size() != board.size()) {
+            scratch = new GridBoard(board.size());
+        }
+        Direction best = null;
+        int bestEmpty = -1;
+        int bestScore = -1;
+        int legal = board.legalMoves();
+        for (int d = 0; d < 4; d++) {
+            if ((legal & (1 << d)) == 0) continue;
+            scratch.copyFrom(board);
+            int gained = scratch.move(Direction.of(d));
+            int empty = scratch.countEmpty();
+            if (empty > bestEmpty || (empty == bestEmpty && gained > bestScore)) {
+                best = Direction.of(d);
+                bestEmpty = empty;
+                bestScore = gained;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,319 @@
+package com.my2048.game;
+
+import java.util.Arrays;
+
+/**
+ * Plansza gry o dowolnym rozmiarze NxN przechowywana w płaskiej tablicy bajtów.
+ * <p>
+ * Każdy bajt przechowuje wykładnik wartości kafelka (0 - pole puste, 1 - kafelek 2, 2 - kafelek 4, ...).
+ * Pole w wierszu {@code row} i kolumnie {@code col} ma indeks {@code row * size + col}.
+ * Ruchy są wykonywane w miejscu: każda linia (wiersz lub kolumna) jest przesuwana
+ * przez arytmetykę indeksów z odpowiednim krokiem, bez obracania planszy i bez alokacji pamięci.
+ */
+public final class GridBoard {
+
+    /**
+     * Największy obsługiwany wykładnik. Wartość 2^30 jest największą potęgą dwójki mieszczącą się w typie int.
+     */
+    public static final int MAX_EXPONENT = 30;
+
+    /**
+     * Rozmiar planszy (liczba pól w wierszu i kolumnie).
+     */
+    private final int size;
+
+    /**
+     * Wykładniki pól planszy zapisane wierszami.
+     */
+    private final byte[] cells;
+
+    /**
+     * Tworzy pustą planszę o podanym rozmiarze.
+     *
+     * @param size rozmiar planszy, co najmniej 2.
+     */
+    public GridBoard(int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2: " + size);
+        }
+        this.size = size;
+        this.cells = new byte[size * size];
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return liczba pól w wierszu.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Zwraca liczbę wszystkich pól planszy.
+     *
+     * @return liczba pól.
+     */
+    public int cellCount() {
+        return cells.length;
+    }
+
+    /**
+     * Zwraca wykładnik pola w podanym wierszu i kolumnie.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wykładnik (0 dla pustego pola).
+     */
+    public int get(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Zwraca wykładnik pola o podanym indeksie.
+     *
+     * @param index indeks pola ({@code row * size + col}).
+     * @return wykładnik (0 dla pustego pola).
+     */
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Ustawia wykładnik pola w podanym wierszu i kolumnie.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @param exponent nowy wykładnik.
+     */
+    public void set(int row, int col, int exponent) {
+        set(row * size + col, exponent);
+    }
+
+    /**
+     * Ustawia wykładnik pola o podanym indeksie.
+     *
+     * @param index indeks pola ({@code row * size + col}).
+     * @param exponent nowy wykładnik.
+     */
+    public void set(int index, int exponent) {
+        cells[index] = (byte) exponent;
+    }
+
+    /**
+     * Kopiuje zawartość innej planszy o tym samym rozmiarze.
+     *
+     * @param other plansza źródłowa.
+     */
+    public void copyFrom(GridBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+    }
+
+    /**
+     * Tworzy niezależną kopię planszy.
+     *
+     * @return nowa plansza o tej samej zawartości.
+     */
+    public GridBoard copy() {
+        GridBoard copy = new GridBoard(size);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Czyści planszę.
+     */
+    public void clear() {
+        Arrays.fill(cells, (byte) 0);
+    }
+
+    /**
+     * Wykonuje ruch w podanym kierunku, bez dodawania nowego kafelka.
+     *
+     * @param direction kierunek ruchu.
+     * @return liczba zdobytych punktów albo -1, jeśli ruch nie zmienił planszy.
+     */
+    public int move(Direction direction) {
+        int score = 0;
+        boolean changed = false;
+        for (int line = 0; line < size; line++) {
+            int gained;
+            switch (direction) {
+                case LEFT:
+                    gained = slide(line * size, 1);
+                    break;
+                case RIGHT:
+                    gained = slide(line * size + size - 1, -1);
+                    break;
+                case UP:
+                    gained = slide(line, size);
+                    break;
+                default:
+                    gained = slide((size - 1) * size + line, -size);
+                    break;
+            }
+            if (gained >= 0) {
+                changed = true;
+                score += gained;
+            }
+        }
+        return changed ? score : -1;
+    }
+
+    /**
+     * Przesuwa i łączy jedną linię planszy w miejscu. Linia zaczyna się w polu {@code start}
+     * i biegnie w kierunku przeciwnym do ruchu co {@code step} pól. Każdy kafelek może
+     * zostać połączony co najwyżej raz.
+     *
+     * @param start indeks pierwszego pola linii (pola, do którego przesuwane są kafelki).
+     * @param step odległość między kolejnymi polami linii.
+     * @return liczba zdobytych punktów albo -1, jeśli linia się nie zmieniła.
+     */
+    private int slide(int start, int step) {
+        int score = 0;
+        boolean changed = false;
+        int write = start;
+        int pending = 0;
+        for (int i = 0, read = start; i < size; i++, read += step) {
+            int exponent = cells[read];
+            if (exponent == 0) continue;
+            if (pending == exponent && exponent < MAX_EXPONENT) {
+                cells[write] = (byte) (exponent + 1);
+                score += 1 << (exponent + 1);
+                changed = true;
+                write += step;
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    changed |= cells[write] != pending;
+                    cells[write] = (byte) pending;
+                    write += step;
+                }
+                pending = exponent;
+            }
+        }
+        if (pending != 0) {
+            changed |= cells[write] != pending;
+            cells[write] = (byte) pending;
+            write += step;
+        }
+        for (int end = start + size * step; write != end; write += step) {
+            changed |= cells[write] != 0;
+            cells[write] = 0;
+        }
+        return changed ? score : -1;
+    }
+
+    /**
+     * Zwraca maskę dozwolonych ruchów, czyli ruchów zmieniających planszę. Bit o numerze
+     * {@link Direction#ordinal()} jest ustawiony, jeśli ruch w danym kierunku jest dozwolony.
+     * Każda linia jest sprawdzana jednym przejściem, bez kopiowania planszy i wykonywania ruchów.
+     *
+     * @return maska dozwolonych ruchów (0, jeśli gra się skończyła).
+     */
+    public int legalMoves() {
+        int legal = 0;
+        for (int line = 0; line < size; line++) {
+            legal |= lineLegalMoves(line * size, 1);
+            legal |= lineLegalMoves(line, size) << Direction.UP.ordinal();
+        }
+        return legal;
+    }
+
+    /**
+     * Sprawdza, w którą stronę można przesunąć jedną linię planszy. Linię można przesunąć
+     * w stronę jej początku, jeśli za pustym polem stoi kafelek, w stronę końca - jeśli za kafelkiem
+     * jest puste pole, a w obie strony - jeśli sąsiadują w niej dwa kafelki, które można połączyć.
+     *
+     * @param start indeks pierwszego pola linii.
+     * @param step odległość między kolejnymi polami linii.
+     * @return bit {@link Direction#LEFT} dla ruchu w stronę początku i bit {@link Direction#RIGHT} dla ruchu w stronę końca.
+     */
+    private int lineLegalMoves(int start, int step) {
+        int toStart = 1 << Direction.LEFT.ordinal();
+        int toEnd = 1 << Direction.RIGHT.ordinal();
+        int legal = 0;
+        boolean sawEmpty = false;
+        int previous = 0;
+        for (int i = 0, read = start; i < size; i++, read += step) {
+            int exponent = cells[read];
+            if (exponent == 0) {
+                sawEmpty = true;
+                if (previous != 0) legal |= toEnd;
+            } else {
+                if (sawEmpty) legal |= toStart;
+                if (exponent == previous && exponent < MAX_EXPONENT) return toStart | toEnd;
+            }
+            previous = exponent;
+        }
+        return legal;
+    }
+
+    /**
+     * Zwraca liczbę pustych pól na planszy.
+     *
+     * @return liczba pustych pól.
+     */
+    public int countEmpty() {
+        int empty = 0;
+        for (byte cell : cells) {
+            if (cell == 0) empty++;
+        }
+        return empty;
+    }
+
+    /**
+     * Zwraca największy wykładnik na planszy.
+     *
+     * @return największy wykładnik lub 0 dla pustej planszy.
+     */
+    public int maxExponent() {
+        int max = 0;
+        for (byte cell : cells) {
+            max = Math.max(max, cell);
+        }
+        return max;
+    }
+
+    /**
+     * Wylicza 64-bitowy skrót zawartości planszy, używany jako klucz w {@link TranspositionTable}.
+     *
+     * @return skrót planszy.
+     */
+    public long hash() {
+        long h = size;
+        for (byte cell : cells) {
+            h = (h ^ cell) * 0x9E3779B97F4A7C15L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Wczytuje planszę z tablicy kafelków o tym samym rozmiarze.
+     *
+     * @param tiles plansza kafelków.
+     */
+    public void fromTiles(Tile[][] tiles) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row * size + col] = (byte) BitBoard.toExponent(tiles[row][col].value);
+            }
+        }
+    }
+
+    /**
+     * Zapisuje planszę do istniejących kafelków, bez tworzenia nowych obiektów.
+     *
+     * @param tiles plansza kafelków o tym samym rozmiarze, modyfikowana w miejscu.
+     */
+    public void toTiles(Tile[][] tiles) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                tiles[row][col].value = BitBoard.toValue(cells[row * size + col]);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.my2048.game;
+
+/**
+ * Funkcjonalny interfejs reprezentujący funkcję oceny planszy używaną przez automatycznego gracza.
+ * Im wyższa wartość, tym lepsza jest pozycja na planszy.
+ */
+@FunctionalInterface
+public interface Heuristic {
+    /**
+     * Ocenia podaną planszę.
+     *
+     * @param board plansza do oceny. Metoda nie może jej modyfikować.
+     * @return ocena planszy.
+     */
+    double evaluate(GridBoard board);
+}
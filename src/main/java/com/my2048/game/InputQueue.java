@@ -0,0 +1,134 @@
+package com.my2048.game;
+
+/**
+ * Ograniczona kolejka ruchów zgłoszonych klawiaturą lub przeciągnięciem myszy, wykonywanych
+ * przez {@link Controller} w kolejności zgłoszenia.
+ * <p>
+ * Każde osobne naciśnięcie klawisza i każde przeciągnięcie trafia do kolejki. Zdarzenia powtarzane
+ * przez przytrzymany klawisz są łączone i ograniczane: powtórzenie jest pomijane, jeśli ten sam ruch
+ * czeka już na końcu kolejki albo od ostatniego przyjętego ruchu minęło mniej niż
+ * {@code repeatIntervalNanos}. Przytrzymanie klawisza nie zapełnia więc kolejki i gra nie zostaje
+ * w tyle za graczem. Kolejka może być używana przez wiele wątków.
+ */
+final class InputQueue {
+
+    /**
+     * Ruchy w kolejce (bufor cykliczny).
+     */
+    private final Direction[] moves;
+
+    /**
+     * Indeks pierwszego ruchu w kolejce.
+     */
+    private int head;
+
+    /**
+     * Liczba ruchów w kolejce.
+     */
+    private int count;
+
+    /**
+     * Czy powtórzenie ruchu czekającego na końcu kolejki ma być pomijane.
+     */
+    private boolean coalesceRepeats;
+
+    /**
+     * Najkrótszy odstęp między przyjętym ruchem a przyjętym powtórzeniem w nanosekundach.
+     */
+    private long repeatIntervalNanos;
+
+    /**
+     * Czas przyjęcia ostatniego ruchu w nanosekundach.
+     */
+    private long lastAccepted;
+
+    /**
+     * Czy przyjęto już jakiś ruch.
+     */
+    private boolean accepted;
+
+    /**
+     * Tworzy pustą kolejkę.
+     *
+     * @param capacity największa liczba ruchów czekających na wykonanie.
+     * @param coalesceRepeats true, jeśli powtórzenie ruchu czekającego na końcu kolejki ma być pomijane.
+     * @param repeatIntervalNanos najkrótszy odstęp między przyjętym ruchem a przyjętym powtórzeniem w nanosekundach (0 bez ograniczenia).
+     * @throws IllegalArgumentException jeśli pojemność nie jest dodatnia lub odstęp jest ujemny.
+     */
+    InputQueue(int capacity, boolean coalesceRepeats, long repeatIntervalNanos) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Input queue capacity must be at least 1: " + capacity);
+        }
+        this.moves = new Direction[capacity];
+        configure(coalesceRepeats, repeatIntervalNanos);
+    }
+
+    /**
+     * Zmienia sposób łączenia powtórzeń. Ruchy czekające w kolejce pozostają w niej.
+     *
+     * @param coalesceRepeats true, jeśli powtórzenie ruchu czekającego na końcu kolejki ma być pomijane.
+     * @param repeatIntervalNanos najkrótszy odstęp między przyjętym ruchem a przyjętym powtórzeniem w nanosekundach (0 bez ograniczenia).
+     * @throws IllegalArgumentException jeśli odstęp jest ujemny.
+     */
+    synchronized void configure(boolean coalesceRepeats, long repeatIntervalNanos) {
+        if (repeatIntervalNanos < 0) {
+            throw new IllegalArgumentException("Repeat interval must not be negative: " + repeatIntervalNanos);
+        }
+        this.coalesceRepeats = coalesceRepeats;
+        this.repeatIntervalNanos = repeatIntervalNanos;
+    }
+
+    /**
+     * Zgłasza ruch.
+     *
+     * @param direction kierunek ruchu.
+     * @param repeat true, jeśli zdarzenie jest powtórzeniem przytrzymanego klawisza.
+     * @param now czas zdarzenia w nanosekundach ({@link System#nanoTime()}).
+     * @return true, jeśli ruch został dodany do kolejki; false, jeśli powtórzenie zostało połączone
+     * lub pominięte albo kolejka jest pełna.
+     */
+    synchronized boolean offer(Direction direction, boolean repeat, long now) {
+        if (repeat) {
+            if (coalesceRepeats && count > 0 && moves[(head + count - 1) % moves.length] == direction) return false;
+            if (accepted && now - lastAccepted < repeatIntervalNanos) return false;
+        }
+        if (count == moves.length) return false;
+        moves[(head + count) % moves.length] = direction;
+        count++;
+        lastAccepted = now;
+        accepted = true;
+        return true;
+    }
+
+    /**
+     * Pobiera najstarszy ruch z kolejki.
+     *
+     * @return kierunek ruchu albo null, jeśli kolejka jest pusta.
+     */
+    synchronized Direction poll() {
+        if (count == 0) return null;
+        Direction direction = moves[head];
+        moves[head] = null;
+        head = (head + 1) % moves.length;
+        count--;
+        return direction;
+    }
+
+    /**
+     * Usuwa wszystkie ruchy z kolejki, np. po przegranej.
+     */
+    synchronized void clear() {
+        while (poll() != null) {
+            // usuwamy kolejne ruchy
+        }
+    }
+
+    /**
+     * Zwraca liczbę ruchów czekających na wykonanie.
+     *
+     * @return liczba ruchów.
+     */
+    synchronized int size() {
+        return count;
+    }
+}
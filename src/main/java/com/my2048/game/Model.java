@@ -1,11 +1,12 @@
 package com.my2048.game;
 
-import com.google.gson.Gson;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Klasa Model reprezentuje logikę gry 2048. Przechowuje aktualny stan gry
@@ -41,6 +42,8 @@ public class Model {
      */
     public void setGameTiles(Tile[][] gameTiles) {
         this.gameTiles = gameTiles;
+        emptyCells.invalidate();
+        publish();
     }
 
     /**
@@ -77,6 +80,7 @@ public class Model {
      */
     public void setScore(int score) {
         this.score = score;
+        publish();
     }
 
     /**
@@ -95,6 +99,7 @@ public class Model {
      */
     public void setBestScore(int score) {
         this.bestScore = score;
+        publish();
     }
 
     /**
@@ -108,17 +113,54 @@ public class Model {
      * do stanu gry sprzed resetu.
      */
     public void clearHistory() {
-        previousStates.clear();
-        previousScores.clear();
+        undoHistory.clear();
+        if (deltaHistory != null) deltaHistory.clear();
     }
+
     /**
-     * Stos przechowujący poprzednie stany gry. Używane do cofania ruchów.
+     * Domyślna maksymalna liczba ruchów, które można cofnąć.
      */
-    private final Stack<Tile[][]> previousStates = new Stack<>();
+    public static final int UNDO_HISTORY_LIMIT = 1024;
+
+    /**
+     * Historia poprzednich stanów gry i wyników. Używana do cofania ruchów.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient UndoHistory undoHistory = new UndoHistory(UNDO_HISTORY_LIMIT);
+
+    /**
+     * Nieograniczona historia ruchów zapisująca tylko zmiany albo null, jeśli używana jest ograniczona historia.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient DeltaHistory deltaHistory;
+
+    /**
+     * Największa liczba ruchów zapamiętywanych między kolejnymi kopiami stanu do zapisu.
+     */
+    private static final int JOURNAL_BUFFER_SIZE = 256;
+
+    /**
+     * Ruchy wykonane od ostatniego wywołania {@link #toSavedGame()}, spakowane przez {@link MoveRecord}.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient long[] journalMoves = new long[JOURNAL_BUFFER_SIZE];
+
+    /**
+     * Liczba ruchów w {@link #journalMoves}.
+     */
+    private transient int journalMoveCount;
+
     /**
-     * Stos przechowujący poprzednie wyniki. Używane do cofania ruchów.
+     * Flaga ustawiana, gdy ruchów od ostatniej kopii stanu było więcej niż mieści bufor
+     * albo gdy cofnięto ruch spoza bufora. Kolejna kopia stanu nie zawiera wtedy ruchów.
      */
-    private final Stack<Integer> previousScores = new Stack<>();
+    private transient boolean journalOverflow;
+
+    /**
+     * Zapis przebiegu bieżącej gry, od rozpoczęcia gry lub od wczytania zapisu.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient Replay.Recorder replayRecorder = new Replay.Recorder();
 
     /**
      * Flaga określająca, czy trzeba zapisać stan gry. Ustawiane na true po każdym ruchu.
@@ -126,48 +168,240 @@ public class Model {
     private boolean isSaveNeeded = true;
 
     /**
-     * Getter dla poprzednich stanów planszy. Używany w testach
+     * Flaga określająca, czy ruchy na planszy 4x4 mają być wykonywane przez {@link BitBoard}.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient boolean bitBoardEnabled = true;
+
+    /**
+     * Plansza robocza używana do wykonywania ruchów na planszach innych niż 4x4.
+     */
+    private transient GridBoard gridBoard;
+
+    /**
+     * Domyślny limit czasu na jeden automatyczny ruch w milisekundach.
+     */
+    public static final int AUTO_MOVE_TIME_BUDGET = 100;
+
+    /**
+     * Domyślna maksymalna głębokość przeszukiwania automatycznego gracza.
+     */
+    public static final int AUTO_MOVE_DEPTH = 6;
+
+    /**
+     * Limit pamięci tablicy transpozycji automatycznego gracza w megabajtach, osobno dla każdego wątku roboczego.
+     */
+    public static final int AUTO_MOVE_TABLE_MEGABYTES = 4;
+
+    /**
+     * Domyślny automatyczny gracz, wspólny dla wszystkich modeli. Przeszukuje ruchy równolegle we wspólnej
+     * puli wątków, a każdy wątek puli ma jedną tablicę transpozycji niezależnie od liczby modeli.
+     */
+    private static final AutoPlayer DEFAULT_AUTO_PLAYER = new ParallelExpectimax(BoardHeuristic.standard(), AUTO_MOVE_DEPTH,
+            AUTO_MOVE_TIME_BUDGET, Long.MAX_VALUE, AUTO_MOVE_TABLE_MEGABYTES, ForkJoinPool.commonPool());
+
+    /**
+     * Automatyczny gracz używany przez {@link #autoMove()}.
+     */
+    private transient AutoPlayer autoPlayer = DEFAULT_AUTO_PLAYER;
+
+    /**
+     * Sprawdza, czy ruchy na planszy 4x4 są wykonywane przez {@link BitBoard}.
+     *
+     * @return true, jeśli silnik BitBoard jest włączony.
+     */
+    public boolean isBitBoardEnabled() {
+        return bitBoardEnabled;
+    }
+
+    /**
+     * Włącza lub wyłącza wykonywanie ruchów na planszy 4x4 przez {@link BitBoard}.
+     * Po wyłączeniu ruchy są wykonywane przez {@link GridBoard}, tak jak dla pozostałych rozmiarów.
+     *
+     * @param bitBoardEnabled true, aby używać silnika BitBoard.
+     */
+    public void setBitBoardEnabled(boolean bitBoardEnabled) {
+        this.bitBoardEnabled = bitBoardEnabled;
+    }
+
+    /**
+     * Getter dla historii poprzednich stanów planszy. Używany w testach
+     *
+     * @return historia poprzednich stanów planszy.
+     */
+    public UndoHistory getUndoHistory() {
+        return undoHistory;
+    }
+
+    /**
+     * Ustawia maksymalną liczbę ruchów, które można cofnąć. Dotychczasowa historia jest usuwana.
+     *
+     * @param limit maksymalna liczba zapamiętanych stanów, co najmniej 1.
+     */
+    public void setUndoLimit(int limit) {
+        undoHistory = new UndoHistory(limit);
+    }
+
+    /**
+     * Sprawdza, czy używana jest nieograniczona historia ruchów.
      *
-     * @return Stack zawierający poprzednie stany planszy.
+     * @return true, jeśli ruchy są zapisywane w {@link DeltaHistory}.
      */
-    public Stack<Tile[][]> getPreviousStates() {
-        return previousStates;
+    public boolean isUnlimitedUndo() {
+        return deltaHistory != null;
     }
 
     /**
-     * Tworzy nowy model gry, inicjalizując planszę gry.
+     * Włącza lub wyłącza nieograniczoną historię ruchów. W trybie nieograniczonym każdy ruch zajmuje
+     * kilka bajtów zamiast pełnej kopii planszy, a wcześniejsze pozycje są odtwarzane z punktów kontrolnych.
+     * Dotychczasowa historia jest usuwana.
+     *
+     * @param unlimited true, aby używać {@link DeltaHistory}, false, aby używać ograniczonej {@link UndoHistory}.
+     */
+    public void setUnlimitedUndo(boolean unlimited) {
+        deltaHistory = unlimited ? new DeltaHistory() : null;
+        undoHistory.clear();
+    }
+
+    /**
+     * Maska pustych pól bieżącej planszy, aktualizowana przez ruchy i dodawanie kafelków.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private final transient EmptyCells emptyCells = new EmptyCells();
+
+    /**
+     * Ostatnia opublikowana kopia stanu gry, odczytywana bez blokad przez inne wątki.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private final transient AtomicReference<BoardSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Numer ostatniej opublikowanej kopii stanu gry.
+     */
+    private transient long snapshotSequence;
+
+    /**
+     * Źródło liczb losowych dla nowych kafelków.
+     * Pole jest oznaczone jako transient, aby nie trafiało do pliku zapisu.
+     */
+    private transient SpawnRandom spawnRandom;
+
+    /**
+     * Tworzy nowy model gry, inicjalizując planszę gry. Nowe kafelki są losowane
+     * generatorem bieżącego wątku ({@link SpawnRandom#threadLocal()}).
      */
     public Model() {
+        this(SpawnRandom.threadLocal());
+    }
+
+    /**
+     * Tworzy nowy model gry z podanym źródłem liczb losowych, inicjalizując planszę gry.
+     *
+     * @param spawnRandom źródło liczb losowych dla nowych kafelków.
+     */
+    public Model(SpawnRandom spawnRandom) {
+        this.spawnRandom = spawnRandom;
         resetGameTiles();
     }
 
+    /**
+     * Zwraca źródło liczb losowych dla nowych kafelków.
+     *
+     * @return źródło liczb losowych.
+     */
+    public SpawnRandom getSpawnRandom() {
+        return spawnRandom;
+    }
+
+    /**
+     * Ustawia źródło liczb losowych dla nowych kafelków.
+     *
+     * @param spawnRandom źródło liczb losowych.
+     */
+    public void setSpawnRandom(SpawnRandom spawnRandom) {
+        this.spawnRandom = spawnRandom;
+    }
+
+    /**
+     * Ustawia źródło liczb losowych o podanym ziarnie, dzięki czemu kolejna gra
+     * (np. po {@link #resetGameTiles()}) przebiega zawsze tak samo dla tych samych ruchów.
+     *
+     * @param seed ziarno.
+     */
+    public void setSeed(long seed) {
+        setSpawnRandom(SpawnRandom.seeded(seed));
+    }
+
     /**
      * Dodaje losowo nowy kafelek do planszy.
      * Kafelek o wartości 2 jest dodawany z 90% prawdopodobieństwem,
      * a kafelek o wartości 4 z 10% prawdopodobieństwem.
+     * Metoda jest widoczna w pakiecie, aby mogły z niej korzystać testy wydajności.
+     *
+     * @return indeks pola nowego kafelka (wiersz * rozmiar + kolumna) albo -1, jeśli nie ma pustych pól.
+     */
+    int addTile() {
+        EmptyCells empty = emptyCells();
+        if (empty.count() == 0) return -1;
+        int cell = empty.nth(spawnRandom.nextInt(empty.count()));
+        gameTiles[cell / gameTiles.length][cell % gameTiles.length].value = BitBoard.toValue(spawnRandom.nextExponent());
+        empty.remove(cell);
+        return cell;
+    }
+
+    /**
+     * Zwraca maskę pustych pól bieżącej planszy, odtwarzając ją z kafelków, jeśli została unieważniona.
+     *
+     * @return aktualna maska pustych pól.
      */
-    private void addTile() {
-        List<Tile> emptyTiles = getEmptyTiles();
-        if (!emptyTiles.isEmpty()) {
-            int randomTileIndex = (int) (Math.random() * emptyTiles.size());
-            emptyTiles.get(randomTileIndex).value = (Math.random() < 0.9) ? 2 : 4;
+    private EmptyCells emptyCells() {
+        if (!emptyCells.isValid(gameTiles.length * gameTiles.length)) {
+            emptyCells.fromTiles(gameTiles);
         }
+        return emptyCells;
     }
     /**
-     * Wykonuje automatyczny ruch wybierając najbardziej efektywny kierunek.
+     * Wykonuje automatyczny ruch wybrany przez automatycznego gracza (równoległe przeszukiwanie expectimax).
+     * Jeśli na planszy nie ma dozwolonych ruchów, metoda nic nie robi.
      */
     public void autoMove() {
+        Direction direction = autoPlayer.bestMove(workingBoard());
+        if (direction != null) {
+            move(direction);
+        }
+    }
+
+    /**
+     * Wykonuje ruch wybierając kierunek o największej efektywności w jednym kroku
+     * (liczba pustych kafelków, a potem wynik), bez uwzględniania losowych kafelków.
+     * Kierunki są oceniane przez {@link #evaluate(Direction)}, bez wykonywania i cofania ruchów.
+     */
+    public void greedyMove() {
         PriorityQueue<MoveEfficiency> priorityQueue = new PriorityQueue<>(4, Collections.reverseOrder());
-        priorityQueue.offer(getMoveEfficiency(this::left));
-        priorityQueue.offer(getMoveEfficiency(this::right));
-        priorityQueue.offer(getMoveEfficiency(this::up));
-        priorityQueue.offer(getMoveEfficiency(this::down));
-        if (!priorityQueue.isEmpty()) {
-            Objects.requireNonNull(priorityQueue.poll()).getMove().move();
-        } else {
-            // tutaj można rzucić wyjątek lub obsłużyć sytuację inaczej
-            throw new RuntimeException("No available moves to make.");
+        for (Direction direction : Direction.values()) {
+            priorityQueue.offer(getMoveEfficiency(direction));
         }
+        Objects.requireNonNull(priorityQueue.poll()).getMove().move();
+    }
+
+    /**
+     * Ocenia ruch w podanym kierunku bez zmiany modelu: nie zmienia planszy, wyniku ani historii
+     * i nie dodaje losowego kafelka.
+     *
+     * @param direction kierunek ruchu.
+     * @return wynik oceny ruchu.
+     */
+    public MoveEvaluation evaluate(Direction direction) {
+        return MoveEvaluation.evaluate(workingBoard(), direction);
+    }
+
+    /**
+     * Ustawia automatycznego gracza używanego przez {@link #autoMove()}.
+     *
+     * @param autoPlayer automatyczny gracz.
+     */
+    public void setAutoPlayer(AutoPlayer autoPlayer) {
+        this.autoPlayer = autoPlayer;
     }
 
     /**
@@ -176,45 +410,49 @@ public class Model {
      * @return true jeśli plansza się zmieniła, false w przeciwnym wypadku.
      */
     public boolean hasBoardChanged() {
-        if (!previousStates.isEmpty()) {
-            Tile[][] clone = previousStates.peek();
-            for (int i = 0; i < gameTiles.length; i++) {
-                for (int j = 0; j < gameTiles.length; j++) {
-                    if (gameTiles[i][j].value != clone[i][j].value)
-                        return true;
-                }
-            }
-        }
-        return false;
+        if (deltaHistory != null) return deltaHistory.lastMoveChangedBoard();
+        return undoHistory.differsFromLast(gameTiles);
     }
 
 
     /**
      * Oblicza i zwraca efektywność ruchu.
      * Efektywność jest obliczana na podstawie liczby pustych kafelków i wyniku po wykonaniu ruchu.
+     * Ruch jest wykonywany na planszy i cofany, więc jest publikowany, zapisywany w przebiegu gry
+     * i w dzienniku ruchów, a po cofnięciu można go ponowić.
      *
      * @param move Ruch do oceny.
      * @return Obiekt MoveEfficiency reprezentujący efektywność ruchu.
+     * @deprecated Należy używać {@link #getMoveEfficiency(Direction)} lub {@link #evaluate(Direction)},
+     * które oceniają ruch bez zmiany modelu.
      */
+    @Deprecated
     public MoveEfficiency getMoveEfficiency(Move move) {
         move.move();
         MoveEfficiency moveEfficiency;
         if (!hasBoardChanged()) {
             moveEfficiency = new MoveEfficiency(-1, 0, move);
         } else {
-            int EmptyTiles = 0;
-            for (Tile[] gameTile : gameTiles) {
-                for (int j = 0; j < gameTiles.length; j++) {
-                    if (gameTile[j].isEmpty())
-                        EmptyTiles++;
-                }
-            }
-            moveEfficiency = new MoveEfficiency(EmptyTiles, score, move);
+            moveEfficiency = new MoveEfficiency(emptyCells().count(), score, move);
         }
         rollback();
         return moveEfficiency;
     }
 
+    /**
+     * Oblicza efektywność ruchu w podanym kierunku na podstawie oceny {@link #evaluate(Direction)},
+     * bez zmiany modelu. Ruch zwracany przez {@link MoveEfficiency#getMove()} wykonuje ruch w tym kierunku.
+     *
+     * @param direction kierunek ruchu.
+     * @return Obiekt MoveEfficiency reprezentujący efektywność ruchu.
+     */
+    public MoveEfficiency getMoveEfficiency(Direction direction) {
+        MoveEvaluation evaluation = evaluate(direction);
+        Move move = () -> move(direction);
+        if (!evaluation.isChanged()) return new MoveEfficiency(-1, 0, move);
+        return new MoveEfficiency(evaluation.getEmptyCount(), score + evaluation.getScoreGained(), move);
+    }
+
 
     /**
      * Zapisuje aktualny stan gry, w tym planszę gry i wynik.
@@ -223,45 +461,74 @@ public class Model {
      * @param tiles Dwuwymiarowa tablica reprezentująca stan planszy gry do zapisania.
      */
     public void saveState(Tile[][] tiles) {
-        Tile[][] clone = new Tile[FIELD_WIDTH][FIELD_WIDTH];
-        for (int i = 0; i < tiles.length; i++) {
-            for (int j = 0; j < tiles[i].length; j++) {
-                Tile a = new Tile();
-                a.value = tiles[i][j].value;
-                clone[i][j] = a;
-            }
-        }
-        previousStates.push(clone);
-        previousScores.push(score);
+        undoHistory.push(tiles, score);
         isSaveNeeded = false;
     }
 
     /**
-     * Przywraca ostatni zapisany stan gry z stosu previousStates i stosu previousScores.
+     * Przywraca ostatni zapisany stan gry z historii. Wartości są zapisywane do istniejących kafelków.
+     * Historia zapisana dla planszy innego rozmiaru jest pomijana.
      */
     public void rollback() {
-        if (!previousStates.isEmpty() && !previousScores.isEmpty()) {
-            gameTiles = previousStates.pop();
-            score = previousScores.pop();
+        if (deltaHistory != null) {
+            if (!deltaHistory.canUndo()) return;
+            if (deltaHistory.boardSize() != gameTiles.length) {
+                deltaHistory.clear();
+                return;
             }
+            score = deltaHistory.undo(gameTiles);
+            emptyCells.invalidate();
+            forgetJournalMove();
+            replayRecorder.undo(gameTiles, score);
+            publish();
+            return;
+        }
+        if (undoHistory.isEmpty()) return;
+        if (undoHistory.boardSize() != gameTiles.length) {
+            undoHistory.clear();
+            return;
         }
+        score = undoHistory.pop(gameTiles, score);
+        emptyCells.invalidate();
+        forgetJournalMove();
+        replayRecorder.undo(gameTiles, score);
+        publish();
+    }
 
+    /**
+     * Usuwa z bufora ruchów ostatni ruch po jego cofnięciu. Jeśli bufor jest pusty,
+     * cofnięty ruch poprzedza ostatnią kopię stanu i kolejna kopia nie może zawierać ruchów.
+     */
+    private void forgetJournalMove() {
+        if (journalMoveCount > 0) {
+            journalMoveCount--;
+        } else {
+            journalOverflow = true;
+        }
+    }
 
     /**
-     * Zwraca listę wszystkich pustych kafelków na planszy gry.
-     *
-     * @return Listę pustych kafelków.
+     * Ponawia ruch cofnięty przez {@link #rollback()}. Nowy ruch usuwa możliwość ponowienia.
      */
-    private List<Tile> getEmptyTiles() {
-        List<Tile> emptyTiles = new ArrayList<>();
-        for (int i = 0; i < FIELD_WIDTH; i++) {
-            for (int j = 0; j < FIELD_WIDTH; j++) {
-                if (gameTiles[i][j].isEmpty())
-                    emptyTiles.add(gameTiles[i][j]);
+    public void redo() {
+        if (deltaHistory != null) {
+            if (deltaHistory.canRedo(gameTiles, score)) {
+                score = deltaHistory.redo(gameTiles);
+                emptyCells.invalidate();
+                replayRecorder.redo(gameTiles, score);
+                publish();
             }
+            return;
+        }
+        if (undoHistory.canRedo() && undoHistory.boardSize() == gameTiles.length) {
+            score = undoHistory.redo(gameTiles, score);
+            emptyCells.invalidate();
+            replayRecorder.redo(gameTiles, score);
+            publish();
         }
-        return emptyTiles;
     }
+
+
     /**
      * Resetuje stan gry, tworząc nową, pustą planszę gry i dodając dwa kafelki.
      */
@@ -272,8 +539,11 @@ public class Model {
                 gameTiles[i][j] = new Tile();
             }
         }
+        emptyCells.fill(FIELD_WIDTH * FIELD_WIDTH);
         addTile();
         addTile();
+        replayRecorder.start(gameTiles, score);
+        publish();
     }
     /**
      * Sprawdza, czy są dostępne jakiekolwiek dozwolone ruchy na planszy gry.
@@ -281,191 +551,343 @@ public class Model {
      * @return true, jeśli jest dostępny przynajmniej jeden dozwolony ruch, w przeciwnym razie false.
      */
     public boolean canMove() {
-        if (!getEmptyTiles().isEmpty()) return true;
-
-        for (Tile[] gameTile : gameTiles) {
-            for (int j = 1; j < gameTiles.length; j++) {
-                if (gameTile[j].value == gameTile[j - 1].value)
-                    return true;
-            }
-        }
-
-        for (int j = 0; j < gameTiles.length; j++) {
-            for (int i = 1; i < gameTiles.length; i++) {
-                if (gameTiles[i][j].value == gameTiles[i - 1][j].value)
-                    return true;
-            }
-        }
-        return false;
+        if (emptyCells().count() > 0) return true;
+        return legalMoves() != 0;
     }
 
     /**
-     * Kompresuje tablicę kafelków, przesuwając wszystkie puste kafelki na koniec.
+     * Zwraca maskę dozwolonych ruchów, czyli ruchów zmieniających planszę. Bit o numerze
+     * {@link Direction#ordinal()} jest ustawiony, jeśli ruch w danym kierunku jest dozwolony.
+     * Ruchy nie są wykonywane: plansza 4x4 jest sprawdzana tablicami {@link BitBoard},
+     * a pozostałe - jednym przejściem planszy {@link GridBoard}.
      *
-     * @param tiles Tablica kafelków do skompresowania.
-     * @return true jeśli tablica została zmieniona, false w przeciwnym wypadku.
+     * @return maska dozwolonych ruchów (0, jeśli gra się skończyła).
      */
-    private boolean compressTiles(Tile[] tiles) {
-        Tile[] clone = tiles.clone();
-        for (int i = 0; i < tiles.length; i++) {
-            if (tiles[i].value == 0 && i < tiles.length - 1 && tiles[i + 1].value != 0) {
-                Tile temp = tiles[i];
-                tiles[i] = tiles[i + 1];
-                tiles[i + 1] = temp;
-                i = -1;
-            }
-        }
-        for (int i = 0; i < clone.length; i++) {
-            if (clone[i].value != tiles[i].value) return true;
-        }
-        return false;
+    public int legalMoves() {
+        return usesBitBoard() ? BitBoard.legalMoves(BitBoard.fromTiles(gameTiles)) : workingBoard().legalMoves();
     }
 
     /**
-     * łączy sąsiadujące kafelki o tych samych wartościach. Po połączeniu, puste kafelki są przesuwane na koniec.
-     *
-     * @param tiles Tablica kafelków do połączenia.
-     * @return true jeśli tablica została zmieniona, false w przeciwnym wypadku.
+     * Przesuwa wszystkie kafelki na planszy gry w lewo. Jeśli przesunięcie powoduje zmianę na planszy, dodaje nowy kafelek.
      */
-    private boolean mergeTiles(Tile[] tiles) {
-        Tile[] clone = tiles.clone();
-        for (int i = 1; i < tiles.length; i++) {
-            if ((tiles[i - 1].value == tiles[i].value) && !tiles[i - 1].isEmpty() && !tiles[i].isEmpty()) {
+    public void left() {
+        move(Direction.LEFT);
+    }
 
-                tiles[i - 1].value *= 2;
-                if (tiles[i - 1].value > maxTile) {
-                    maxTile = tiles[i - 1].value;
-                }
-                score += tiles[i - 1].value;
-                if(score>bestScore){bestScore=score;}
-                tiles[i] = new Tile();
+    /**
+     * Przesuwa wszystkie kafelki na planszy gry w prawo. Jeśli przesunięcie powoduje zmianę na planszy, dodaje nowy kafelek.
+     */
+    public void right() {
+        move(Direction.RIGHT);
+    }
 
-                compressTiles(tiles);
-            }
-        }
-        for (int i = 0; i < clone.length; i++) {
-            if (clone[i].value != tiles[i].value) return true;
-        }
-        return false;
+    /**
+     * Przesuwa wszystkie kafelki na planszy gry do góry. Jeśli przesunięcie powoduje zmianę na planszy, dodaje nowy kafelek.
+     */
+    public void up() {
+        move(Direction.UP);
     }
 
     /**
-     * Przesuwa wszystkie kafelki na planszy gry w lewo. Jeśli przesunięcie powoduje zmianę na planszy, dodaje nowy kafelek.
+     * Przesuwa wszystkie kafelki na planszy gry w dół. Jeśli przesunięcie powoduje zmianę na planszy, dodaje nowy kafelek.
      */
-    public void left() {
-        if (isSaveNeeded) {
+    public void down() {
+        move(Direction.DOWN);
+    }
+
+    /**
+     * Wykonuje ruch w podanym kierunku. Przed ruchem zapisuje stan gry (jeśli nie został już zapisany),
+     * a następnie przekazuje ruch do {@link BitBoard} dla planszy 4x4 lub do {@link GridBoard} dla pozostałych rozmiarów.
+     * Jeśli ruch zmienił planszę, dodaje nowy kafelek. W trybie nieograniczonej historii
+     * zamiast stanu zapisywana jest tylko zmiana wykonana przez ruch.
+     *
+     * @param direction kierunek ruchu.
+     */
+    public void move(Direction direction) {
+        int scoreBefore = score;
+        if (deltaHistory != null) {
+            deltaHistory.beginMove(gameTiles, score);
+        } else if (isSaveNeeded) {
             saveState(gameTiles);
         }
-        boolean isChanged = false;
-        for (int i = 0; i < FIELD_WIDTH; i++) {
-            if (compressTiles(gameTiles[i]) | mergeTiles(gameTiles[i])) {
-                isChanged = true;
-            }
+        boolean changed = usesBitBoard() ? moveBitBoard(direction) : moveGridBoard(direction);
+        int spawnCell = changed ? addTile() : -1;
+        int spawnExponent = 0;
+        if (spawnCell >= 0) {
+            spawnExponent = BitBoard.toExponent(gameTiles[spawnCell / gameTiles.length][spawnCell % gameTiles.length].value);
+        }
+        long record = MoveRecord.pack(direction, spawnCell, spawnExponent, score - scoreBefore);
+        if (deltaHistory != null) {
+            deltaHistory.record(record, gameTiles, score);
+        }
+        replayRecorder.record(record);
+        if (journalMoveCount < journalMoves.length) {
+            journalMoves[journalMoveCount++] = record;
+        } else {
+            journalOverflow = true;
         }
-        if (isChanged) addTile();
         isSaveNeeded = true;
+        publish(record);
     }
 
     /**
-     * Przesuwa wszystkie kafelki na planszy gry w prawo. W tym celu zapisuje stan gry, obraca planszę dwa razy przeciwnie do ruchu wskazówek zegara,
-     * wykonuje ruch w lewo, a następnie obraca planszę dwa razy zgodnie z ruchem wskazówek zegara.
+     * Sprawdza, czy bieżący ruch może zostać wykonany przez {@link BitBoard}.
+     * Plansza z kafelkiem 32768 lub większym jest przesuwana przez {@link GridBoard},
+     * żeby oba silniki łączyły kafelki tak samo.
+     *
+     * @return true, jeśli silnik jest włączony, plansza ma rozmiar 4x4, a wszystkie kafelki są mniejsze od 32768.
      */
-    public void right() {
-        saveState(gameTiles);
-        rotateleft();
-        rotateleft();
-        left();
-        rotateleft();
-        rotateleft();
+    private boolean usesBitBoard() {
+        return bitBoardEnabled && BitBoard.fits(gameTiles);
     }
 
     /**
-     * Obraca planszę gry w lewo (przeciwnie do ruchu wskazówek zegara).
-     */
-    private void rotateleft() {
-        // rotate
-        for (int k = 0; k < FIELD_WIDTH / 2; k++) // border -> center
-        {
-            for (int j = k; j < FIELD_WIDTH - 1 - k; j++) // left -> right
-            {
+     * Wykonuje ruch przy użyciu {@link BitBoard}. Plansza jest pakowana do liczby typu long,
+     * przesuwana przez tablice przejść i zapisywana z powrotem do istniejących kafelków.
+     * Jeśli ruch zmienił planszę, aktualizuje wynik.
+     *
+     * @param direction kierunek ruchu.
+     * @return true, jeśli ruch zmienił planszę.
+     */
+    private boolean moveBitBoard(Direction direction) {
+        long before = BitBoard.fromTiles(gameTiles);
+        long after = BitBoard.move(before, direction);
+        if (after == before) return false;
+
+        addScore(BitBoard.moveScore(before, direction), BitBoard.maxExponent(after));
+        BitBoard.toTiles(after, gameTiles);
+        emptyCells.fromBitBoard(after);
+        return true;
+    }
 
-                Tile tmp = gameTiles[k][j];
-                gameTiles[k][j] = gameTiles[j][FIELD_WIDTH - 1 - k];
-                gameTiles[j][FIELD_WIDTH - 1 - k] = gameTiles[FIELD_WIDTH - 1 - k][FIELD_WIDTH - 1 - j];
-                gameTiles[FIELD_WIDTH - 1 - k][FIELD_WIDTH - 1 - j] = gameTiles[FIELD_WIDTH - 1 - j][k];
-                gameTiles[FIELD_WIDTH - 1 - j][k] = tmp;
-            }
-        }
+    /**
+     * Wykonuje ruch przy użyciu {@link GridBoard}, który obsługuje plansze dowolnego rozmiaru.
+     * Jeśli ruch zmienił planszę, aktualizuje wynik.
+     *
+     * @param direction kierunek ruchu.
+     * @return true, jeśli ruch zmienił planszę.
+     */
+    private boolean moveGridBoard(Direction direction) {
+        workingBoard();
+        int gained = gridBoard.move(direction);
+        if (gained < 0) return false;
+
+        addScore(gained, gridBoard.maxExponent());
+        gridBoard.toTiles(gameTiles);
+        emptyCells.fromGridBoard(gridBoard);
+        return true;
     }
 
     /**
-     * Getter dla tablicy kafelków gry.
+     * Wczytuje bieżącą planszę do planszy roboczej {@link GridBoard}.
+     * Plansza robocza jest tworzona tylko przy zmianie rozmiaru i używana ponownie przy kolejnych wywołaniach.
      *
-     * @return Dwuwymiarową tablicę zawierającą kafelki gry.
+     * @return plansza robocza z aktualnym stanem gry.
      */
-    public Tile[][] getGameTiles() { return gameTiles; }
+    private GridBoard workingBoard() {
+        if (gridBoard == null || gridBoard.size() != gameTiles.length) {
+            gridBoard = new GridBoard(gameTiles.length);
+        }
+        gridBoard.fromTiles(gameTiles);
+        return gridBoard;
+    }
 
+    /**
+     * Dolicza punkty zdobyte w ruchu i aktualizuje najlepszy wynik oraz najwyższy kafelek.
+     *
+     * @param gained punkty zdobyte za połączenia.
+     * @param maxExponent największy wykładnik na planszy po ruchu.
+     */
+    private void addScore(int gained, int maxExponent) {
+        if (gained == 0) return;
+        maxTile = Math.max(maxTile, BitBoard.toValue(maxExponent));
+        score += gained;
+        if (score > bestScore) bestScore = score;
+    }
 
     /**
-     * Przesuwa wszystkie kafelki na planszy gry do góry. W tym celu zapisuje stan gry, obraca planszę w lewo,
-     * wykonuje ruch w lewo, a następnie obraca planszę trzy razy zgodnie z ruchem wskazówek zegara.
+     * Getter dla tablicy kafelków gry. Kafelki zmienione bezpośrednio w zwróconej tablicy
+     * należy zgłosić metodą {@link #markTilesChanged()}.
+     *
+     * @return Dwuwymiarową tablicę zawierającą kafelki gry.
      */
-    public void up() {
-        saveState(gameTiles);
-        rotateleft();
-        left();
-        rotateleft();
-        rotateleft();
-        rotateleft();
+    public Tile[][] getGameTiles() {
+        return gameTiles;
     }
 
     /**
-     * Przesuwa wszystkie kafelki na planszy gry w dół. W tym celu zapisuje stan gry, obraca planszę trzy razy w lewo,
-     * wykonuje ruch w lewo, a następnie obraca planszę zgodnie z ruchem wskazówek zegara.
+     * Zgłasza zmianę kafelków wykonaną bezpośrednio w tablicy zwróconej przez {@link #getGameTiles()}.
+     * Maska pustych pól jest odtwarzana przy następnym użyciu, a zmieniona plansza jest publikowana.
      */
-    public void down() {
-        saveState(gameTiles);
-        rotateleft();
-        rotateleft();
-        rotateleft();
-        left();
-        rotateleft();
+    public void markTilesChanged() {
+        emptyCells.invalidate();
+        publish();
     }
 
     /**
-     * Metoda zapisuje aktualny stan gry do pliku .json.
+     * Metoda zapisuje aktualny stan gry w bieżącym katalogu, w magazynie {@link SaveStore}
+     * (lub w pliku binarnym {@link SavedGame#fileName(int)} dla dużych plansz).
      * Stan gry obejmuje aktualny wynik, najlepszy wynik oraz stan planszy gry.
+     * Zapis odbywa się w bieżącym wątku; w grze zapisy są wykonywane w tle przez {@link SaveWriter}.
      */
     public void saveGame() {
-        String fileName = "gameState" + FIELD_WIDTH +  ".json";
-        Model gameState = new Model();
-        gameState.setGameTiles(getGameTiles());
-        gameState.setBestScore(getBestScore());
-        gameState.setScore(getScore());
-        try (FileWriter fileWriter = new FileWriter(fileName)) {
-            Gson gson = new Gson();
-            gson.toJson(gameState, fileWriter);
+        saveGame(Paths.get(""));
+    }
+
+    /**
+     * Metoda zapisuje aktualny stan gry w podanym katalogu, tam gdzie odczytuje go {@link #loadGame(Path)}.
+     *
+     * @param directory katalog zapisu.
+     */
+    public void saveGame(Path directory) {
+        try {
+            new SavedGame(gameTiles, score, bestScore).store(directory);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Metoda wczytuje stan gry z pliku .json.
+     * Eksportuje aktualny stan gry do pliku w formacie JSON.
+     *
+     * @param file plik docelowy.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void exportGame(Path file) throws IOException {
+        new SavedGame(gameTiles, score, bestScore).exportJson(file);
+    }
+
+    /**
+     * Tworzy niezmienną kopię stanu gry, którą można zapisać w innym wątku.
+     * Kopia zawiera też ruchy wykonane od poprzedniej kopii, dzięki czemu {@link SaveWriter}
+     * może dopisać je do dziennika zamiast zapisywać całą planszę.
+     *
+     * @return kopia planszy, wyniku i najlepszego wyniku.
+     */
+    public SavedGame toSavedGame() {
+        long[] moves = journalOverflow ? null : Arrays.copyOf(journalMoves, journalMoveCount);
+        journalMoveCount = 0;
+        journalOverflow = false;
+        return new SavedGame(gameTiles, score, bestScore, moves);
+    }
+
+    /**
+     * Metoda wczytuje stan gry z bieżącego katalogu (z magazynu {@link SaveStore}, pliku binarnego
+     * lub starszego zapisu .json) i odtwarza ruchy zapisane po nim w dzienniku.
      * Stan gry obejmuje aktualny wynik, najlepszy wynik oraz stan planszy gry.
      * Po wczytaniu, metoda uaktualnia model gry zgodnie z wczytanym stanem.
+     * Jeśli pliku nie ma lub jest uszkodzony, model pozostaje bez zmian.
+     *
+     * @return true, jeśli stan gry został wczytany.
+     */
+    public boolean loadGame() {
+        return loadGame(Paths.get(""));
+    }
+
+    /**
+     * Metoda wczytuje stan gry zapisany w podanym katalogu i odtwarza ruchy zapisane po nim w dzienniku.
+     * Jeśli zapisu nie ma lub jest uszkodzony, model pozostaje bez zmian.
+     *
+     * @param directory katalog zapisu.
+     * @return true, jeśli stan gry został wczytany.
      */
-    public void loadGame() {
-        String fileName = "gameState" + FIELD_WIDTH +  ".json";
-        try (FileReader fileReader = new FileReader(fileName)) {
-            Gson gson = new Gson();
-            Model gameState = gson.fromJson(fileReader, Model.class);
-            setGameTiles(gameState.getGameTiles());
-            setBestScore(gameState.getBestScore());
-            setScore(gameState.getScore());
+    public boolean loadGame(Path directory) {
+        try {
+            return loadGame(SavedGame.load(directory, FIELD_WIDTH));
         } catch (IOException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
+    /**
+     * Ustawia stan gry na podaną kopię, np. wczytaną przez {@link SaveWriter#load(int)}.
+     * Jeśli kopii nie ma, model pozostaje bez zmian.
+     *
+     * @param saved kopia stanu gry albo null.
+     * @return true, jeśli stan gry został ustawiony.
+     */
+    public boolean loadGame(SavedGame saved) {
+        if (saved == null) return false;
+        gameTiles = saved.toTiles();
+        emptyCells.invalidate();
+        bestScore = saved.getBestScore();
+        score = saved.getScore();
+        journalMoveCount = 0;
+        journalOverflow = true;
+        replayRecorder.start(gameTiles, score);
+        publish();
+        return true;
+    }
+
+    /**
+     * Zwraca zapis przebiegu bieżącej gry od jej rozpoczęcia (lub od wczytania zapisu) do bieżącej pozycji.
+     * Cofnięte ruchy nie należą do zapisu.
+     *
+     * @return zapis gry.
+     */
+    public Replay getReplay() {
+        return replayRecorder.toReplay();
+    }
+
+    /**
+     * Zwraca zapis przebiegu bieżącej gry i rozpoczyna nowy zapis od bieżącej pozycji,
+     * np. po zapisaniu zakończonej gry do pliku.
+     *
+     * @return zapis gry.
+     */
+    public Replay finishReplay() {
+        Replay replay = replayRecorder.toReplay();
+        restartReplay();
+        return replay;
+    }
+
+    /**
+     * Rozpoczyna nowy zapis przebiegu gry od bieżącej pozycji, porzucając dotychczasowe ruchy.
+     */
+    void restartReplay() {
+        replayRecorder.start(gameTiles, score);
+    }
+
+    /**
+     * Wyświetla pozycję z odtwarzanej gry: zapisuje planszę do istniejących kafelków i ustawia wynik.
+     * Historia ruchów i zapis przebiegu gry nie są zmieniane.
+     *
+     * @param board plansza tego samego rozmiaru co bieżąca.
+     * @param score wynik.
+     */
+    void showPosition(GridBoard board, int score) {
+        board.toTiles(gameTiles);
+        emptyCells.fromGridBoard(board);
+        this.score = score;
+        publish();
+    }
+
+    /**
+     * Zwraca ostatnią opublikowaną kopię stanu gry. Metoda może być wywoływana z dowolnego wątku.
+     * Kopia jest publikowana po każdym ruchu, cofnięciu, ponowieniu, wczytaniu i zmianie wyniku;
+     * zmiany kafelków wykonane bezpośrednio przez {@link #getGameTiles()} są publikowane przez {@link #markTilesChanged()}.
+     *
+     * @return kopia stanu gry.
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Publikuje kopię bieżącego stanu gry dla innych wątków.
+     */
+    private void publish() {
+        publish(BoardSnapshot.NO_MOVE);
+    }
+
+    /**
+     * Publikuje kopię stanu gry po ruchu, aby widok mógł odtworzyć przesunięcia kafelków.
+     *
+     * @param move ruch spakowany przez {@link MoveRecord} albo {@link BoardSnapshot#NO_MOVE}.
+     */
+    private void publish(long move) {
+        snapshot.set(new BoardSnapshot(gameTiles, score, bestScore, ++snapshotSequence, move));
+    }
+
 }
\ No newline at end of file
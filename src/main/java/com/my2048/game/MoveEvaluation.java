@@ -0,0 +1,103 @@
+package com.my2048.game;
+
+/**
+ * Wynik oceny ruchu bez skutków ubocznych: plansza po ruchu, zdobyte punkty, informacja,
+ * czy ruch zmienił planszę, i liczba pustych pól po ruchu.
+ * <p>
+ * Ocena wykonuje ruch na kopii planszy, bez dodawania losowego kafelka i bez zmiany modelu
+ * gry czy jego historii, więc wiele ocen może być wykonywanych jednocześnie w różnych wątkach,
+ * o ile plansza źródłowa nie jest w tym czasie zmieniana. Obiekty tej klasy są niezmienne.
+ */
+public final class MoveEvaluation {
+
+    /**
+     * Plansza po ruchu.
+     */
+    private final GridBoard board;
+
+    /**
+     * Kierunek ocenianego ruchu.
+     */
+    private final Direction direction;
+
+    /**
+     * Punkty zdobyte w ruchu albo -1, jeśli ruch nie zmienił planszy.
+     */
+    private final int gained;
+
+    /**
+     * Liczba pustych pól po ruchu.
+     */
+    private final int emptyCount;
+
+    /**
+     * Tworzy wynik oceny.
+     *
+     * @param board plansza po ruchu, przekazywana na własność.
+     * @param direction kierunek ruchu.
+     * @param gained punkty zdobyte w ruchu albo -1, jeśli ruch nie zmienił planszy.
+     */
+    private MoveEvaluation(GridBoard board, Direction direction, int gained) {
+        this.board = board;
+        this.direction = direction;
+        this.gained = gained;
+        this.emptyCount = board.countEmpty();
+    }
+
+    /**
+     * Ocenia ruch w podanym kierunku. Plansza źródłowa nie jest modyfikowana.
+     *
+     * @param board plansza przed ruchem.
+     * @param direction kierunek ruchu.
+     * @return wynik oceny.
+     */
+    public static MoveEvaluation evaluate(GridBoard board, Direction direction) {
+        GridBoard after = board.copy();
+        return new MoveEvaluation(after, direction, after.move(direction));
+    }
+
+    /**
+     * Zwraca kopię planszy po ruchu, bez nowego kafelka.
+     *
+     * @return plansza po ruchu.
+     */
+    public GridBoard getBoard() {
+        return board.copy();
+    }
+
+    /**
+     * Zwraca kierunek ocenianego ruchu.
+     *
+     * @return kierunek ruchu.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Zwraca punkty zdobyte za połączenia w ruchu.
+     *
+     * @return zdobyte punkty (0, jeśli ruch nie zmienił planszy).
+     */
+    public int getScoreGained() {
+        return Math.max(gained, 0);
+    }
+
+    /**
+     * Sprawdza, czy ruch zmienia planszę, czyli czy jest dozwolony.
+     *
+     * @return true, jeśli ruch zmienia planszę.
+     */
+    public boolean isChanged() {
+        return gained >= 0;
+    }
+
+    /**
+     * Zwraca liczbę pustych pól po ruchu, przed dodaniem nowego kafelka.
+     *
+     * @return liczba pustych pól.
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+}
@@ -0,0 +1,190 @@
+package com.my2048.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Dziennik ruchów dopisywany za ostatnim zapisanym stanem gry ({@link SavedGame}).
+ * <p>
+ * Plik zaczyna się nagłówkiem z rozmiarem planszy i numerem generacji stanu, który kontynuuje,
+ * a dalej zawiera tylko dopisywane rekordy: ruch spakowany przez {@link MoveRecord} i jego sumę kontrolną CRC32.
+ * Dziennik o innym numerze generacji niż plik stanu jest pomijany, a odczyt kończy się na pierwszym
+ * niepełnym lub uszkodzonym rekordzie, więc przerwany zapis traci co najwyżej ostatnie ruchy.
+ * Każdy dopisany fragment jest utrwalany na dysku przed powrotem z {@link #append(long[])}.
+ * Klasa nie jest bezpieczna wątkowo.
+ */
+public class MoveJournal implements Closeable {
+
+    /**
+     * Znacznik początku pliku dziennika.
+     */
+    private static final int MAGIC = 0x324A524E;
+
+    /**
+     * Rozmiar nagłówka w bajtach: znacznik, rozmiar planszy i numer generacji.
+     */
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Rozmiar jednego rekordu w bajtach: ruch i suma kontrolna.
+     */
+    static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Kanał pliku dziennika otwarty do dopisywania.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Bufor używany ponownie przy kolejnych dopisaniach.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * RECORD_BYTES);
+
+    /**
+     * Suma kontrolna używana ponownie dla kolejnych rekordów.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Liczba rekordów w dzienniku.
+     */
+    private int recordCount;
+
+    /**
+     * Tworzy obiekt dziennika dla otwartego kanału.
+     *
+     * @param channel kanał pliku dziennika.
+     */
+    private MoveJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Tworzy nowy, pusty dziennik (istniejący plik jest nadpisywany) i utrwala jego nagłówek.
+     *
+     * @param file plik dziennika.
+     * @param size rozmiar planszy.
+     * @param generation numer generacji stanu, który kontynuuje dziennik.
+     * @return otwarty dziennik.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public static MoveJournal create(Path file, int size, long generation) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(size).putLong(generation).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new MoveJournal(channel);
+    }
+
+    /**
+     * Zwraca liczbę rekordów w dzienniku.
+     *
+     * @return liczba rekordów.
+     */
+    public int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Dopisuje ruchy na końcu dziennika i utrwala je na dysku.
+     *
+     * @param moves ruchy spakowane przez {@link MoveRecord}.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void append(long[] moves) throws IOException {
+        if (moves.length == 0) return;
+        int bytes = moves.length * RECORD_BYTES;
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(bytes - 1) << 1);
+        }
+        buffer.clear();
+        for (long move : moves) {
+            buffer.putLong(move).putInt(checksum(move));
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        recordCount += moves.length;
+    }
+
+    /**
+     * Zamyka plik dziennika.
+     *
+     * @throws IOException jeśli zamknięcie się nie powiodło.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Odczytuje poprawne rekordy dziennika kontynuującego stan o podanym numerze generacji.
+     *
+     * @param file plik dziennika.
+     * @param size rozmiar planszy.
+     * @param generation numer generacji zapisanego stanu.
+     * @return ruchy spakowane przez {@link MoveRecord}; pusta tablica, jeśli dziennik nie istnieje
+     *         lub należy do innego stanu.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    public static long[] read(Path file, int size, long generation) throws IOException {
+        if (!Files.isRegularFile(file)) return new long[0];
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC || data.getInt() != size
+                || data.getLong() != generation) {
+            return new long[0];
+        }
+        long[] moves = new long[data.remaining() / RECORD_BYTES];
+        CRC32 crc = new CRC32();
+        int count = 0;
+        while (count < moves.length) {
+            long move = data.getLong();
+            if (data.getInt() != checksum(crc, move)) break;
+            moves[count++] = move;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Wylicza sumę kontrolną rekordu.
+     *
+     * @param move spakowany ruch.
+     * @return suma kontrolna.
+     */
+    private int checksum(long move) {
+        return checksum(crc, move);
+    }
+
+    /**
+     * Wylicza sumę kontrolną rekordu przy użyciu podanego obiektu CRC32.
+     *
+     * @param crc obiekt sumy kontrolnej.
+     * @param move spakowany ruch.
+     * @return suma kontrolna.
+     */
+    private static int checksum(CRC32 crc, long move) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (move >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.my2048.game;
+
+/**
+ * Zapis jednego ruchu spakowany w liczbę typu long, używany przez {@link DeltaHistory} i {@link MoveJournal}.
+ * <p>
+ * Bity 0-31 - punkty zdobyte w ruchu, bity 32-33 - kierunek, bity 34-38 - wykładnik nowego kafelka
+ * (0, jeśli ruch nie zmienił planszy), bity 40-55 - indeks pola nowego kafelka.
+ * Ruch wraz z nowym kafelkiem można odtworzyć na planszy {@link GridBoard} metodą {@link #apply(GridBoard, long)}.
+ */
+final class MoveRecord {
+
+    private MoveRecord() {
+    }
+
+    /**
+     * Pakuje ruch.
+     *
+     * @param direction kierunek ruchu.
+     * @param spawnCell indeks pola nowego kafelka (wiersz * rozmiar + kolumna) albo -1, jeśli plansza się nie zmieniła.
+     * @param spawnExponent wykładnik nowego kafelka albo 0, jeśli plansza się nie zmieniła.
+     * @param scoreDelta punkty zdobyte w ruchu.
+     * @return spakowany ruch.
+     */
+    static long pack(Direction direction, int spawnCell, int spawnExponent, int scoreDelta) {
+        return (scoreDelta & 0xFFFFFFFFL)
+                | (long) direction.ordinal() << 32
+                | (long) spawnExponent << 34
+                | (long) (spawnExponent == 0 ? 0 : spawnCell) << 40;
+    }
+
+    /**
+     * Zwraca kierunek ruchu.
+     *
+     * @param move spakowany ruch.
+     * @return kierunek.
+     */
+    static Direction direction(long move) {
+        return Direction.of((int) (move >>> 32) & 0x3);
+    }
+
+    /**
+     * Zwraca wykładnik nowego kafelka.
+     *
+     * @param move spakowany ruch.
+     * @return wykładnik albo 0, jeśli ruch nie zmienił planszy.
+     */
+    static int spawnExponent(long move) {
+        return (int) (move >>> 34) & 0x1F;
+    }
+
+    /**
+     * Zwraca indeks pola nowego kafelka.
+     *
+     * @param move spakowany ruch.
+     * @return indeks pola (nieistotny, jeśli ruch nie zmienił planszy).
+     */
+    static int spawnCell(long move) {
+        return (int) (move >>> 40) & 0xFFFF;
+    }
+
+    /**
+     * Zwraca punkty zdobyte w ruchu.
+     *
+     * @param move spakowany ruch.
+     * @return punkty.
+     */
+    static int scoreDelta(long move) {
+        return (int) move;
+    }
+
+    /**
+     * Wykonuje ruch na planszy i dodaje zapisany nowy kafelek.
+     *
+     * @param board plansza.
+     * @param move spakowany ruch.
+     * @return punkty zdobyte w ruchu.
+     */
+    static int apply(GridBoard board, long move) {
+        board.move(direction(move));
+        int exponent = spawnExponent(move);
+        if (exponent != 0) {
+            board.set(spawnCell(move), exponent);
+        }
+        return scoreDelta(move);
+    }
+}
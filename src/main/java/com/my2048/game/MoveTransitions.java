@@ -0,0 +1,267 @@
+package com.my2048.game;
+
+/**
+ * Lista przejść kafelków w jednym ruchu: skąd dokąd przesunął się każdy kafelek, które pola
+ * powstały z połączenia i gdzie pojawił się nowy kafelek. Używana przez {@link View} do animacji ruchu.
+ * <p>
+ * Przejścia są wyznaczane według tych samych zasad co {@link GridBoard#move(Direction)}: kafelki
+ * przesuwają się w kierunku ruchu, a każdy kafelek może zostać połączony co najwyżej raz.
+ * Obiekt jest niezmienny.
+ */
+final class MoveTransitions {
+
+    /**
+     * Rozmiar planszy.
+     */
+    private final int size;
+
+    /**
+     * Liczba przesuwanych kafelków.
+     */
+    private final int count;
+
+    /**
+     * Pole, z którego przesuwa się kafelek.
+     */
+    private final int[] from;
+
+    /**
+     * Pole, na które przesuwa się kafelek.
+     */
+    private final int[] to;
+
+    /**
+     * Wykładnik przesuwanego kafelka przed ruchem.
+     */
+    private final byte[] exponents;
+
+    /**
+     * Wykładniki kafelków po przesunięciu i połączeniu, bez nowego kafelka.
+     */
+    private final byte[] after;
+
+    /**
+     * Pola, na których powstał kafelek z połączenia.
+     */
+    private final boolean[] merged;
+
+    /**
+     * Pole nowego kafelka.
+     */
+    private final int spawnCell;
+
+    /**
+     * Wykładnik nowego kafelka.
+     */
+    private final int spawnExponent;
+
+    /**
+     * Wyznacza przejścia ruchu.
+     *
+     * @param before plansza przed ruchem (nie jest zmieniana).
+     * @param direction kierunek ruchu.
+     * @param spawnCell pole nowego kafelka.
+     * @param spawnExponent wykładnik nowego kafelka.
+     */
+    private MoveTransitions(GridBoard before, Direction direction, int spawnCell, int spawnExponent) {
+        this.size = before.size();
+        int cells = before.cellCount();
+        this.from = new int[cells];
+        this.to = new int[cells];
+        this.exponents = new byte[cells];
+        this.after = new byte[cells];
+        this.merged = new boolean[cells];
+        this.spawnCell = spawnCell;
+        this.spawnExponent = spawnExponent;
+        int moved = 0;
+        for (int line = 0; line < size; line++) {
+            switch (direction) {
+                case LEFT:
+                    moved = slide(before, line * size, 1, moved);
+                    break;
+                case RIGHT:
+                    moved = slide(before, line * size + size - 1, -1, moved);
+                    break;
+                case UP:
+                    moved = slide(before, line, size, moved);
+                    break;
+                default:
+                    moved = slide(before, (size - 1) * size + line, -size, moved);
+                    break;
+            }
+        }
+        this.count = moved;
+    }
+
+    /**
+     * Wyznacza przejścia ruchu, po którym opublikowano kopię {@code next}, jeśli bezpośrednio
+     * poprzedza ją kopia {@code previous}.
+     *
+     * @param previous kopia stanu przed ruchem.
+     * @param next kopia stanu po ruchu.
+     * @return przejścia albo null, jeśli kopie nie są rozdzielone dokładnie jednym ruchem zmieniającym planszę.
+     */
+    static MoveTransitions between(BoardSnapshot previous, BoardSnapshot next) {
+        long move = next.getMove();
+        if (move == BoardSnapshot.NO_MOVE || next.getSequence() != previous.getSequence() + 1
+                || next.getSize() != previous.getSize() || MoveRecord.spawnExponent(move) == 0) {
+            return null;
+        }
+        return of(previous.toBoard(), MoveRecord.direction(move), MoveRecord.spawnCell(move), MoveRecord.spawnExponent(move));
+    }
+
+    /**
+     * Wyznacza przejścia ruchu.
+     *
+     * @param before plansza przed ruchem (nie jest zmieniana).
+     * @param direction kierunek ruchu.
+     * @param spawnCell pole nowego kafelka albo -1, jeśli nie dodano kafelka.
+     * @param spawnExponent wykładnik nowego kafelka albo 0.
+     * @return przejścia ruchu.
+     */
+    static MoveTransitions of(GridBoard before, Direction direction, int spawnCell, int spawnExponent) {
+        return new MoveTransitions(before, direction, spawnCell, spawnExponent);
+    }
+
+    /**
+     * Wyznacza przejścia jednej linii, tak jak {@link GridBoard} przesuwa linię.
+     *
+     * @param before plansza przed ruchem.
+     * @param start indeks pierwszego pola linii (pola, do którego przesuwane są kafelki).
+     * @param step odległość między kolejnymi polami linii.
+     * @param moved liczba przejść wyznaczonych wcześniej.
+     * @return liczba przejść po dodaniu przejść tej linii.
+     */
+    private int slide(GridBoard before, int start, int step, int moved) {
+        int write = start;
+        int pending = 0;
+        int pendingCell = -1;
+        for (int i = 0, read = start; i < size; i++, read += step) {
+            int exponent = before.get(read);
+            if (exponent == 0) continue;
+            if (pending == exponent && exponent < GridBoard.MAX_EXPONENT) {
+                moved = add(moved, pendingCell, write, pending);
+                moved = add(moved, read, write, exponent);
+                after[write] = (byte) (exponent + 1);
+                merged[write] = true;
+                write += step;
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    moved = add(moved, pendingCell, write, pending);
+                    after[write] = (byte) pending;
+                    write += step;
+                }
+                pending = exponent;
+                pendingCell = read;
+            }
+        }
+        if (pending != 0) {
+            moved = add(moved, pendingCell, write, pending);
+            after[write] = (byte) pending;
+        }
+        return moved;
+    }
+
+    /**
+     * Dodaje przejście kafelka.
+     *
+     * @param moved liczba przejść wyznaczonych wcześniej.
+     * @param source pole początkowe.
+     * @param target pole końcowe.
+     * @param exponent wykładnik kafelka.
+     * @return liczba przejść po dodaniu.
+     */
+    private int add(int moved, int source, int target, int exponent) {
+        from[moved] = source;
+        to[moved] = target;
+        exponents[moved] = (byte) exponent;
+        return moved + 1;
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return rozmiar planszy.
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Zwraca liczbę przesuwanych kafelków (także tych, które zostają na miejscu).
+     *
+     * @return liczba przejść.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Zwraca pole, z którego przesuwa się kafelek.
+     *
+     * @param i numer przejścia.
+     * @return indeks pola (wiersz * rozmiar + kolumna).
+     */
+    int getFrom(int i) {
+        return from[i];
+    }
+
+    /**
+     * Zwraca pole, na które przesuwa się kafelek.
+     *
+     * @param i numer przejścia.
+     * @return indeks pola (wiersz * rozmiar + kolumna).
+     */
+    int getTo(int i) {
+        return to[i];
+    }
+
+    /**
+     * Zwraca wykładnik przesuwanego kafelka.
+     *
+     * @param i numer przejścia.
+     * @return wykładnik przed połączeniem.
+     */
+    int getExponent(int i) {
+        return exponents[i];
+    }
+
+    /**
+     * Zwraca wykładnik kafelka po ruchu, bez uwzględnienia nowego kafelka.
+     *
+     * @param cell indeks pola.
+     * @return wykładnik (0 dla pustego pola).
+     */
+    int getAfter(int cell) {
+        return after[cell];
+    }
+
+    /**
+     * Sprawdza, czy na polu powstał kafelek z połączenia.
+     *
+     * @param cell indeks pola.
+     * @return true, jeśli kafelek na polu powstał z połączenia dwóch kafelków.
+     */
+    boolean isMerged(int cell) {
+        return merged[cell];
+    }
+
+    /**
+     * Zwraca pole nowego kafelka.
+     *
+     * @return indeks pola albo -1, jeśli nie dodano kafelka.
+     */
+    int getSpawnCell() {
+        return spawnExponent == 0 ? -1 : spawnCell;
+    }
+
+    /**
+     * Zwraca wykładnik nowego kafelka.
+     *
+     * @return wykładnik albo 0, jeśli nie dodano kafelka.
+     */
+    int getSpawnExponent() {
+        return spawnExponent;
+    }
+}
@@ -0,0 +1,257 @@
+package com.my2048.game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Automatyczny gracz wykonujący przeszukiwanie expectimax równolegle w puli {@link ForkJoinPool}.
+ * <p>
+ * Drzewo jest dzielone w korzeniu (osobne zadanie dla każdego dozwolonego ruchu) oraz
+ * w pierwszym węźle losowym (osobne zadanie dla każdego pustego pola i wartości nowego kafelka).
+ * Każde zadanie dostaje własną kopię planszy, której nikt inny nie modyfikuje, a dalsza część
+ * poddrzewa jest przeszukiwana sekwencyjnie przez {@link Expectimax} należący do wątku roboczego,
+ * wraz z jego własną tablicą transpozycji.
+ * <p>
+ * Przeszukiwanie jest pogłębiane iteracyjnie. Wszystkie zadania współdzielą jeden {@link SearchLimit},
+ * więc przekroczenie czasu lub limitu węzłów zatrzymuje całą iterację, a zwracany jest ruch
+ * z ostatniej pełnej iteracji.
+ * <p>
+ * Z jednego gracza może korzystać wiele wątków jednocześnie; równoległe przeszukiwania
+ * współdzielą wtedy tablice transpozycji wątków puli.
+ */
+public class ParallelExpectimax implements AutoPlayer {
+
+    /**
+     * Pula wątków wykonująca zadania przeszukiwania.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Maksymalna głębokość przeszukiwania, liczona w ruchach gracza.
+     */
+    private final int maxDepth;
+
+    /**
+     * Limit czasu na jeden ruch w milisekundach.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * Maksymalna liczba węzłów odwiedzanych przy wyborze jednego ruchu.
+     */
+    private final long nodeBudget;
+
+    /**
+     * Sekwencyjne przeszukiwanie należące do każdego wątku roboczego. Tablice transpozycji wątków
+     * żyją tak długo jak wątki puli, dlatego jeden gracz powinien być używany wielokrotnie,
+     * a nie tworzony dla każdej gry.
+     */
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Numer bieżącego przeszukiwania, używany do postarzania wpisów w tablicach transpozycji wątków.
+     * Zwiększany atomowo, bo z jednego gracza może korzystać kilka modeli jednocześnie.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Sekwencyjne przeszukiwanie przypisane do jednego wątku roboczego.
+     */
+    private static final class Worker {
+        /**
+         * Przeszukiwanie sekwencyjne wraz z buforami i tablicą transpozycji.
+         */
+        final Expectimax search;
+
+        /**
+         * Numer przeszukiwania, w którym wątek pracował ostatnio.
+         */
+        int generation = -1;
+
+        Worker(Expectimax search) {
+            this.search = search;
+        }
+    }
+
+    /**
+     * Tworzy równoległego automatycznego gracza.
+     *
+     * @param heuristic funkcja oceny liści.
+     * @param maxDepth maksymalna głębokość przeszukiwania w ruchach gracza, co najmniej 1.
+     * @param timeBudgetMillis limit czasu na jeden ruch w milisekundach.
+     * @param nodeBudget maksymalna liczba węzłów na jeden ruch albo {@link Long#MAX_VALUE}.
+     * @param tableMegabytes rozmiar tablicy transpozycji każdego wątku w megabajtach albo 0, aby z niej nie korzystać.
+     * @param pool pula wątków wykonująca przeszukiwanie.
+     */
+    public ParallelExpectimax(Heuristic heuristic, int maxDepth, long timeBudgetMillis, long nodeBudget,
+                              int tableMegabytes, ForkJoinPool pool) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1: " + maxDepth);
+        }
+        this.pool = pool;
+        this.maxDepth = maxDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        this.workers = ThreadLocal.withInitial(() -> new Worker(new Expectimax(heuristic, maxDepth, timeBudgetMillis,
+                tableMegabytes > 0 ? TranspositionTable.withMemory(tableMegabytes) : null)));
+    }
+
+    /**
+     * Wybiera najlepszy ruch dla podanej planszy w limicie czasu i węzłów podanym w konstruktorze.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @return najlepszy kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    @Override
+    public Direction bestMove(GridBoard board) {
+        return bestMove(board, new SearchLimit(timeBudgetMillis, nodeBudget));
+    }
+
+    /**
+     * Wybiera najlepszy ruch dla podanej planszy z zewnętrznym ograniczeniem przeszukiwania,
+     * które może zostać zatrzymane z innego wątku. Pierwsza iteracja (głębokość 1) jest zawsze
+     * wykonywana w całości, więc ruch jest zwracany nawet po natychmiastowym zatrzymaniu.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @param limit ograniczenie przeszukiwania współdzielone przez wszystkie zadania.
+     * @return najlepszy kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    public Direction bestMove(GridBoard board, SearchLimit limit) {
+        generation.incrementAndGet();
+        Direction best = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            MoveTask[] tasks = new MoveTask[4];
+            int legal = board.legalMoves();
+            for (int d = 0; d < 4; d++) {
+                if ((legal & (1 << d)) == 0) continue;
+                GridBoard child = board.copy();
+                child.move(Direction.of(d));
+                tasks[d] = new MoveTask(child, depth, limit);
+            }
+            pool.invoke(new RootTask(tasks));
+            if (depth > 1 && limit.isStopped()) break;
+
+            Direction candidate = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int d = 0; d < 4; d++) {
+                if (tasks[d] != null && tasks[d].value > bestValue) {
+                    bestValue = tasks[d].value;
+                    candidate = Direction.of(d);
+                }
+            }
+            if (candidate == null) break;
+            best = candidate;
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca sekwencyjne przeszukiwanie bieżącego wątku, przygotowane do bieżącego przeszukiwania.
+     *
+     * @return przeszukiwanie sekwencyjne wątku.
+     */
+    private Expectimax worker() {
+        Worker worker = workers.get();
+        int current = generation.get();
+        if (worker.generation != current) {
+            worker.search.newSearch();
+            worker.generation = current;
+        }
+        return worker.search;
+    }
+
+    /**
+     * Zadanie korzenia: uruchamia równolegle zadania wszystkich dozwolonych ruchów.
+     */
+    private static final class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final MoveTask[] moves;
+
+        RootTask(MoveTask[] moves) {
+            this.moves = moves;
+        }
+
+        @Override
+        protected void compute() {
+            int count = 0;
+            for (MoveTask move : moves) {
+                if (move != null) count++;
+            }
+            MoveTask[] legal = new MoveTask[count];
+            count = 0;
+            for (MoveTask move : moves) {
+                if (move != null) legal[count++] = move;
+            }
+            ForkJoinTask.invokeAll(legal);
+        }
+    }
+
+    /**
+     * Zadanie węzła losowego po jednym ruchu z korzenia. Dzieli pracę na zadania
+     * dla każdego pustego pola i każdej wartości nowego kafelka.
+     */
+    private final class MoveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final GridBoard board;
+        private final int depth;
+        private final SearchLimit limit;
+        double value;
+
+        MoveTask(GridBoard board, int depth, SearchLimit limit) {
+            this.board = board;
+            this.depth = depth;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            int empty = board.countEmpty();
+            if (depth <= 1 || empty == 0) {
+                value = worker().evaluate(board);
+                return;
+            }
+            SpawnTask[] spawns = new SpawnTask[2 * empty];
+            int count = 0;
+            for (int cell = 0; cell < board.cellCount(); cell++) {
+                if (board.get(cell) != 0) continue;
+                spawns[count++] = new SpawnTask(board, cell, 1, Expectimax.TWO_PROBABILITY / empty, depth - 1, limit);
+                spawns[count++] = new SpawnTask(board, cell, 2, (1 - Expectimax.TWO_PROBABILITY) / empty, depth - 1, limit);
+            }
+            ForkJoinTask.invokeAll(spawns);
+
+            double sum = 0;
+            for (SpawnTask spawn : spawns) {
+                sum += spawn.probability * spawn.value;
+            }
+            value = sum;
+        }
+    }
+
+    /**
+     * Zadanie węzła gracza po dodaniu jednego konkretnego kafelka, przeszukiwane sekwencyjnie.
+     */
+    private final class SpawnTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final GridBoard board;
+        private final double probability;
+        private final int depth;
+        private final SearchLimit limit;
+        double value;
+
+        SpawnTask(GridBoard parent, int cell, int exponent, double probability, int depth, SearchLimit limit) {
+            this.board = parent.copy();
+            this.board.set(cell, exponent);
+            this.probability = probability;
+            this.depth = depth;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            if (limit.isStopped()) return;
+            value = worker().maxValue(board, depth, probability, limit);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.my2048.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Automatyczny gracz wybierający losowo jeden z dozwolonych ruchów.
+ * Służy jako punkt odniesienia w symulacjach. Nie jest bezpieczny wątkowo.
+ */
+public class RandomPlayer implements AutoPlayer {
+
+    /**
+     * Generator liczb losowych używany do wyboru ruchu.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Tworzy gracza losowego.
+     *
+     * @param random generator liczb losowych.
+     */
+    public RandomPlayer(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Wybiera losowy ruch spośród ruchów zmieniających planszę.
+     *
+     * @param board plansza, dla której wybierany jest ruch. Nie jest modyfikowana.
+     * @return wybrany kierunek albo null, jeśli żaden ruch nie jest możliwy.
+     */
+    @Override
+    public Direction bestMove(GridBoard board) {
+        int legal = board.legalMoves();
+        if (legal == 0) return null;
+        int pick = random.nextInt(Integer.bitCount(legal));
+        for (int d = 0; d < 4; d++) {
+            if ((legal & (1 << d)) != 0 && pick-- == 0) return Direction.of(d);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,433 @@
+package com.my2048.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Zapis przebiegu gry: pozycja początkowa i kolejne ruchy z nowymi kafelkami spakowane przez {@link MoveRecord}.
+ * <p>
+ * Ponieważ każdy ruch zawiera pole i wartość kafelka dodanego po nim, gra może zostać odtworzona
+ * dokładnie, bez generatora liczb losowych: w oknie gry krok po kroku ({@link Playback})
+ * albo bez interfejsu z pełną szybkością silnika ({@link #verify()}, {@link ReplayRunner}).
+ * Odtworzenie sprawdza, czy silnik nadal daje te same wyniki ruchów, więc zapisane gry mogą służyć
+ * do wykrywania regresji i pomiaru wydajności na prawdziwych danych.
+ * <p>
+ * Plik zapisu zawiera nagłówek (znacznik, wersja, rozmiar planszy, wynik początkowy i liczba ruchów),
+ * wykładniki kafelków pozycji początkowej, ruchy po 8 bajtów i sumę kontrolną CRC32 całości.
+ */
+public class Replay {
+
+    /**
+     * Katalog, do którego trafiają zapisy gier.
+     */
+    public static final String DIRECTORY = "replays";
+
+    /**
+     * Rozszerzenie plików zapisu gier.
+     */
+    public static final String EXTENSION = ".replay";
+
+    /**
+     * Znacznik początku pliku ("2RPL").
+     */
+    private static final int MAGIC = 0x3252504C;
+
+    /**
+     * Wersja formatu pliku.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Rozmiar nagłówka w bajtach: znacznik, wersja, rozmiar planszy, dwa bajty zarezerwowane,
+     * wynik początkowy i liczba ruchów.
+     */
+    static final int HEADER_BYTES = Integer.BYTES + 4 + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * Rozmiar planszy.
+     */
+    private final int size;
+
+    /**
+     * Wykładniki kafelków pozycji początkowej.
+     */
+    private final byte[] initialCells;
+
+    /**
+     * Wynik w pozycji początkowej.
+     */
+    private final int initialScore;
+
+    /**
+     * Ruchy spakowane przez {@link MoveRecord}.
+     */
+    private final long[] moves;
+
+    /**
+     * Tworzy zapis gry. Tablice nie są kopiowane.
+     *
+     * @param size rozmiar planszy.
+     * @param initialCells wykładniki kafelków pozycji początkowej.
+     * @param initialScore wynik w pozycji początkowej.
+     * @param moves ruchy spakowane przez {@link MoveRecord}.
+     */
+    Replay(int size, byte[] initialCells, int initialScore, long[] moves) {
+        this.size = size;
+        this.initialCells = initialCells;
+        this.initialScore = initialScore;
+        this.moves = moves;
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return rozmiar planszy.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Zwraca wynik w pozycji początkowej.
+     *
+     * @return wynik początkowy.
+     */
+    public int getInitialScore() {
+        return initialScore;
+    }
+
+    /**
+     * Zwraca liczbę zapisanych ruchów.
+     *
+     * @return liczba ruchów.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Zwraca kierunek ruchu o podanym numerze.
+     *
+     * @param index numer ruchu.
+     * @return kierunek ruchu.
+     */
+    public Direction getDirection(int index) {
+        return MoveRecord.direction(moves[index]);
+    }
+
+    /**
+     * Rozpoczyna odtwarzanie gry od pozycji początkowej.
+     *
+     * @return nowe odtwarzanie.
+     */
+    public Playback play() {
+        return new Playback();
+    }
+
+    /**
+     * Odtwarza całą grę z pełną szybkością silnika i sprawdza, czy każdy ruch daje zapisany wynik.
+     *
+     * @return numer pierwszego niezgodnego ruchu albo -1, jeśli wszystkie ruchy są zgodne z zapisem.
+     */
+    public int verify() {
+        Playback playback = play();
+        while (playback.hasNext()) {
+            if (!playback.step()) return playback.getPosition() - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Zwraca nazwę pliku dla zapisu gry kończonego w podanej chwili.
+     *
+     * @param timeMillis czas zakończenia gry w milisekundach.
+     * @return nazwa pliku.
+     */
+    public String fileName(long timeMillis) {
+        return "game-" + timeMillis + "-" + size + "x" + size + EXTENSION;
+    }
+
+    /**
+     * Zapisuje grę do pliku. Brakujące katalogi są tworzone.
+     *
+     * @param file plik docelowy.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + initialCells.length + moves.length * Long.BYTES
+                + Integer.BYTES);
+        data.putInt(MAGIC).put((byte) VERSION).put((byte) size).putShort((short) 0)
+                .putInt(initialScore).putInt(moves.length).put(initialCells);
+        for (long move : moves) {
+            data.putLong(move);
+        }
+        data.putInt(checksum(data.array(), data.position()));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, data.array());
+    }
+
+    /**
+     * Wczytuje grę z pliku.
+     *
+     * @param file plik zapisu gry.
+     * @return wczytana gra albo null, jeśli plik jest uszkodzony lub ma inną wersję.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    public static Replay load(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        if (data.remaining() < HEADER_BYTES + Integer.BYTES || data.getInt() != MAGIC || data.get() != VERSION) {
+            return null;
+        }
+        int size = data.get();
+        if (size < 1 || data.getShort() != 0) return null;
+        int initialScore = data.getInt();
+        int count = data.getInt();
+        long expected = HEADER_BYTES + (long) size * size + (long) count * Long.BYTES + Integer.BYTES;
+        if (count < 0 || bytes.length != expected
+                || checksum(bytes, bytes.length - Integer.BYTES) != data.getInt(bytes.length - Integer.BYTES)) {
+            return null;
+        }
+        byte[] cells = new byte[size * size];
+        data.get(cells);
+        for (byte cell : cells) {
+            if (cell < 0 || cell > GridBoard.MAX_EXPONENT) return null;
+        }
+        long[] moves = new long[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = data.getLong();
+        }
+        return new Replay(size, cells, initialScore, moves);
+    }
+
+    /**
+     * Wylicza sumę kontrolną początkowego fragmentu danych.
+     *
+     * @param data dane.
+     * @param length długość fragmentu.
+     * @return suma kontrolna.
+     */
+    private static int checksum(byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Odtwarzanie gry krok po kroku na planszy {@link GridBoard}.
+     */
+    public final class Playback {
+
+        /**
+         * Plansza w bieżącej pozycji.
+         */
+        private final GridBoard board = new GridBoard(size);
+
+        /**
+         * Wynik w bieżącej pozycji.
+         */
+        private int score = initialScore;
+
+        /**
+         * Liczba wykonanych ruchów.
+         */
+        private int position;
+
+        /**
+         * Tworzy odtwarzanie ustawione w pozycji początkowej.
+         */
+        private Playback() {
+            for (int cell = 0; cell < initialCells.length; cell++) {
+                board.set(cell, initialCells[cell]);
+            }
+        }
+
+        /**
+         * Sprawdza, czy zostały ruchy do odtworzenia.
+         *
+         * @return true, jeśli są kolejne ruchy.
+         */
+        public boolean hasNext() {
+            return position < moves.length;
+        }
+
+        /**
+         * Wykonuje kolejny ruch i dodaje zapisany nowy kafelek. Ruch jest zgodny z zapisem, jeśli silnik
+         * zmienia planszę dokładnie wtedy, gdy zapis zawiera nowy kafelek, zdobywa zapisaną liczbę punktów,
+         * a pole nowego kafelka jest puste.
+         *
+         * @return true, jeśli ruch jest zgodny z zapisem.
+         * @throws IllegalStateException jeśli nie ma ruchu do odtworzenia.
+         */
+        public boolean step() {
+            if (!hasNext()) {
+                throw new IllegalStateException("Replay finished");
+            }
+            long move = moves[position++];
+            int gained = board.move(MoveRecord.direction(move));
+            int exponent = MoveRecord.spawnExponent(move);
+            boolean consistent;
+            if (exponent == 0) {
+                consistent = gained < 0;
+            } else {
+                int cell = MoveRecord.spawnCell(move);
+                consistent = gained == MoveRecord.scoreDelta(move) && cell < board.cellCount() && board.get(cell) == 0;
+                if (cell < board.cellCount()) {
+                    board.set(cell, exponent);
+                }
+            }
+            score += MoveRecord.scoreDelta(move);
+            return consistent;
+        }
+
+        /**
+         * Zwraca planszę w bieżącej pozycji. Plansza nie powinna być modyfikowana.
+         *
+         * @return plansza.
+         */
+        public GridBoard getBoard() {
+            return board;
+        }
+
+        /**
+         * Zwraca wynik w bieżącej pozycji.
+         *
+         * @return wynik.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * Zwraca liczbę wykonanych ruchów.
+         *
+         * @return numer bieżącej pozycji.
+         */
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * Zapisuje przebieg gry ruch po ruchu. Klasa nie jest bezpieczna wątkowo.
+     */
+    static final class Recorder {
+
+        /**
+         * Rozmiar planszy.
+         */
+        private int size;
+
+        /**
+         * Wykładniki kafelków pozycji początkowej.
+         */
+        private byte[] initialCells = new byte[0];
+
+        /**
+         * Wynik w pozycji początkowej.
+         */
+        private int initialScore;
+
+        /**
+         * Zapisane ruchy.
+         */
+        private long[] moves = new long[64];
+
+        /**
+         * Liczba ruchów do bieżącej pozycji.
+         */
+        private int count;
+
+        /**
+         * Liczba zapisanych ruchów, łącznie z cofniętymi, które można ponowić.
+         */
+        private int length;
+
+        /**
+         * Rozpoczyna nowy zapis od podanej pozycji.
+         *
+         * @param tiles plansza w pozycji początkowej.
+         * @param score wynik w pozycji początkowej.
+         */
+        void start(Tile[][] tiles, int score) {
+            size = tiles.length;
+            if (initialCells == null || initialCells.length != size * size) {
+                initialCells = new byte[size * size];
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    initialCells[i * size + j] = (byte) BitBoard.toExponent(tiles[i][j].value);
+                }
+            }
+            initialScore = score;
+            count = 0;
+            length = 0;
+        }
+
+        /**
+         * Dopisuje ruch.
+         *
+         * @param move ruch spakowany przez {@link MoveRecord}.
+         */
+        void record(long move) {
+            if (count == moves.length) {
+                moves = Arrays.copyOf(moves, count * 2);
+            }
+            moves[count++] = move;
+            length = count;
+        }
+
+        /**
+         * Usuwa ostatni ruch po jego cofnięciu. Jeśli cofnięto ruch sprzed początku zapisu,
+         * zapis rozpoczyna się od nowa od bieżącej pozycji.
+         *
+         * @param tiles plansza po cofnięciu ruchu.
+         * @param score wynik po cofnięciu ruchu.
+         */
+        void undo(Tile[][] tiles, int score) {
+            if (count > 0) {
+                count--;
+            } else {
+                start(tiles, score);
+            }
+        }
+
+        /**
+         * Przywraca ostatnio cofnięty ruch po jego ponowieniu.
+         *
+         * @param tiles plansza po ponowieniu ruchu.
+         * @param score wynik po ponowieniu ruchu.
+         */
+        void redo(Tile[][] tiles, int score) {
+            if (count < length) {
+                count++;
+            } else {
+                start(tiles, score);
+            }
+        }
+
+        /**
+         * Zwraca liczbę ruchów do bieżącej pozycji.
+         *
+         * @return liczba ruchów.
+         */
+        int getMoveCount() {
+            return count;
+        }
+
+        /**
+         * Tworzy niezmienną kopię dotychczasowego zapisu.
+         *
+         * @return zapis gry.
+         */
+        Replay toReplay() {
+            return new Replay(size, initialCells.clone(), initialScore, Arrays.copyOf(moves, count));
+        }
+    }
+}
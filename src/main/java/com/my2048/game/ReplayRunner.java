@@ -0,0 +1,142 @@
+package com.my2048.game;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Odtwarza zapisane gry ({@link Replay}) bez interfejsu graficznego, z pełną szybkością silnika.
+ * <p>
+ * Każda gra jest odtwarzana ruch po ruchu i porównywana z zapisem, więc uruchomienie na zbiorze
+ * zapisanych gier po zmianie silnika wykrywa regresje, a czas odtwarzania daje przepustowość
+ * silnika na prawdziwych danych. Uruchamiany z wiersza poleceń, np.:
+ * <pre>
+ * java -cp 2048-1.0.jar com.my2048.game.ReplayRunner --repeat 100 replays
+ * </pre>
+ */
+public class ReplayRunner {
+
+    /**
+     * Liczba odtworzeń każdej gry przy pomiarze przepustowości.
+     */
+    private final int repeat;
+
+    /**
+     * Tworzy obiekt odtwarzający gry.
+     *
+     * @param repeat liczba odtworzeń każdej gry, co najmniej 1.
+     */
+    public ReplayRunner(int repeat) {
+        if (repeat < 1) {
+            throw new IllegalArgumentException("Repeat count must be at least 1: " + repeat);
+        }
+        this.repeat = repeat;
+    }
+
+    /**
+     * Odtwarza podane gry i wypisuje niezgodności oraz podsumowanie.
+     *
+     * @param files pliki zapisanych gier.
+     * @param out strumień wyjściowy.
+     * @return liczba gier niezgodnych z zapisem lub nieczytelnych.
+     * @throws IOException jeśli odczyt pliku się nie powiódł.
+     */
+    public int run(List<Path> files, PrintStream out) throws IOException {
+        List<Replay> replays = new ArrayList<>();
+        int failures = 0;
+        for (Path file : files) {
+            Replay replay = Replay.load(file);
+            if (replay == null) {
+                out.printf("%s: damaged or unsupported replay file%n", file);
+                failures++;
+                continue;
+            }
+            int mismatch = replay.verify();
+            if (mismatch >= 0) {
+                out.printf("%s: move %d (%s) differs from the recording%n", file, mismatch + 1,
+                        replay.getDirection(mismatch));
+                failures++;
+            }
+            replays.add(replay);
+        }
+
+        long moves = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            for (Replay replay : replays) {
+                Replay.Playback playback = replay.play();
+                while (playback.hasNext()) {
+                    playback.step();
+                }
+                moves += replay.getMoveCount();
+            }
+        }
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        out.printf("Replayed %d games (%d moves) x%d in %.3f s: %.0f moves/s, %d failed%n",
+                replays.size(), moves / repeat, repeat, seconds, moves / seconds, failures);
+        return failures;
+    }
+
+    /**
+     * Zbiera pliki zapisanych gier: pliki podane wprost oraz pliki {@link Replay#EXTENSION} z podanych katalogów.
+     *
+     * @param paths pliki i katalogi.
+     * @return posortowana lista plików.
+     * @throws IOException jeśli katalogu nie można odczytać.
+     */
+    static List<Path> collect(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> entries = Files.list(path)) {
+                    files.addAll(entries.filter(file -> file.getFileName().toString().endsWith(Replay.EXTENSION))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Punkt wejścia uruchamiany z wiersza poleceń. Obsługiwana opcja: {@code --repeat N};
+     * pozostałe argumenty to pliki lub katalogi (domyślnie {@link Replay#DIRECTORY}).
+     * Kod wyjścia 1 oznacza, że któraś gra jest niezgodna z zapisem.
+     *
+     * @param args argumenty wiersza poleceń.
+     * @throws IOException jeśli odczyt pliku się nie powiódł.
+     */
+    public static void main(String[] args) throws IOException {
+        int repeat = 1;
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--repeat")) {
+                    if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for --repeat");
+                    repeat = Integer.parseInt(args[++i]);
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+                } else {
+                    paths.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ReplayRunner [--repeat N] [FILE|DIRECTORY]...");
+            System.exit(1);
+            return;
+        }
+        if (paths.isEmpty()) paths.add(Paths.get(Replay.DIRECTORY));
+
+        int failures = new ReplayRunner(repeat).run(collect(paths), System.out);
+        if (failures > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,271 @@
+package com.my2048.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Magazyn zapisów gry w jednym pliku mapowanym do pamięci.
+ * <p>
+ * Plik ma stały układ: osobne miejsca na plansze 3x3, 4x4 i 5x5 oraz jedno miejsce na plansze
+ * innego rozmiaru (do {@link #MAX_SIZE}x{@link #MAX_SIZE}). Każde miejsce ma dwie kopie (A i B),
+ * zapisywane na przemian; kopia zawiera numer kolejny, sumę kontrolną CRC32 i stan w formacie
+ * binarnym {@link SavedGame}. Przy odczycie wybierana jest poprawna kopia o wyższym numerze,
+ * więc przerwany zapis jednej kopii nie niszczy poprzedniego stanu.
+ * <p>
+ * Zapis i odczyt to tylko operacje na buforze w pamięci, bez parsowania i wywołań systemowych;
+ * {@link #force()} utrwala zmiany na dysku. Klasa nie jest bezpieczna wątkowo.
+ */
+public class SaveStore implements Closeable {
+
+    /**
+     * Nazwa pliku magazynu.
+     */
+    public static final String FILE_NAME = "gameStates.slots";
+
+    /**
+     * Największy rozmiar planszy, który mieści się w magazynie.
+     */
+    public static final int MAX_SIZE = 8;
+
+    /**
+     * Rozmiary plansz z własnym miejscem w magazynie. Pozostałe rozmiary dzielą ostatnie miejsce.
+     */
+    private static final int[] FIXED_SIZES = {3, 4, 5};
+
+    /**
+     * Liczba miejsc w magazynie.
+     */
+    static final int SLOT_COUNT = FIXED_SIZES.length + 1;
+
+    /**
+     * Rozmiar nagłówka kopii w bajtach: numer kolejny, suma kontrolna i długość danych.
+     */
+    private static final int COPY_HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * Największa długość danych stanu w kopii.
+     */
+    private static final int MAX_PAYLOAD_BYTES = SavedGame.HEADER_BYTES + MAX_SIZE * MAX_SIZE;
+
+    /**
+     * Rozmiar jednej kopii w bajtach.
+     */
+    static final int COPY_BYTES = COPY_HEADER_BYTES + MAX_PAYLOAD_BYTES;
+
+    /**
+     * Rozmiar pliku magazynu w bajtach.
+     */
+    static final int FILE_BYTES = SLOT_COUNT * 2 * COPY_BYTES;
+
+    /**
+     * Zmapowany obszar pliku.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Kanał pliku albo null dla magazynu tylko do odczytu.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Suma kontrolna używana ponownie dla kolejnych kopii.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Tworzy magazyn dla zmapowanego obszaru.
+     *
+     * @param buffer zmapowany obszar pliku.
+     * @param channel kanał pliku albo null.
+     */
+    private SaveStore(ByteBuffer buffer, FileChannel channel) {
+        this.buffer = buffer;
+        this.channel = channel;
+    }
+
+    /**
+     * Otwiera magazyn do odczytu i zapisu, tworząc plik, jeśli nie istnieje.
+     *
+     * @param file plik magazynu.
+     * @return otwarty magazyn.
+     * @throws IOException jeśli pliku nie można otworzyć lub zmapować.
+     */
+    public static SaveStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new SaveStore(channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES), channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Odczytuje stan dla planszy podanego rozmiaru z istniejącego pliku magazynu, bez jego modyfikacji.
+     *
+     * @param file plik magazynu.
+     * @param size rozmiar planszy.
+     * @return wczytany stan albo null, jeśli plik lub miejsce jest puste.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    static SavedGame.Snapshot readExisting(Path file, int size) throws IOException {
+        if (!fits(size) || !Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < FILE_BYTES) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES);
+            return new SaveStore(buffer, null).read(size);
+        }
+    }
+
+    /**
+     * Sprawdza, czy plansza podanego rozmiaru mieści się w magazynie.
+     *
+     * @param size rozmiar planszy.
+     * @return true, jeśli rozmiar jest obsługiwany.
+     */
+    public static boolean fits(int size) {
+        return size >= 1 && size <= MAX_SIZE;
+    }
+
+    /**
+     * Odczytuje stan gry dla planszy podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     * @return wczytany stan albo null, jeśli w miejscu nie ma poprawnego stanu tego rozmiaru.
+     */
+    SavedGame.Snapshot read(int size) {
+        if (!fits(size)) return null;
+        int copy = newestCopy(slot(size));
+        if (copy < 0) return null;
+        return SavedGame.decode(payload(copy), size);
+    }
+
+    /**
+     * Zapisuje stan gry w miejscu dla jego rozmiaru, nadpisując starszą kopię.
+     *
+     * @param game kopia stanu gry.
+     * @param generation numer generacji dziennika ruchów, który będzie kontynuował ten stan.
+     * @throws IllegalArgumentException jeśli plansza nie mieści się w magazynie.
+     */
+    public void write(SavedGame game, long generation) {
+        if (!fits(game.getSize())) {
+            throw new IllegalArgumentException("Board too large for save store: " + game.getSize());
+        }
+        int slot = slot(game.getSize());
+        int newest = newestCopy(slot);
+        int target = newest == 2 * slot ? 2 * slot + 1 : 2 * slot;
+        long sequence = newest < 0 ? 1 : buffer.getLong(newest * COPY_BYTES) + 1;
+
+        ByteBuffer data = game.toBytes(generation);
+        int offset = target * COPY_BYTES;
+        buffer.putLong(offset, sequence);
+        buffer.putInt(offset + Long.BYTES + Integer.BYTES, data.remaining());
+        ByteBuffer region = buffer.duplicate();
+        region.position(offset + COPY_HEADER_BYTES);
+        region.put(data);
+        buffer.putInt(offset + Long.BYTES, checksum(target));
+    }
+
+    /**
+     * Utrwala zmiany w magazynie na dysku.
+     *
+     * @throws IOException jeśli utrwalenie się nie powiodło.
+     */
+    public void force() throws IOException {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Zamyka plik magazynu. Zmapowany obszar jest zwalniany przez odśmiecanie pamięci.
+     *
+     * @throws IOException jeśli zamknięcie się nie powiodło.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+
+    /**
+     * Zwraca numer miejsca dla planszy podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     * @return numer miejsca.
+     */
+    private static int slot(int size) {
+        for (int i = 0; i < FIXED_SIZES.length; i++) {
+            if (FIXED_SIZES[i] == size) return i;
+        }
+        return FIXED_SIZES.length;
+    }
+
+    /**
+     * Wybiera poprawną kopię o wyższym numerze kolejnym.
+     *
+     * @param slot numer miejsca.
+     * @return numer kopii (2 * miejsce lub 2 * miejsce + 1) albo -1, jeśli żadna kopia nie jest poprawna.
+     */
+    private int newestCopy(int slot) {
+        int first = 2 * slot;
+        int second = first + 1;
+        boolean firstValid = isValid(first);
+        boolean secondValid = isValid(second);
+        if (firstValid && secondValid) {
+            return buffer.getLong(second * COPY_BYTES) > buffer.getLong(first * COPY_BYTES) ? second : first;
+        }
+        return firstValid ? first : secondValid ? second : -1;
+    }
+
+    /**
+     * Sprawdza długość i sumę kontrolną kopii.
+     *
+     * @param copy numer kopii.
+     * @return true, jeśli kopia jest kompletna.
+     */
+    private boolean isValid(int copy) {
+        int offset = copy * COPY_BYTES;
+        int length = buffer.getInt(offset + Long.BYTES + Integer.BYTES);
+        return length > 0 && length <= MAX_PAYLOAD_BYTES && buffer.getInt(offset + Long.BYTES) == checksum(copy);
+    }
+
+    /**
+     * Zwraca dane stanu zapisane w kopii.
+     *
+     * @param copy numer kopii.
+     * @return bufor obejmujący dane stanu.
+     */
+    private ByteBuffer payload(int copy) {
+        int offset = copy * COPY_BYTES;
+        int length = buffer.getInt(offset + Long.BYTES + Integer.BYTES);
+        ByteBuffer data = buffer.duplicate();
+        data.position(offset + COPY_HEADER_BYTES).limit(offset + COPY_HEADER_BYTES + length);
+        return data.slice();
+    }
+
+    /**
+     * Wylicza sumę kontrolną kopii: numeru kolejnego, długości i danych stanu.
+     *
+     * @param copy numer kopii.
+     * @return suma kontrolna.
+     */
+    private int checksum(int copy) {
+        int offset = copy * COPY_BYTES;
+        int length = Math.min(Math.max(buffer.getInt(offset + Long.BYTES + Integer.BYTES), 0), MAX_PAYLOAD_BYTES);
+        ByteBuffer region = buffer.duplicate();
+        crc.reset();
+        region.position(offset).limit(offset + Long.BYTES);
+        crc.update(region);
+        region.limit(offset + COPY_HEADER_BYTES + length).position(offset + Long.BYTES + Integer.BYTES);
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,452 @@
+package com.my2048.game;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usługa zapisująca stan gry w tle, poza wątkiem gry ({@link GameLoop}).
+ * <p>
+ * {@link #submit(SavedGame)} tylko zapamiętuje najnowszą kopię stanu dla danego pliku i w razie potrzeby
+ * planuje zapis, więc nigdy nie czeka na dysk. Kolejne kopie zgłoszone przed zapisem zastępują poprzednie
+ * (ich ruchy są łączone), a zapisy są wykonywane przez jeden wątek nie częściej niż raz na podany odstęp czasu.
+ * {@link #flush()} i {@link #close()} zapisują wszystkie oczekujące stany, np. przed wczytaniem gry
+ * i przy zamykaniu programu.
+ * <p>
+ * Jeśli kopia stanu wynika z ostatnio zapisanego stanu przez ruchy przekazane w {@link SavedGame#getMoves()},
+ * ruchy są tylko dopisywane do dziennika {@link MoveJournal}. W pozostałych przypadkach (cofnięcie ruchu,
+ * reset, wczytanie gry) oraz co {@link #SNAPSHOT_INTERVAL} ruchów zapisywany jest pełny stan, a dziennik
+ * jest zakładany od nowa z nowym numerem generacji. Pełne stany trafiają do zmapowanego magazynu
+ * {@link SaveStore} (plansze większe niż {@link SaveStore#MAX_SIZE} - do osobnych plików).
+ */
+public class SaveWriter implements AutoCloseable {
+
+    /**
+     * Domyślny minimalny odstęp między kolejnymi zapisami w milisekundach.
+     */
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = 250;
+
+    /**
+     * Największa liczba ruchów w dzienniku; kolejne ruchy powodują zapis pełnego stanu.
+     */
+    public static final int SNAPSHOT_INTERVAL = 256;
+
+    /**
+     * Katalog, do którego trafiają pliki zapisu.
+     */
+    private final Path directory;
+
+    /**
+     * Minimalny odstęp między kolejnymi zapisami w nanosekundach.
+     */
+    private final long minIntervalNanos;
+
+    /**
+     * Wątek wykonujący zapisy.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Niezapisane stany, według nazwy pliku.
+     */
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Ostatnio zapisane stany i ich dzienniki, według nazwy pliku. Używane tylko w {@link #writePending()}.
+     */
+    private final Map<String, Persisted> persisted = new HashMap<>();
+
+    /**
+     * Magazyn pełnych stanów albo null, jeśli nie został jeszcze otwarty. Używany tylko pod blokadą usługi.
+     */
+    private SaveStore store;
+
+    /**
+     * Flaga ustawiana, gdy zapis jest już zaplanowany.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Liczba zapisów (pełnych stanów i dopisań do dziennika) od utworzenia usługi.
+     */
+    private final AtomicInteger writeCount = new AtomicInteger();
+
+    /**
+     * Liczba zapisanych pełnych stanów od utworzenia usługi.
+     */
+    private final AtomicInteger snapshotCount = new AtomicInteger();
+
+    /**
+     * Czas rozpoczęcia ostatniego zapisu (System.nanoTime()).
+     */
+    private volatile long lastWriteNanos;
+
+    /**
+     * Stan oczekujący na zapis: najnowsza kopia i ruchy od ostatnio zapisanej kopii.
+     */
+    private static final class Pending {
+
+        /**
+         * Najnowsza kopia stanu.
+         */
+        final SavedGame game;
+
+        /**
+         * Ruchy prowadzące do najnowszej kopii albo null, jeśli nie są znane.
+         */
+        final long[] moves;
+
+        /**
+         * Tworzy stan oczekujący na zapis.
+         *
+         * @param game kopia stanu.
+         * @param moves ruchy prowadzące do kopii albo null.
+         */
+        Pending(SavedGame game, long[] moves) {
+            this.game = game;
+            this.moves = moves;
+        }
+
+        /**
+         * Łączy ten stan z kolejnym zgłoszonym stanem.
+         *
+         * @param next kolejny stan.
+         * @return stan z najnowszą kopią i połączonymi ruchami.
+         */
+        Pending then(Pending next) {
+            if (moves == null || next.moves == null) return new Pending(next.game, null);
+            long[] joined = new long[moves.length + next.moves.length];
+            System.arraycopy(moves, 0, joined, 0, moves.length);
+            System.arraycopy(next.moves, 0, joined, moves.length, next.moves.length);
+            return new Pending(next.game, joined);
+        }
+    }
+
+    /**
+     * Stan zapisany na dysku (plik stanu i dziennik) dla jednego pliku zapisu.
+     */
+    private static final class Persisted {
+
+        /**
+         * Plansza odpowiadająca zapisanemu stanowi.
+         */
+        final GridBoard board;
+
+        /**
+         * Plansza pomocnicza do sprawdzania nowych ruchów.
+         */
+        final GridBoard scratch;
+
+        /**
+         * Dziennik ruchów zapisanych po pełnym stanie.
+         */
+        final MoveJournal journal;
+
+        /**
+         * Zapisany wynik.
+         */
+        int score;
+
+        /**
+         * Zapisany najlepszy wynik.
+         */
+        int bestScore;
+
+        /**
+         * Tworzy opis pełnego stanu zapisanego wraz z pustym dziennikiem.
+         *
+         * @param game zapisana kopia stanu.
+         * @param journal dziennik kontynuujący ten stan.
+         */
+        Persisted(SavedGame game, MoveJournal journal) {
+            this.board = new GridBoard(game.getSize());
+            this.scratch = new GridBoard(game.getSize());
+            this.journal = journal;
+            for (int i = 0; i < game.getSize(); i++) {
+                for (int j = 0; j < game.getSize(); j++) {
+                    board.set(i, j, BitBoard.toExponent(game.getValue(i, j)));
+                }
+            }
+            this.score = game.getScore();
+            this.bestScore = game.getBestScore();
+        }
+
+        /**
+         * Tworzy kopię zapisanego stanu.
+         *
+         * @return kopia stanu gry.
+         */
+        SavedGame toSavedGame() {
+            int size = board.size();
+            Tile[][] tiles = new Tile[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    tiles[i][j] = new Tile();
+                }
+            }
+            board.toTiles(tiles);
+            return new SavedGame(tiles, score, bestScore);
+        }
+
+        /**
+         * Wykonuje ruchy na kopii zapisanego stanu i sprawdza, czy prowadzą do podanej kopii.
+         * Jeśli tak, zapisany stan jest przesuwany do tej kopii.
+         *
+         * @param moves ruchy spakowane przez {@link MoveRecord}.
+         * @param game oczekiwany stan po ruchach.
+         * @return true, jeśli ruchy prowadzą do podanego stanu.
+         */
+        boolean advance(long[] moves, SavedGame game) {
+            if (game.getSize() != board.size()) return false;
+            scratch.copyFrom(board);
+            int newScore = score;
+            int newBestScore = bestScore;
+            for (long move : moves) {
+                newScore += MoveRecord.apply(scratch, move);
+                newBestScore = Math.max(newBestScore, newScore);
+            }
+            if (newScore != game.getScore() || newBestScore != game.getBestScore()) return false;
+            for (int i = 0; i < game.getSize(); i++) {
+                for (int j = 0; j < game.getSize(); j++) {
+                    if (BitBoard.toValue(scratch.get(i, j)) != game.getValue(i, j)) return false;
+                }
+            }
+            board.copyFrom(scratch);
+            score = newScore;
+            bestScore = newBestScore;
+            return true;
+        }
+    }
+
+    /**
+     * Tworzy usługę zapisu z domyślnym odstępem między zapisami, zapisującą do bieżącego katalogu.
+     */
+    public SaveWriter() {
+        this(Paths.get(""), DEFAULT_MIN_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Tworzy usługę zapisu.
+     *
+     * @param directory katalog, do którego trafiają pliki zapisu.
+     * @param minIntervalMillis minimalny odstęp między kolejnymi zapisami w milisekundach.
+     */
+    public SaveWriter(Path directory, long minIntervalMillis) {
+        if (minIntervalMillis < 0) {
+            throw new IllegalArgumentException("Save interval must not be negative: " + minIntervalMillis);
+        }
+        this.directory = directory;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.lastWriteNanos = System.nanoTime() - minIntervalNanos;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "save-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Odłożone zapisy nie muszą czekać na swój termin po shutdown() - oczekujące stany zapisuje close().
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+    }
+
+    /**
+     * Zgłasza stan gry do zapisu. Metoda nie blokuje: zapis zostanie wykonany w tle,
+     * a wcześniejszy niezapisany stan tego samego pliku zostanie pominięty.
+     *
+     * @param game kopia stanu gry.
+     */
+    public void submit(SavedGame game) {
+        pending.merge(game.fileName(), new Pending(game, game.getMoves()), Pending::then);
+        if (scheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, lastWriteNanos + minIntervalNanos - System.nanoTime());
+            try {
+                executor.schedule(this::writePending, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Usługa jest zamykana - oczekujący stan zapisze close().
+            }
+        }
+    }
+
+    /**
+     * Zapisuje przebieg gry w tle do katalogu {@link Replay#DIRECTORY}. Metoda nie blokuje.
+     *
+     * @param replay zapis przebiegu gry.
+     */
+    public void saveReplay(Replay replay) {
+        Path file = directory.resolve(Replay.DIRECTORY).resolve(replay.fileName(System.currentTimeMillis()));
+        try {
+            executor.execute(() -> {
+                try {
+                    replay.save(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Usługa jest zamknięta - zapis przebiegu gry jest pomijany.
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie oczekujące stany i czeka na zakończenie zapisu.
+     *
+     * @throws InterruptedException jeśli wątek został przerwany w trakcie oczekiwania.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            executor.submit(this::writePending).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Save writer failed", e.getCause());
+        }
+    }
+
+    /**
+     * Zapisuje oczekujące stany, zamyka dzienniki i zatrzymuje wątek zapisu.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writePending();
+            for (Persisted state : persisted.values()) {
+                closeJournal(state);
+            }
+            persisted.clear();
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                store = null;
+            }
+        }
+    }
+
+    /**
+     * Wczytuje stan gry dla planszy podanego rozmiaru. Oczekujące stany są najpierw zapisywane,
+     * a stan ostatnio zapisany przez tę usługę jest zwracany z pamięci, bez odczytu z dysku.
+     *
+     * @param size rozmiar planszy.
+     * @return stan gry albo null, jeśli zapisu nie ma lub jest uszkodzony.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    public synchronized SavedGame load(int size) throws IOException {
+        writePending();
+        Persisted state = persisted.get(SavedGame.fileName(size));
+        if (state != null) return state.toSavedGame();
+        if (!SaveStore.fits(size)) return SavedGame.loadFile(directory, size);
+        SavedGame.Snapshot snapshot = openStore().read(size);
+        return snapshot != null ? SavedGame.replayJournal(directory, snapshot) : SavedGame.loadFile(directory, size);
+    }
+
+    /**
+     * Zwraca liczbę zapisów (pełnych stanów i dopisań do dziennika) od utworzenia usługi.
+     *
+     * @return liczba zapisów.
+     */
+    public int getWriteCount() {
+        return writeCount.get();
+    }
+
+    /**
+     * Zwraca liczbę zapisanych pełnych stanów od utworzenia usługi.
+     *
+     * @return liczba pełnych zapisów.
+     */
+    public int getSnapshotCount() {
+        return snapshotCount.get();
+    }
+
+    /**
+     * Zapisuje wszystkie oczekujące stany. Wywoływana w wątku zapisu, a przy zamykaniu - w wątku wywołującym {@link #close()}.
+     */
+    private synchronized void writePending() {
+        lastWriteNanos = System.nanoTime();
+        scheduled.set(false);
+        for (String fileName : pending.keySet()) {
+            Pending next = pending.remove(fileName);
+            if (next == null) continue;
+            try {
+                write(fileName, next);
+                writeCount.incrementAndGet();
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeJournal(persisted.remove(fileName));
+            }
+        }
+    }
+
+    /**
+     * Zapisuje jeden stan: dopisuje ruchy do dziennika albo zapisuje pełny stan z nowym dziennikiem.
+     *
+     * @param fileName nazwa pliku stanu.
+     * @param next stan do zapisania.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    private void write(String fileName, Pending next) throws IOException {
+        Persisted state = persisted.get(fileName);
+        if (state != null && next.moves != null
+                && state.journal.recordCount() + next.moves.length <= SNAPSHOT_INTERVAL
+                && state.advance(next.moves, next.game)) {
+            state.journal.append(next.moves);
+            return;
+        }
+
+        closeJournal(persisted.remove(fileName));
+        long generation = ThreadLocalRandom.current().nextLong() | 1;
+        if (SaveStore.fits(next.game.getSize())) {
+            SaveStore saveStore = openStore();
+            saveStore.write(next.game, generation);
+            saveStore.force();
+        } else {
+            next.game.save(directory, generation);
+        }
+        snapshotCount.incrementAndGet();
+        int size = next.game.getSize();
+        MoveJournal journal = MoveJournal.create(directory.resolve(SavedGame.journalFileName(size)), size, generation);
+        persisted.put(fileName, new Persisted(next.game, journal));
+    }
+
+    /**
+     * Zwraca magazyn pełnych stanów, otwierając go przy pierwszym użyciu.
+     *
+     * @return otwarty magazyn.
+     * @throws IOException jeśli magazynu nie można otworzyć.
+     */
+    private SaveStore openStore() throws IOException {
+        if (store == null) {
+            store = SaveStore.open(directory.resolve(SaveStore.FILE_NAME));
+        }
+        return store;
+    }
+
+    /**
+     * Zamyka dziennik zapisanego stanu, ignorując błędy.
+     *
+     * @param state zapisany stan albo null.
+     */
+    private static void closeJournal(Persisted state) {
+        if (state == null) return;
+        try {
+            state.journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.my2048.game;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Niezmienna kopia stanu gry przeznaczona do zapisu na dysk.
+ * <p>
+ * Kopia jest tworzona w wątku gry ({@link GameLoop}) przez {@link Model#toSavedGame()}, a zapisywana może być
+ * w dowolnym innym wątku, bo nie współdzieli kafelków z modelem.
+ * <p>
+ * Stan jest zapisywany w zwartym formacie binarnym (plik {@link #fileName(int)}): nagłówek ze znacznikiem,
+ * wersją formatu, rozmiarem planszy i numerem generacji, wynik, najlepszy wynik oraz wykładniki kafelków,
+ * po jednym bajcie na pole. Plik jest wczytywany jednym odczytem do bufora, bez refleksji.
+ * Format JSON ({@link #exportJson(Path)}) pozostaje dostępny do eksportu, a zapisy JSON z poprzednich
+ * wersji gry są wczytywane, jeśli nie ma pliku binarnego.
+ * <p>
+ * Plik jest zapisywany najpierw do pliku tymczasowego, utrwalany na dysku i dopiero wtedy atomowo
+ * podmieniany, więc przerwanie zapisu nie uszkadza poprzedniego stanu. Ruchy wykonane po zapisie
+ * trafiają do dziennika {@link MoveJournal} o tym samym numerze generacji i są odtwarzane przez
+ * {@link #load(Path, int)}.
+ */
+public class SavedGame {
+
+    /**
+     * Obiekt Gson współdzielony przez wszystkie eksporty (jest bezpieczny wątkowo).
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Nazwa pola JSON z numerem generacji, który łączy plik stanu z dziennikiem ruchów.
+     */
+    private static final String GENERATION = "generation";
+
+    /**
+     * Znacznik początku pliku binarnego ("2048").
+     */
+    private static final int MAGIC = 0x32303438;
+
+    /**
+     * Wersja formatu binarnego.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Rozmiar nagłówka pliku binarnego w bajtach: znacznik, wersja, rozmiar planszy, dwa bajty zarezerwowane,
+     * numer generacji, wynik i najlepszy wynik.
+     */
+    static final int HEADER_BYTES = Integer.BYTES + 4 + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * Wczytany stan: kopia stanu i numer generacji dziennika, który ją kontynuuje.
+     */
+    static final class Snapshot {
+
+        /**
+         * Wczytana kopia stanu.
+         */
+        final SavedGame game;
+
+        /**
+         * Numer generacji dziennika (0 - brak dziennika).
+         */
+        final long generation;
+
+        /**
+         * Tworzy opis wczytanego pliku stanu.
+         *
+         * @param game kopia stanu.
+         * @param generation numer generacji dziennika.
+         */
+        Snapshot(SavedGame game, long generation) {
+            this.game = game;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Kopia kafelków planszy.
+     */
+    private final Tile[][] gameTiles;
+
+    /**
+     * Wynik gry.
+     */
+    private final int score;
+
+    /**
+     * Najlepszy wynik.
+     */
+    private final int bestScore;
+
+    /**
+     * Ruchy prowadzące od poprzedniej kopii stanu do tej albo null, jeśli nie są znane.
+     * Nie trafiają do pliku stanu.
+     */
+    private final transient long[] moves;
+
+    /**
+     * Tworzy kopię stanu gry bez informacji o ruchach. Kafelki są kopiowane.
+     *
+     * @param tiles plansza gry.
+     * @param score wynik gry.
+     * @param bestScore najlepszy wynik.
+     */
+    public SavedGame(Tile[][] tiles, int score, int bestScore) {
+        this(tiles, score, bestScore, null);
+    }
+
+    /**
+     * Tworzy kopię stanu gry. Kafelki są kopiowane.
+     *
+     * @param tiles plansza gry.
+     * @param score wynik gry.
+     * @param bestScore najlepszy wynik.
+     * @param moves ruchy spakowane przez {@link MoveRecord}, prowadzące od poprzedniej kopii stanu do tej,
+     *              albo null, jeśli nie są znane.
+     */
+    SavedGame(Tile[][] tiles, int score, int bestScore, long[] moves) {
+        this.gameTiles = copy(tiles);
+        this.score = score;
+        this.bestScore = bestScore;
+        this.moves = moves;
+    }
+
+    /**
+     * Zwraca nazwę pliku zapisu dla planszy podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     * @return nazwa pliku zapisu.
+     */
+    public static String fileName(int size) {
+        return "gameState" + size + ".bin";
+    }
+
+    /**
+     * Zwraca nazwę pliku zapisu w formacie JSON dla planszy podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     * @return nazwa pliku JSON.
+     */
+    public static String jsonFileName(int size) {
+        return "gameState" + size + ".json";
+    }
+
+    /**
+     * Zwraca nazwę pliku dziennika ruchów dla planszy podanego rozmiaru.
+     *
+     * @param size rozmiar planszy.
+     * @return nazwa pliku dziennika.
+     */
+    public static String journalFileName(int size) {
+        return "gameState" + size + ".journal";
+    }
+
+    /**
+     * Zwraca nazwę pliku, do którego trafi ta kopia.
+     *
+     * @return nazwa pliku zapisu.
+     */
+    public String fileName() {
+        return fileName(getSize());
+    }
+
+    /**
+     * Zwraca rozmiar planszy.
+     *
+     * @return rozmiar planszy.
+     */
+    public int getSize() {
+        return gameTiles.length;
+    }
+
+    /**
+     * Zwraca wartość kafelka.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wartość kafelka.
+     */
+    public int getValue(int row, int col) {
+        return gameTiles[row][col].value;
+    }
+
+    /**
+     * Zwraca wynik gry.
+     *
+     * @return wynik gry.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Zwraca najlepszy wynik.
+     *
+     * @return najlepszy wynik.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Zwraca ruchy prowadzące od poprzedniej kopii stanu do tej.
+     *
+     * @return ruchy spakowane przez {@link MoveRecord} albo null, jeśli nie są znane.
+     */
+    long[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Zwraca nową kopię kafelków planszy.
+     *
+     * @return kopia kafelków.
+     */
+    public Tile[][] toTiles() {
+        return copy(gameTiles);
+    }
+
+    /**
+     * Zapisuje stan gry do pliku {@link #fileName()} w podanym katalogu, bez dziennika ruchów.
+     *
+     * @param directory katalog zapisu.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void save(Path directory) throws IOException {
+        save(directory, 0);
+    }
+
+    /**
+     * Zapisuje stan gry tam, gdzie szuka go {@link #load(Path, int)}, tak jak robi to {@link SaveWriter}:
+     * plansze mieszczące się w magazynie {@link SaveStore} trafiają do niego, a większe - do pliku
+     * {@link #fileName()}. Stan jest zapisywany bez dziennika ruchów.
+     *
+     * @param directory katalog zapisu.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void store(Path directory) throws IOException {
+        if (!SaveStore.fits(getSize())) {
+            save(directory);
+            return;
+        }
+        try (SaveStore store = SaveStore.open(directory.resolve(SaveStore.FILE_NAME))) {
+            store.write(this, 0);
+            store.force();
+        }
+    }
+
+    /**
+     * Zapisuje stan gry w formacie binarnym do pliku {@link #fileName()} w podanym katalogu.
+     * Dane są zapisywane do pliku tymczasowego, utrwalane na dysku i atomowo przenoszone w miejsce
+     * poprzedniego pliku.
+     *
+     * @param directory katalog zapisu.
+     * @param generation numer generacji dziennika ruchów, który będzie kontynuował ten stan (0 - brak dziennika).
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void save(Path directory, long generation) throws IOException {
+        writeAtomically(directory.resolve(fileName()), toBytes(generation));
+    }
+
+    /**
+     * Eksportuje stan gry do pliku w formacie JSON (plansza, wynik i najlepszy wynik).
+     *
+     * @param file plik docelowy.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    public void exportJson(Path file) throws IOException {
+        writeAtomically(file, ByteBuffer.wrap(GSON.toJson(this).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Wczytuje stan gry z pliku w formacie JSON, np. utworzonego przez {@link #exportJson(Path)}.
+     *
+     * @param file plik JSON.
+     * @param size oczekiwany rozmiar planszy.
+     * @return stan gry albo null, jeśli plik nie istnieje lub jest uszkodzony.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    public static SavedGame importJson(Path file, int size) throws IOException {
+        Snapshot snapshot = readJson(file, size);
+        return snapshot == null ? null : snapshot.game;
+    }
+
+    /**
+     * Koduje stan gry w formacie binarnym.
+     *
+     * @param generation numer generacji dziennika ruchów.
+     * @return bufor gotowy do zapisu.
+     */
+    ByteBuffer toBytes(long generation) {
+        int size = getSize();
+        ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + size * size);
+        data.putInt(MAGIC).put((byte) VERSION).put((byte) size).putShort((short) 0)
+                .putLong(generation).putInt(score).putInt(bestScore);
+        for (Tile[] row : gameTiles) {
+            for (Tile tile : row) {
+                data.put((byte) BitBoard.toExponent(tile.value));
+            }
+        }
+        data.flip();
+        return data;
+    }
+
+    /**
+     * Zapisuje dane do pliku tymczasowego, utrwala je na dysku i atomowo przenosi w miejsce pliku docelowego.
+     *
+     * @param target plik docelowy.
+     * @param data dane do zapisania.
+     * @throws IOException jeśli zapis się nie powiódł.
+     */
+    private static void writeAtomically(Path target, ByteBuffer data) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Wczytuje stan gry dla planszy podanego rozmiaru i odtwarza ruchy z dziennika zapisanego po nim.
+     * Stan jest szukany kolejno w magazynie {@link SaveStore}, w pliku binarnym {@link #fileName(int)}
+     * i w zapisie JSON z poprzednich wersji gry.
+     * Uszkodzona końcówka dziennika (np. po przerwanym zapisie) jest pomijana.
+     *
+     * @param directory katalog zapisu.
+     * @param size rozmiar planszy.
+     * @return odtworzony stan gry albo null, jeśli zapisu nie ma lub jest uszkodzony.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    public static SavedGame load(Path directory, int size) throws IOException {
+        Snapshot snapshot = SaveStore.readExisting(directory.resolve(SaveStore.FILE_NAME), size);
+        return snapshot != null ? replayJournal(directory, snapshot) : loadFile(directory, size);
+    }
+
+    /**
+     * Wczytuje stan gry z pliku binarnego {@link #fileName(int)}, a jeśli go nie ma - z zapisu JSON
+     * z poprzednich wersji gry, i odtwarza ruchy z dziennika.
+     *
+     * @param directory katalog zapisu.
+     * @param size rozmiar planszy.
+     * @return odtworzony stan gry albo null, jeśli pliku nie ma lub jest uszkodzony.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    static SavedGame loadFile(Path directory, int size) throws IOException {
+        Path file = directory.resolve(fileName(size));
+        Snapshot snapshot = Files.isRegularFile(file)
+                ? decode(ByteBuffer.wrap(Files.readAllBytes(file)), size)
+                : readJson(directory.resolve(jsonFileName(size)), size);
+        return snapshot == null ? null : replayJournal(directory, snapshot);
+    }
+
+    /**
+     * Odtwarza na wczytanym stanie ruchy z dziennika o tym samym numerze generacji.
+     *
+     * @param directory katalog zapisu.
+     * @param snapshot wczytany stan.
+     * @return stan po odtworzeniu ruchów.
+     * @throws IOException jeśli odczyt dziennika się nie powiódł.
+     */
+    static SavedGame replayJournal(Path directory, Snapshot snapshot) throws IOException {
+        int size = snapshot.game.getSize();
+        long[] moves = snapshot.generation == 0 ? new long[0]
+                : MoveJournal.read(directory.resolve(journalFileName(size)), size, snapshot.generation);
+        if (moves.length == 0) return snapshot.game;
+
+        GridBoard board = new GridBoard(size);
+        board.fromTiles(snapshot.game.gameTiles);
+        int score = snapshot.game.score;
+        int bestScore = snapshot.game.bestScore;
+        for (long move : moves) {
+            score += MoveRecord.apply(board, move);
+            bestScore = Math.max(bestScore, score);
+        }
+        Tile[][] tiles = copy(snapshot.game.gameTiles);
+        board.toTiles(tiles);
+        return new SavedGame(tiles, score, bestScore);
+    }
+
+    /**
+     * Dekoduje stan zapisany w formacie binarnym przez {@link #toBytes(long)}.
+     *
+     * @param data bufor z danymi stanu (dokładnie jeden zapis).
+     * @param size oczekiwany rozmiar planszy.
+     * @return wczytany stan albo null, jeśli dane są uszkodzone lub mają inną wersję albo rozmiar.
+     */
+    static Snapshot decode(ByteBuffer data, int size) {
+        if (data.remaining() != HEADER_BYTES + size * size || data.getInt() != MAGIC
+                || data.get() != VERSION || data.get() != size || data.getShort() != 0) {
+            return null;
+        }
+        long generation = data.getLong();
+        int score = data.getInt();
+        int bestScore = data.getInt();
+        Tile[][] tiles = new Tile[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int exponent = data.get();
+                if (exponent < 0 || exponent > GridBoard.MAX_EXPONENT) return null;
+                Tile tile = new Tile();
+                tile.value = BitBoard.toValue(exponent);
+                tiles[i][j] = tile;
+            }
+        }
+        return new Snapshot(new SavedGame(tiles, score, bestScore), generation);
+    }
+
+    /**
+     * Wczytuje plik JSON zapisany przez {@link #exportJson(Path)} lub przez poprzednie wersje gry.
+     *
+     * @param file plik JSON.
+     * @param size oczekiwany rozmiar planszy.
+     * @return wczytany stan albo null, jeśli plik nie istnieje lub jest uszkodzony.
+     * @throws IOException jeśli odczyt się nie powiódł.
+     */
+    private static Snapshot readJson(Path file, int size) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        SavedGame game;
+        long generation;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            if (!element.isJsonObject()) return null;
+            JsonObject json = element.getAsJsonObject();
+            game = GSON.fromJson(json, SavedGame.class);
+            generation = json.has(GENERATION) ? json.get(GENERATION).getAsLong() : 0;
+        } catch (JsonParseException | IllegalStateException | NumberFormatException | UnsupportedOperationException
+                 | CharacterCodingException e) {
+            return null;
+        }
+        return game.isValid(size) ? new Snapshot(game, generation) : null;
+    }
+
+    /**
+     * Sprawdza, czy wczytana plansza ma podany rozmiar i zawiera tylko poprawne wartości kafelków.
+     *
+     * @param size oczekiwany rozmiar planszy.
+     * @return true, jeśli plansza jest poprawna.
+     */
+    private boolean isValid(int size) {
+        if (gameTiles == null || gameTiles.length != size) return false;
+        for (Tile[] row : gameTiles) {
+            if (row == null || row.length != size) return false;
+            for (Tile tile : row) {
+                if (tile == null || tile.value < 0 || tile.value == 1 || Integer.bitCount(tile.value) > 1
+                        || BitBoard.toExponent(tile.value) > GridBoard.MAX_EXPONENT) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kopiuje planszę kafelków.
+     *
+     * @param tiles plansza.
+     * @return nowa plansza z nowymi kafelkami o tych samych wartościach.
+     */
+    static Tile[][] copy(Tile[][] tiles) {
+        Tile[][] copy = new Tile[tiles.length][tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles.length; j++) {
+                Tile tile = new Tile();
+                tile.value = tiles[i][j].value;
+                copy[i][j] = tile;
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,95 @@
+package com.my2048.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ograniczenie przeszukiwania automatycznego gracza: termin zakończenia i limit liczby odwiedzonych węzłów.
+ * <p>
+ * Jeden obiekt może być współdzielony przez wiele wątków przeszukujących ten sam ruch.
+ * Wątki zgłaszają odwiedzone węzły paczkami przez {@link #check(int)}, a po przekroczeniu
+ * dowolnego limitu lub wywołaniu {@link #stop()} wszystkie kończą pracę przy najbliższym sprawdzeniu.
+ */
+public class SearchLimit {
+
+    /**
+     * Chwila utworzenia obiektu według {@link System#nanoTime()}.
+     */
+    private final long start;
+
+    /**
+     * Limit czasu w nanosekundach, liczony od {@link #start}; {@link Long#MAX_VALUE}, jeśli limit
+     * w milisekundach nie mieści się w nanosekundach. Czas jest porównywany jako różnica odczytów
+     * {@link System#nanoTime()}, więc duży limit nie przepełnia terminu.
+     */
+    private final long timeBudgetNanos;
+
+    /**
+     * Maksymalna liczba węzłów, które można odwiedzić.
+     */
+    private final long nodeBudget;
+
+    /**
+     * Liczba węzłów zgłoszonych do tej pory przez wszystkie wątki.
+     */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Flaga ustawiana po przekroczeniu limitu albo po ręcznym zatrzymaniu.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Tworzy ograniczenie przeszukiwania.
+     *
+     * @param timeBudgetMillis limit czasu w milisekundach, liczony od utworzenia obiektu.
+     * @param nodeBudget maksymalna liczba węzłów albo {@link Long#MAX_VALUE}, aby jej nie ograniczać.
+     * @throws IllegalArgumentException jeśli limit czasu jest ujemny.
+     */
+    public SearchLimit(long timeBudgetMillis, long nodeBudget) {
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudgetMillis);
+        }
+        this.start = System.nanoTime();
+        this.timeBudgetNanos = timeBudgetMillis >= Long.MAX_VALUE / 1_000_000L ? Long.MAX_VALUE : timeBudgetMillis * 1_000_000L;
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * Zgłasza odwiedzone węzły i sprawdza, czy przeszukiwanie powinno zostać przerwane.
+     *
+     * @param visited liczba węzłów odwiedzonych od poprzedniego zgłoszenia.
+     * @return true, jeśli przeszukiwanie należy przerwać.
+     */
+    public boolean check(int visited) {
+        if (stopped) return true;
+        if (nodes.addAndGet(visited) > nodeBudget || System.nanoTime() - start > timeBudgetNanos) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Zatrzymuje przeszukiwanie we wszystkich wątkach.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Sprawdza, czy przeszukiwanie zostało zatrzymane.
+     *
+     * @return true, jeśli limit został przekroczony lub wywołano {@link #stop()}.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Zwraca liczbę węzłów zgłoszonych do tej pory.
+     *
+     * @return liczba odwiedzonych węzłów.
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+}
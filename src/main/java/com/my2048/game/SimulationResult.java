@@ -0,0 +1,176 @@
+package com.my2048.game;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Wyniki serii gier rozegranych przez {@link Simulator}.
+ * Przechowuje wynik, liczbę ruchów i największy kafelek każdej gry oraz czas trwania symulacji.
+ */
+public class SimulationResult {
+
+    /**
+     * Wyniki kolejnych gier.
+     */
+    private final int[] scores;
+
+    /**
+     * Liczby ruchów w kolejnych grach.
+     */
+    private final int[] moves;
+
+    /**
+     * Największe wykładniki osiągnięte w kolejnych grach.
+     */
+    private final int[] maxExponents;
+
+    /**
+     * Czas trwania symulacji w nanosekundach.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Wyniki posortowane rosnąco, używane do wyliczania percentyli.
+     */
+    private final int[] sortedScores;
+
+    /**
+     * Tworzy wyniki symulacji. Tablice nie są kopiowane.
+     *
+     * @param scores wyniki kolejnych gier.
+     * @param moves liczby ruchów w kolejnych grach.
+     * @param maxExponents największe wykładniki osiągnięte w kolejnych grach.
+     * @param elapsedNanos czas trwania symulacji w nanosekundach.
+     */
+    public SimulationResult(int[] scores, int[] moves, int[] maxExponents, long elapsedNanos) {
+        this.scores = scores;
+        this.moves = moves;
+        this.maxExponents = maxExponents;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedScores = scores.clone();
+        Arrays.sort(sortedScores);
+    }
+
+    /**
+     * Zwraca liczbę rozegranych gier.
+     *
+     * @return liczba gier.
+     */
+    public int getGames() {
+        return scores.length;
+    }
+
+    /**
+     * Zwraca łączną liczbę ruchów we wszystkich grach.
+     *
+     * @return liczba ruchów.
+     */
+    public long getTotalMoves() {
+        long total = 0;
+        for (int count : moves) total += count;
+        return total;
+    }
+
+    /**
+     * Zwraca wynik podanej gry.
+     *
+     * @param game numer gry.
+     * @return wynik gry.
+     */
+    public int getScore(int game) {
+        return scores[game];
+    }
+
+    /**
+     * Zwraca największy wykładnik osiągnięty w podanej grze.
+     *
+     * @param game numer gry.
+     * @return największy wykładnik.
+     */
+    public int getMaxExponent(int game) {
+        return maxExponents[game];
+    }
+
+    /**
+     * Zwraca czas trwania symulacji w sekundach.
+     *
+     * @return czas w sekundach.
+     */
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    /**
+     * Zwraca liczbę gier rozegranych na sekundę.
+     *
+     * @return gry na sekundę.
+     */
+    public double getGamesPerSecond() {
+        return getGames() / getElapsedSeconds();
+    }
+
+    /**
+     * Zwraca liczbę ruchów wykonanych na sekundę.
+     *
+     * @return ruchy na sekundę.
+     */
+    public double getMovesPerSecond() {
+        return getTotalMoves() / getElapsedSeconds();
+    }
+
+    /**
+     * Zwraca średni wynik.
+     *
+     * @return średni wynik.
+     */
+    public double getMeanScore() {
+        long sum = 0;
+        for (int score : scores) sum += score;
+        return scores.length == 0 ? 0 : (double) sum / scores.length;
+    }
+
+    /**
+     * Zwraca percentyl wyników (metodą najbliższej pozycji).
+     *
+     * @param percentile percentyl z przedziału 0-100.
+     * @return wynik odpowiadający percentylowi albo 0, jeśli nie rozegrano żadnej gry.
+     */
+    public int getScorePercentile(double percentile) {
+        if (sortedScores.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedScores.length);
+        return sortedScores[Math.max(0, Math.min(sortedScores.length - 1, rank - 1))];
+    }
+
+    /**
+     * Zwraca liczbę gier, w których największym kafelkiem był kafelek o danym wykładniku.
+     *
+     * @return tablica indeksowana wykładnikiem.
+     */
+    public int[] getMaxTileCounts() {
+        int[] counts = new int[GridBoard.MAX_EXPONENT + 1];
+        for (int exponent : maxExponents) counts[exponent]++;
+        return counts;
+    }
+
+    /**
+     * Wypisuje raport z symulacji: przepustowość, percentyle wyników i rozkład największych kafelków.
+     *
+     * @param out strumień wyjściowy.
+     */
+    public void print(PrintStream out) {
+        out.printf("Games:        %d in %.2f s%n", getGames(), getElapsedSeconds());
+        out.printf("Throughput:   %.1f games/s, %.0f moves/s%n", getGamesPerSecond(), getMovesPerSecond());
+        out.printf("Score:        mean %.1f, p50 %d, p90 %d, p99 %d, max %d%n", getMeanScore(),
+                getScorePercentile(50), getScorePercentile(90), getScorePercentile(99), getScorePercentile(100));
+        out.println("Max tile:     tile      games   share  reached");
+        int[] counts = getMaxTileCounts();
+        int reached = getGames();
+        for (int exponent = 0; exponent < counts.length; exponent++) {
+            if (counts[exponent] != 0) {
+                out.printf("              %-8d %6d %6.2f%% %7.2f%%%n", BitBoard.toValue(exponent), counts[exponent],
+                        100.0 * counts[exponent] / getGames(), 100.0 * reached / getGames());
+            }
+            reached -= counts[exponent];
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.my2048.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Symulator rozgrywający wiele pełnych gier bez interfejsu graficznego.
+ * <p>
+ * Gry są rozdzielane między wątki robocze, a każda gra korzysta z własnego generatora liczb losowych
+ * wyprowadzonego z ziarna symulacji i numeru gry, więc wynik nie zależy od liczby wątków.
+ * Symulator jest uruchamiany z wiersza poleceń, np.:
+ * <pre>
+ * java -cp 2048-1.0.jar com.my2048.game.Simulator --games 100000 --policy greedy --size 4
+ * </pre>
+ */
+public class Simulator {
+
+    /**
+     * Strategia wyboru ruchów w symulowanych grach.
+     */
+    public enum Policy {
+        /**
+         * Losowy dozwolony ruch ({@link RandomPlayer}).
+         */
+        RANDOM,
+        /**
+         * Ruch najlepszy w jednym kroku, jak w {@link Model#greedyMove()} ({@link GreedyPlayer}).
+         */
+        GREEDY,
+        /**
+         * Przeszukiwanie expectimax ({@link Expectimax}).
+         */
+        EXPECTIMAX
+    }
+
+    /**
+     * Rozmiar tablicy transpozycji każdego wątku przy strategii EXPECTIMAX, w megabajtach.
+     */
+    private static final int TABLE_MEGABYTES = 16;
+
+    /**
+     * Rozmiar planszy.
+     */
+    private final int size;
+
+    /**
+     * Liczba gier do rozegrania.
+     */
+    private final int games;
+
+    /**
+     * Liczba wątków roboczych.
+     */
+    private final int threads;
+
+    /**
+     * Ziarno symulacji.
+     */
+    private final long seed;
+
+    /**
+     * Strategia wyboru ruchów.
+     */
+    private final Policy policy;
+
+    /**
+     * Głębokość przeszukiwania dla strategii EXPECTIMAX.
+     */
+    private final int depth;
+
+    /**
+     * Limit czasu na ruch w milisekundach dla strategii EXPECTIMAX.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * Tworzy symulator.
+     *
+     * @param size rozmiar planszy.
+     * @param games liczba gier do rozegrania.
+     * @param threads liczba wątków roboczych.
+     * @param seed ziarno symulacji.
+     * @param policy strategia wyboru ruchów.
+     * @param depth głębokość przeszukiwania dla strategii EXPECTIMAX.
+     * @param timeBudgetMillis limit czasu na ruch w milisekundach dla strategii EXPECTIMAX.
+     * @throws IllegalArgumentException jeśli rozmiar planszy jest mniejszy niż 2, liczba gier jest ujemna,
+     * nie ma wątków, limit czasu jest ujemny albo głębokość dla strategii EXPECTIMAX jest mniejsza niż 1.
+     */
+    public Simulator(int size, int games, int threads, long seed, Policy policy, int depth, long timeBudgetMillis) {
+        if (games < 0 || threads < 1) {
+            throw new IllegalArgumentException("Invalid simulation parameters: games=" + games + ", threads=" + threads);
+        }
+        if (size < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2: " + size);
+        }
+        if (policy == Policy.EXPECTIMAX && depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1: " + depth);
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + timeBudgetMillis);
+        }
+        this.size = size;
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.policy = policy;
+        this.depth = depth;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Rozgrywa wszystkie gry i zwraca zebrane wyniki.
+     *
+     * @return wyniki symulacji.
+     * @throws InterruptedException jeśli wątek został przerwany w trakcie oczekiwania na wyniki.
+     */
+    public SimulationResult run() throws InterruptedException {
+        int[] scores = new int[games];
+        int[] moves = new int[games];
+        int[] maxExponents = new int[games];
+        AtomicInteger next = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    Function<SplittableRandom, AutoPlayer> players = playerFactory();
+                    GridBoard board = new GridBoard(size);
+                    for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+                        SplittableRandom random = new SplittableRandom(seed + game * 0x9E3779B97F4A7C15L);
+                        playGame(board, players.apply(random), random, game, scores, moves, maxExponents);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new SimulationResult(scores, moves, maxExponents, System.nanoTime() - start);
+    }
+
+    /**
+     * Tworzy fabrykę graczy dla jednego wątku roboczego. Gracze przeszukujący są tworzeni raz na wątek,
+     * a gracz losowy - raz na grę, aby korzystał z generatora tej gry.
+     *
+     * @return fabryka graczy przyjmująca generator liczb losowych gry.
+     */
+    private Function<SplittableRandom, AutoPlayer> playerFactory() {
+        switch (policy) {
+            case RANDOM:
+                return RandomPlayer::new;
+            case GREEDY:
+                GreedyPlayer greedy = new GreedyPlayer();
+                return random -> greedy;
+            default:
+                Expectimax expectimax = new Expectimax(BoardHeuristic.standard(), depth, timeBudgetMillis,
+                        TranspositionTable.withMemory(TABLE_MEGABYTES));
+                return random -> expectimax;
+        }
+    }
+
+    /**
+     * Rozgrywa jedną grę do końca i zapisuje jej wynik.
+     *
+     * @param board plansza robocza wątku.
+     * @param player gracz wybierający ruchy.
+     * @param random generator liczb losowych gry.
+     * @param game numer gry.
+     * @param scores wyniki gier.
+     * @param moves liczby ruchów w grach.
+     * @param maxExponents największe wykładniki w grach.
+     */
+    private static void playGame(GridBoard board, AutoPlayer player, SplittableRandom random, int game,
+                                 int[] scores, int[] moves, int[] maxExponents) {
+        board.clear();
+        addRandomTile(board, random);
+        addRandomTile(board, random);
+        int score = 0;
+        int count = 0;
+        for (Direction direction = player.bestMove(board); direction != null; direction = player.bestMove(board)) {
+            score += board.move(direction);
+            addRandomTile(board, random);
+            count++;
+        }
+        scores[game] = score;
+        moves[game] = count;
+        maxExponents[game] = board.maxExponent();
+    }
+
+    /**
+     * Dodaje kafelek 2 (z prawdopodobieństwem 90%) lub 4 na losowe puste pole.
+     *
+     * @param board plansza.
+     * @param random generator liczb losowych.
+     */
+    private static void addRandomTile(GridBoard board, SplittableRandom random) {
+        int empty = board.countEmpty();
+        if (empty == 0) return;
+        int index = random.nextInt(empty);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.get(cell) == 0 && index-- == 0) {
+                board.set(cell, random.nextDouble() < Expectimax.TWO_PROBABILITY ? 1 : 2);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Punkt wejścia symulatora uruchamianego z wiersza poleceń.
+     * Obsługiwane opcje: {@code --games N}, {@code --policy random|greedy|expectimax}, {@code --size N},
+     * {@code --threads N}, {@code --seed N}, {@code --depth N}, {@code --time-budget MS}.
+     *
+     * @param args argumenty wiersza poleceń.
+     * @throws InterruptedException jeśli wątek został przerwany w trakcie symulacji.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = 1000;
+        int size = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        Policy policy = Policy.GREEDY;
+        int depth = 2;
+        long timeBudget = 1000;
+        Simulator simulator;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games": games = Integer.parseInt(value); break;
+                    case "--size": size = Integer.parseInt(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--policy": policy = Policy.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                    case "--depth": depth = Integer.parseInt(value); break;
+                    case "--time-budget": timeBudget = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            simulator = new Simulator(size, games, threads, seed, policy, depth, timeBudget);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: Simulator [--games N] [--policy random|greedy|expectimax] [--size N]"
+                    + " [--threads N] [--seed N] [--depth N] [--time-budget MS]");
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf("Simulating %d games of %dx%d with policy %s on %d threads (seed %d)%n",
+                games, size, size, policy.name().toLowerCase(Locale.ROOT), threads, seed);
+        simulator.run().print(System.out);
+    }
+}
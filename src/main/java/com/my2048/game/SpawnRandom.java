@@ -0,0 +1,90 @@
+package com.my2048.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Źródło liczb losowych wybierające pole i wartość nowych kafelków.
+ * <p>
+ * Domyślne źródło ({@link #threadLocal()}) korzysta z generatora przypisanego do bieżącego wątku,
+ * więc równoległe gry (np. w testach wydajności) nie konkurują o jeden wspólny generator.
+ * Źródło z ziarnem ({@link #seeded(long)}) daje za każdym razem ten sam przebieg gry,
+ * co pozwala powtarzać gry w testach i pomiarach.
+ */
+public interface SpawnRandom {
+
+    /**
+     * Losuje liczbę całkowitą z przedziału [0, bound).
+     *
+     * @param bound górna granica (wyłączna), dodatnia.
+     * @return wylosowana liczba.
+     */
+    int nextInt(int bound);
+
+    /**
+     * Losuje liczbę z przedziału [0, 1).
+     *
+     * @return wylosowana liczba.
+     */
+    double nextDouble();
+
+    /**
+     * Losuje wykładnik nowego kafelka: 1 (kafelek 2) z prawdopodobieństwem {@link Expectimax#TWO_PROBABILITY},
+     * w przeciwnym razie 2 (kafelek 4).
+     *
+     * @return wykładnik nowego kafelka.
+     */
+    default int nextExponent() {
+        return nextDouble() < Expectimax.TWO_PROBABILITY ? 1 : 2;
+    }
+
+    /**
+     * Zwraca źródło korzystające z generatora bieżącego wątku ({@link ThreadLocalRandom}).
+     *
+     * @return źródło bez ziarna.
+     */
+    static SpawnRandom threadLocal() {
+        return new SpawnRandom() {
+            @Override
+            public int nextInt(int bound) {
+                return ThreadLocalRandom.current().nextInt(bound);
+            }
+
+            @Override
+            public double nextDouble() {
+                return ThreadLocalRandom.current().nextDouble();
+            }
+        };
+    }
+
+    /**
+     * Tworzy źródło o podanym ziarnie. Źródło nie jest bezpieczne wątkowo.
+     *
+     * @param seed ziarno.
+     * @return nowe źródło.
+     */
+    static SpawnRandom seeded(long seed) {
+        return of(new SplittableRandom(seed));
+    }
+
+    /**
+     * Tworzy źródło korzystające z podanego generatora. Źródło nie jest bezpieczne wątkowo.
+     *
+     * @param random generator.
+     * @return nowe źródło.
+     */
+    static SpawnRandom of(SplittableRandom random) {
+        return new SpawnRandom() {
+            @Override
+            public int nextInt(int bound) {
+                return random.nextInt(bound);
+            }
+
+            @Override
+            public double nextDouble() {
+                return random.nextDouble();
+            }
+        };
+    }
+}
+
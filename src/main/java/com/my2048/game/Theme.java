@@ -0,0 +1,231 @@
+package com.my2048.game;
+
+import java.awt.*;
+
+/**
+ * Kolory, czcionki i wymiary napisów używane przez {@link View}, tworzone raz zamiast przy każdym rysowaniu.
+ * <p>
+ * Kolory i czcionki są stałymi współdzielonymi przez wszystkie widoki. Kolory kafelków są
+ * wyliczone dla każdego wykładnika, a napisy kafelków i ich wymiary są mierzone przy pierwszym
+ * rysowaniu danej wartości i zapamiętywane w obiekcie motywu, więc rysowanie klatki nie tworzy
+ * nowych obiektów. Obiekt motywu jest używany tylko w wątku rysowania.
+ */
+final class Theme {
+
+    /**
+     * Nazwa czcionki używanej w grze.
+     */
+    static final String FONT_NAME = "Arial";
+
+    /**
+     * Kolor tła przycisków, pól wyniku i pustych pól.
+     */
+    static final Color PANEL = new Color(0xcd, 0xc1, 0xb4, 128);
+
+    /**
+     * Kolor napisów na tle planszy.
+     */
+    static final Color TEXT = new Color(0xFFFFFF);
+
+    /**
+     * Kolor ciemny: napisy na jasnych kafelkach i tło kafelków bez własnego koloru.
+     */
+    static final Color DARK = new Color(0x000000);
+
+    /**
+     * Kolor przyciemnienia planszy po wygranej lub przegranej.
+     */
+    static final Color OVERLAY = new Color(0, 0, 0, 127);
+
+    /**
+     * Kolor początkowy gradientu tła.
+     */
+    static final Color BACKGROUND_START = Color.BLUE;
+
+    /**
+     * Kolor końcowy gradientu tła.
+     */
+    static final Color BACKGROUND_END = Color.MAGENTA;
+
+    /**
+     * Czcionka tytułu gry.
+     */
+    static final Font TITLE = new Font(FONT_NAME, Font.BOLD, 50);
+
+    /**
+     * Czcionka tytułu w menu.
+     */
+    static final Font MENU_TITLE = new Font(FONT_NAME, Font.BOLD, 70);
+
+    /**
+     * Czcionka podtytułu w menu.
+     */
+    static final Font MENU_SUBTITLE = new Font(FONT_NAME, Font.BOLD, 20);
+
+    /**
+     * Czcionka przycisków wyboru rozmiaru planszy.
+     */
+    static final Font MENU_OPTION = new Font(FONT_NAME, Font.PLAIN, 30);
+
+    /**
+     * Czcionka przycisku menu.
+     */
+    static final Font SMALL_BUTTON = new Font(FONT_NAME, Font.BOLD, 12);
+
+    /**
+     * Czcionka wyników i podpowiedzi na ekranach końca gry.
+     */
+    static final Font SCORE = new Font(FONT_NAME, Font.BOLD, 24);
+
+    /**
+     * Czcionka opisu klawiszy.
+     */
+    static final Font HINT = new Font(FONT_NAME, Font.PLAIN, 14);
+
+    /**
+     * Czcionka komunikatów o wygranej i przegranej.
+     */
+    static final Font MESSAGE = new Font(FONT_NAME, Font.BOLD, 48);
+
+    /**
+     * Czcionki kafelków: dla wartości jedno- i dwucyfrowych, trzycyfrowych i dłuższych.
+     */
+    private static final Font[] TILE_FONTS = {
+            new Font(FONT_NAME, Font.BOLD, 36),
+            new Font(FONT_NAME, Font.BOLD, 32),
+            new Font(FONT_NAME, Font.BOLD, 24)
+    };
+
+    /**
+     * Kolory tła kafelków dla wykładników od 0 do {@link GridBoard#MAX_EXPONENT}.
+     */
+    private static final Color[] TILE_COLORS = new Color[GridBoard.MAX_EXPONENT + 1];
+
+    /**
+     * Kolory napisów kafelków dla wykładników od 0 do {@link GridBoard#MAX_EXPONENT}.
+     */
+    private static final Color[] FONT_COLORS = new Color[GridBoard.MAX_EXPONENT + 1];
+
+    static {
+        int[] rgb = {0xE0FFFF, 0xAFEEEE, 0x48D1CC, 0x0B5FE6, 0x1914A6, 0x8A2BE2, 0x9400D3, 0x8827A8,
+                0x9E0849, 0x8B0000, 0xDE0235, 0xC2105F, 0xBD0F5D, 0x831BA8};
+        TILE_COLORS[0] = PANEL;
+        for (int exponent = 1; exponent < TILE_COLORS.length; exponent++) {
+            TILE_COLORS[exponent] = exponent <= rgb.length ? new Color(rgb[exponent - 1]) : DARK;
+        }
+        for (int exponent = 0; exponent < FONT_COLORS.length; exponent++) {
+            FONT_COLORS[exponent] = exponent < 4 ? DARK : TEXT;
+        }
+    }
+
+    /**
+     * Komponent, którego metryki czcionek są używane do mierzenia napisów.
+     */
+    private final Component component;
+
+    /**
+     * Napisy kafelków dla każdego wykładnika, tworzone przy pierwszym użyciu.
+     */
+    private final String[] labels = new String[GridBoard.MAX_EXPONENT + 1];
+
+    /**
+     * Szerokości napisów kafelków dla każdego wykładnika.
+     */
+    private final int[] labelWidths = new int[GridBoard.MAX_EXPONENT + 1];
+
+    /**
+     * Wysokości napisów kafelków (odległość od linii bazowej do góry) dla każdego wykładnika.
+     */
+    private final int[] labelHeights = new int[GridBoard.MAX_EXPONENT + 1];
+
+    /**
+     * Tworzy motyw dla podanego komponentu.
+     *
+     * @param component komponent, na którym rysowane są kafelki.
+     */
+    Theme(Component component) {
+        this.component = component;
+    }
+
+    /**
+     * Zwraca kolor tła kafelka.
+     *
+     * @param exponent wykładnik kafelka (0 dla pustego pola).
+     * @return kolor tła.
+     */
+    static Color tileColor(int exponent) {
+        return TILE_COLORS[exponent];
+    }
+
+    /**
+     * Zwraca kolor napisu kafelka.
+     *
+     * @param exponent wykładnik kafelka (0 dla pustego pola).
+     * @return kolor napisu.
+     */
+    static Color fontColor(int exponent) {
+        return FONT_COLORS[exponent];
+    }
+
+    /**
+     * Zwraca czcionkę napisu kafelka, mniejszą dla dłuższych liczb.
+     *
+     * @param exponent wykładnik kafelka.
+     * @return czcionka.
+     */
+    static Font tileFont(int exponent) {
+        int value = BitBoard.toValue(exponent);
+        return TILE_FONTS[value < 100 ? 0 : value < 1000 ? 1 : 2];
+    }
+
+    /**
+     * Zwraca napis kafelka.
+     *
+     * @param exponent wykładnik kafelka.
+     * @param g kontekst graficzny, w którym napis będzie rysowany.
+     * @return napis kafelka.
+     */
+    String label(int exponent, Graphics g) {
+        measure(exponent, g);
+        return labels[exponent];
+    }
+
+    /**
+     * Zwraca szerokość napisu kafelka w czcionce {@link #tileFont(int)}.
+     *
+     * @param exponent wykładnik kafelka.
+     * @param g kontekst graficzny, w którym napis będzie rysowany.
+     * @return szerokość w pikselach.
+     */
+    int labelWidth(int exponent, Graphics g) {
+        measure(exponent, g);
+        return labelWidths[exponent];
+    }
+
+    /**
+     * Zwraca wysokość napisu kafelka nad linią bazową w czcionce {@link #tileFont(int)}.
+     *
+     * @param exponent wykładnik kafelka.
+     * @param g kontekst graficzny, w którym napis będzie rysowany.
+     * @return wysokość w pikselach.
+     */
+    int labelHeight(int exponent, Graphics g) {
+        measure(exponent, g);
+        return labelHeights[exponent];
+    }
+
+    /**
+     * Mierzy napis kafelka przy pierwszym użyciu danego wykładnika.
+     *
+     * @param exponent wykładnik kafelka.
+     * @param g kontekst graficzny, w którym napis będzie rysowany.
+     */
+    private void measure(int exponent, Graphics g) {
+        if (labels[exponent] != null) return;
+        String label = String.valueOf(BitBoard.toValue(exponent));
+        FontMetrics metrics = component.getFontMetrics(tileFont(exponent));
+        labelWidths[exponent] = metrics.stringWidth(label);
+        labelHeights[exponent] = -(int) metrics.getLineMetrics(label, g).getBaselineOffsets()[2];
+        labels[exponent] = label;
+    }
+}
@@ -0,0 +1,124 @@
+package com.my2048.game;
+
+/**
+ * Zegar animacji ruchu: najpierw kafelki przesuwają się na nowe pola, potem kafelki
+ * z połączenia "pulsują", a nowy kafelek się pojawia.
+ * <p>
+ * Czas animacji płynie stałymi krokami niezależnie od tego, jak często wywoływane jest
+ * {@link #tick(long)}, więc animacja wygląda tak samo przy każdej częstotliwości odświeżania ekranu,
+ * a opóźniona klatka nadrabia zaległe kroki zamiast spowalniać animację. Nowy ruch w trakcie
+ * animacji zastępuje ją od razu (poprzednia animacja jest przewijana do końca), więc animacja
+ * nigdy nie opóźnia reakcji na klawisze. Obiekt jest używany tylko w wątku rysowania.
+ */
+final class TileAnimator {
+
+    /**
+     * Długość kroku czasu animacji w nanosekundach.
+     */
+    static final long STEP_NANOS = 4_000_000L;
+
+    /**
+     * Czas przesuwania kafelków w nanosekundach.
+     */
+    static final long SLIDE_NANOS = 100_000_000L;
+
+    /**
+     * Czas pulsowania połączonych kafelków i pojawiania się nowego kafelka w nanosekundach.
+     */
+    static final long POP_NANOS = 100_000_000L;
+
+    /**
+     * Animowane przejścia albo null, jeśli nic nie jest animowane.
+     */
+    private MoveTransitions transitions;
+
+    /**
+     * Czas animacji, wielokrotność {@link #STEP_NANOS}.
+     */
+    private long time;
+
+    /**
+     * Czas, który upłynął, a nie został jeszcze doliczony do {@link #time}.
+     */
+    private long accumulator;
+
+    /**
+     * Czas ostatniego wywołania {@link #tick(long)}.
+     */
+    private long lastTick;
+
+    /**
+     * Rozpoczyna animację ruchu, przerywając poprzednią.
+     *
+     * @param transitions przejścia ruchu.
+     * @param now bieżący czas w nanosekundach ({@link System#nanoTime()}).
+     */
+    void start(MoveTransitions transitions, long now) {
+        this.transitions = transitions;
+        time = 0;
+        accumulator = 0;
+        lastTick = now;
+    }
+
+    /**
+     * Przesuwa czas animacji o pełne kroki, które upłynęły od poprzedniego wywołania.
+     *
+     * @param now bieżący czas w nanosekundach.
+     * @return true, jeśli animacja trwa dalej.
+     */
+    boolean tick(long now) {
+        if (transitions == null) return false;
+        accumulator += now - lastTick;
+        lastTick = now;
+        while (accumulator >= STEP_NANOS && time < SLIDE_NANOS + POP_NANOS) {
+            time += STEP_NANOS;
+            accumulator -= STEP_NANOS;
+        }
+        if (time >= SLIDE_NANOS + POP_NANOS) finish();
+        return isRunning();
+    }
+
+    /**
+     * Kończy animację natychmiast.
+     */
+    void finish() {
+        transitions = null;
+    }
+
+    /**
+     * Sprawdza, czy animacja trwa.
+     *
+     * @return true, jeśli animacja trwa.
+     */
+    boolean isRunning() {
+        return transitions != null;
+    }
+
+    /**
+     * Zwraca animowane przejścia.
+     *
+     * @return przejścia albo null, jeśli nic nie jest animowane.
+     */
+    MoveTransitions getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * Zwraca postęp przesuwania kafelków, spowalniający pod koniec.
+     *
+     * @return wartość od 0 do 1.
+     */
+    double slideProgress() {
+        double t = Math.min(1.0, (double) time / SLIDE_NANOS);
+        return 1 - (1 - t) * (1 - t);
+    }
+
+    /**
+     * Zwraca postęp pulsowania i pojawiania się kafelków.
+     *
+     * @return wartość od 0 do 1 (0 w trakcie przesuwania).
+     */
+    double popProgress() {
+        return Math.max(0.0, Math.min(1.0, (double) (time - SLIDE_NANOS) / POP_NANOS));
+    }
+}
@@ -0,0 +1,122 @@
+package com.my2048.game;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Narysowane wcześniej obrazy kafelków, dzięki którym rysowanie kafelka jest jednym skopiowaniem obrazu.
+ * <p>
+ * Obraz kafelka jest tworzony przy pierwszym rysowaniu danego wykładnika w danym rozmiarze kafelka
+ * i zapamiętywany, więc przełączanie między planszami 3x3, 4x4 i 5x5 (lub innym rozmiarem kafelka)
+ * nie wymaga ponownego rysowania. Obrazy mają rozdzielczość ekranu, na którym są kopiowane; po zmianie
+ * skali ekranu lub wywołaniu {@link #invalidate()} są tworzone od nowa. Obiekt jest używany tylko
+ * w wątku rysowania.
+ */
+final class TileSprites {
+
+    /**
+     * Promień zaokrąglenia rogów kafelka.
+     */
+    private static final int ARC = 8;
+
+    /**
+     * Motyw, z którego pochodzą kolory, czcionki i wymiary napisów.
+     */
+    private final Theme theme;
+
+    /**
+     * Komponent, którego konfiguracja graficzna jest używana do tworzenia obrazów.
+     */
+    private final Component component;
+
+    /**
+     * Obrazy kafelków dla każdego rozmiaru kafelka, indeksowane wykładnikiem.
+     */
+    private final Map<Integer, BufferedImage[]> sprites = new HashMap<>();
+
+    /**
+     * Skala pozioma ekranu, dla której utworzono obrazy.
+     */
+    private double scaleX = 1;
+
+    /**
+     * Skala pionowa ekranu, dla której utworzono obrazy.
+     */
+    private double scaleY = 1;
+
+    /**
+     * Tworzy pusty zbiór obrazów kafelków.
+     *
+     * @param theme motyw kafelków.
+     * @param component komponent, na którym kafelki są rysowane.
+     */
+    TileSprites(Theme theme, Component component) {
+        this.theme = theme;
+        this.component = component;
+    }
+
+    /**
+     * Zwraca obraz kafelka, tworząc go przy pierwszym użyciu.
+     *
+     * @param exponent wykładnik kafelka (0 dla pustego pola).
+     * @param tileSize rozmiar kafelka w pikselach.
+     * @param target kontekst graficzny, do którego obraz będzie kopiowany.
+     * @return obraz kafelka, który należy narysować w kwadracie o boku {@code tileSize}.
+     */
+    BufferedImage sprite(int exponent, int tileSize, Graphics2D target) {
+        AffineTransform transform = target.getTransform();
+        if (transform.getScaleX() != scaleX || transform.getScaleY() != scaleY) {
+            sprites.clear();
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+        }
+        BufferedImage[] images = sprites.computeIfAbsent(tileSize, size -> new BufferedImage[GridBoard.MAX_EXPONENT + 1]);
+        if (images[exponent] == null) {
+            images[exponent] = render(exponent, tileSize);
+        }
+        return images[exponent];
+    }
+
+    /**
+     * Usuwa wszystkie obrazy, np. po zmianie ekranu lub kolorów.
+     */
+    void invalidate() {
+        sprites.clear();
+    }
+
+    /**
+     * Rysuje obraz kafelka.
+     *
+     * @param exponent wykładnik kafelka.
+     * @param tileSize rozmiar kafelka w pikselach.
+     * @return nowy obraz kafelka.
+     */
+    private BufferedImage render(int exponent, int tileSize) {
+        int width = (int) Math.ceil(tileSize * scaleX);
+        int height = (int) Math.ceil(tileSize * scaleY);
+        GraphicsConfiguration configuration = component.getGraphicsConfiguration();
+        BufferedImage image = configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(scaleX, scaleY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(Theme.tileColor(exponent));
+            g.fillRoundRect(0, 0, tileSize, tileSize, ARC, ARC);
+            if (exponent == 0) return image;
+
+            g.setColor(Theme.fontColor(exponent));
+            g.setFont(Theme.tileFont(exponent));
+            int w = theme.labelWidth(exponent, g);
+            int h = theme.labelHeight(exponent, g);
+            g.drawString(theme.label(exponent, g), (tileSize - w) / 2, tileSize - (tileSize - h) / 2 - 2);
+            return image;
+        } finally {
+            g.dispose();
+        }
+    }
+}
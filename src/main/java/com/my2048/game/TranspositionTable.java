@@ -0,0 +1,222 @@
+package com.my2048.game;
+
+import java.util.Arrays;
+
+/**
+ * Tablica transpozycji dla przeszukiwania automatycznego gracza.
+ * <p>
+ * Tablica ma stały rozmiar (potęga dwójki) i używa adresowania otwartego: wpis dla danego
+ * klucza może trafić do jednego z {@link #BUCKET_SIZE} kolejnych pól, licząc od pola wskazanego przez klucz.
+ * Każdy wpis przechowuje klucz planszy, głębokość przeszukiwania, wartość i najlepszy ruch.
+ * Dane trzymane są w równoległych tablicach typów prostych, więc zapis i odczyt nie alokują pamięci,
+ * a zajętość pamięci jest stała przez cały czas działania.
+ * <p>
+ * Gdy wszystkie pola kubełka są zajęte, zastępowany jest wpis z najstarszego przeszukiwania,
+ * a spośród wpisów z tego samego przeszukiwania - wpis o najmniejszej głębokości.
+ * Klasa nie jest bezpieczna wątkowo.
+ */
+public class TranspositionTable {
+
+    /**
+     * Liczba kolejnych pól sprawdzanych dla jednego klucza.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * Wartość zwracana przez {@link #find(long)}, gdy wpis nie istnieje.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Brak najlepszego ruchu we wpisie.
+     */
+    public static final int NO_MOVE = 7;
+
+    /**
+     * Liczba bajtów zajmowanych przez jeden wpis.
+     */
+    public static final int ENTRY_BYTES = Long.BYTES + Double.BYTES + Integer.BYTES;
+
+    /**
+     * Klucze plansz.
+     */
+    private final long[] keys;
+
+    /**
+     * Wartości przechowywane we wpisach.
+     */
+    private final double[] values;
+
+    /**
+     * Spakowane dane wpisu: bity 0-7 - głębokość + 1 (0 oznacza puste pole),
+     * bity 8-10 - najlepszy ruch, bity 16-23 - numer przeszukiwania (wiek).
+     */
+    private final int[] meta;
+
+    /**
+     * Maska indeksu w tablicy.
+     */
+    private final int mask;
+
+    /**
+     * Numer bieżącego przeszukiwania, używany do określania wieku wpisów.
+     */
+    private int age;
+
+    /**
+     * Tworzy tablicę transpozycji o pojemności co najmniej podanej liczby wpisów
+     * (zaokrąglonej w górę do potęgi dwójki).
+     *
+     * @param capacity minimalna liczba wpisów.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < BUCKET_SIZE || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid transposition table capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        keys = new long[size];
+        values = new double[size];
+        meta = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Tworzy tablicę transpozycji mieszczącą się w podanej liczbie megabajtów.
+     *
+     * @param megabytes limit pamięci w megabajtach.
+     * @return tablica transpozycji.
+     */
+    public static TranspositionTable withMemory(int megabytes) {
+        long entries = (long) megabytes * 1024 * 1024 / ENTRY_BYTES;
+        return new TranspositionTable(Integer.highestOneBit((int) Math.min(entries, 1 << 30)));
+    }
+
+    /**
+     * Zwraca liczbę wpisów, które mieści tablica.
+     *
+     * @return pojemność tablicy.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Rozpoczyna nowe przeszukiwanie. Wpisy z wcześniejszych przeszukiwań pozostają dostępne,
+     * ale są zastępowane w pierwszej kolejności.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Usuwa wszystkie wpisy.
+     */
+    public void clear() {
+        Arrays.fill(meta, 0);
+    }
+
+    /**
+     * Wyszukuje wpis dla podanego klucza.
+     *
+     * @param key klucz planszy.
+     * @return indeks wpisu albo {@link #NOT_FOUND}.
+     */
+    public int find(long key) {
+        int start = index(key);
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            int slot = (start + i) & mask;
+            if (meta[slot] != 0 && keys[slot] == key) return slot;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Zwraca głębokość zapisaną we wpisie.
+     *
+     * @param slot indeks wpisu zwrócony przez {@link #find(long)}.
+     * @return głębokość przeszukiwania.
+     */
+    public int depth(int slot) {
+        return (meta[slot] & 0xFF) - 1;
+    }
+
+    /**
+     * Zwraca wartość zapisaną we wpisie.
+     *
+     * @param slot indeks wpisu zwrócony przez {@link #find(long)}.
+     * @return wartość.
+     */
+    public double value(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Zwraca najlepszy ruch zapisany we wpisie.
+     *
+     * @param slot indeks wpisu zwrócony przez {@link #find(long)}.
+     * @return numer porządkowy kierunku albo {@link #NO_MOVE}.
+     */
+    public int bestMove(int slot) {
+        return (meta[slot] >>> 8) & 0x7;
+    }
+
+    /**
+     * Zapisuje wpis. Istniejący wpis dla tego samego klucza jest nadpisywany, jeśli nowa głębokość
+     * jest nie mniejsza albo wpis pochodzi z wcześniejszego przeszukiwania.
+     *
+     * @param key klucz planszy.
+     * @param depth głębokość przeszukiwania (0-254).
+     * @param value wartość.
+     * @param bestMove numer porządkowy najlepszego kierunku albo {@link #NO_MOVE}.
+     */
+    public void store(long key, int depth, double value, int bestMove) {
+        int start = index(key);
+        int victim = -1;
+        int victimScore = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            int slot = (start + i) & mask;
+            int entry = meta[slot];
+            if (entry == 0) {
+                if (victim < 0 || victimScore > Integer.MIN_VALUE) {
+                    victim = slot;
+                    victimScore = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if (keys[slot] == key) {
+                if (depth < depth(slot) && entryAge(entry) == age) return;
+                victim = slot;
+                break;
+            }
+            // Starsze wpisy i płytsze wpisy są zastępowane w pierwszej kolejności.
+            int score = (entry & 0xFF) - 256 * ((age - entryAge(entry)) & 0xFF);
+            if (score < victimScore) {
+                victim = slot;
+                victimScore = score;
+            }
+        }
+        keys[victim] = key;
+        values[victim] = value;
+        meta[victim] = (depth + 1) | (bestMove & 0x7) << 8 | age << 16;
+    }
+
+    /**
+     * Zwraca numer przeszukiwania, w którym zapisano wpis.
+     *
+     * @param entry spakowane dane wpisu.
+     * @return numer przeszukiwania.
+     */
+    private static int entryAge(int entry) {
+        return (entry >>> 16) & 0xFF;
+    }
+
+    /**
+     * Wylicza indeks początku kubełka dla klucza.
+     *
+     * @param key klucz planszy.
+     * @return indeks w tablicy.
+     */
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
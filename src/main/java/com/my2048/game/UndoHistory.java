@@ -0,0 +1,290 @@
+package com.my2048.game;
+
+/**
+ * Ograniczona historia stanów gry używana do cofania ruchów.
+ * <p>
+ * Stany są przechowywane w buforze cyklicznym o stałej pojemności: plansza jako wykładniki kafelków
+ * w jednej tablicy bajtów, a wynik w tablicy liczb całkowitych. Zapis i odczyt stanu nie alokują pamięci,
+ * a po zapełnieniu bufora najstarszy stan jest nadpisywany, więc zajętość pamięci nie rośnie
+ * nawet w bardzo długiej grze. Bufor jest przydzielany przy pierwszym zapisie i ponownie tylko
+ * przy zmianie rozmiaru planszy (historia jest wtedy czyszczona).
+ * <p>
+ * Cofnięcie ruchu zamienia miejscami bieżący stan z ostatnim zapisanym, więc cofnięte stany
+ * pozostają w buforze za pozycją zapisu i mogą zostać ponowione, dopóki nie zostanie zapisany nowy stan.
+ * Klasa nie jest bezpieczna wątkowo.
+ */
+public class UndoHistory {
+
+    /**
+     * Maksymalna liczba przechowywanych stanów.
+     */
+    private final int capacity;
+
+    /**
+     * Rozmiar planszy przechowywanych stanów albo 0, jeśli bufor nie został jeszcze przydzielony.
+     */
+    private int size;
+
+    /**
+     * Liczba pól planszy.
+     */
+    private int cellCount;
+
+    /**
+     * Wykładniki kafelków kolejnych stanów, po {@link #cellCount} bajtów na stan.
+     */
+    private byte[] cells = new byte[0];
+
+    /**
+     * Wyniki kolejnych stanów.
+     */
+    private final int[] scores;
+
+    /**
+     * Indeks pozycji, na której zostanie zapisany następny stan.
+     */
+    private int head;
+
+    /**
+     * Liczba przechowywanych stanów.
+     */
+    private int count;
+
+    /**
+     * Liczba cofniętych stanów, które można ponowić.
+     */
+    private int redoCount;
+
+    /**
+     * Tworzy historię o podanej pojemności.
+     *
+     * @param capacity maksymalna liczba przechowywanych stanów, co najmniej 1.
+     */
+    public UndoHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Undo history capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.scores = new int[capacity];
+    }
+
+    /**
+     * Zwraca maksymalną liczbę przechowywanych stanów.
+     *
+     * @return pojemność historii.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Zwraca rozmiar planszy przechowywanych stanów.
+     *
+     * @return rozmiar planszy albo 0, jeśli nie zapisano jeszcze żadnego stanu.
+     */
+    public int boardSize() {
+        return size;
+    }
+
+    /**
+     * Zwraca liczbę przechowywanych stanów.
+     *
+     * @return liczba stanów.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Sprawdza, czy historia jest pusta.
+     *
+     * @return true, jeśli nie ma żadnego stanu do cofnięcia.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Sprawdza, czy są cofnięte stany, które można ponowić.
+     *
+     * @return true, jeśli można ponowić ruch.
+     */
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    /**
+     * Usuwa wszystkie stany. Bufor pozostaje przydzielony.
+     */
+    public void clear() {
+        head = 0;
+        count = 0;
+        redoCount = 0;
+    }
+
+    /**
+     * Zapisuje stan gry. Jeśli historia jest pełna, najstarszy stan jest nadpisywany.
+     * Cofnięte stany nie mogą być już ponowione.
+     *
+     * @param tiles plansza do zapisania.
+     * @param score wynik do zapisania.
+     */
+    public void push(Tile[][] tiles, int score) {
+        ensureSize(tiles.length);
+        int offset = head * cellCount;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[offset++] = (byte) BitBoard.toExponent(tiles[i][j].value);
+            }
+        }
+        scores[head] = score;
+        head = next(head);
+        if (count < capacity) count++;
+        redoCount = 0;
+    }
+
+    /**
+     * Usuwa ostatni stan z historii i zapisuje jego planszę do istniejących kafelków.
+     * Bieżąca plansza i wynik są zapamiętywane do ponowienia.
+     *
+     * @param tiles plansza, do której zostanie zapisany stan (tego samego rozmiaru co zapisany).
+     * @param score bieżący wynik, zapamiętywany do ponowienia.
+     * @return wynik zapisany razem z planszą.
+     * @throws IllegalStateException jeśli historia jest pusta.
+     * @throws IllegalArgumentException jeśli plansza ma inny rozmiar niż zapisane stany.
+     */
+    public int pop(Tile[][] tiles, int score) {
+        if (count == 0) {
+            throw new IllegalStateException("Undo history is empty");
+        }
+        if (tiles.length != size) {
+            throw new IllegalArgumentException("Board size " + tiles.length + " does not match history size " + size);
+        }
+        head = previous(head);
+        count--;
+        redoCount++;
+        return swap(tiles, score);
+    }
+
+    /**
+     * Ponawia ostatnio cofnięty stan i zapisuje jego planszę do istniejących kafelków.
+     * Bieżąca plansza i wynik wracają do historii.
+     *
+     * @param tiles plansza, do której zostanie zapisany stan (tego samego rozmiaru co zapisany).
+     * @param score bieżący wynik, zapisywany z powrotem do historii.
+     * @return wynik ponowionego stanu.
+     * @throws IllegalStateException jeśli nie ma stanu do ponowienia.
+     */
+    public int redo(Tile[][] tiles, int score) {
+        if (redoCount == 0) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        if (tiles.length != size) {
+            throw new IllegalArgumentException("Board size " + tiles.length + " does not match history size " + size);
+        }
+        int restored = swap(tiles, score);
+        head = next(head);
+        count++;
+        redoCount--;
+        return restored;
+    }
+
+    /**
+     * Zwraca wartość kafelka w ostatnim zapisanym stanie.
+     *
+     * @param row wiersz.
+     * @param col kolumna.
+     * @return wartość kafelka (0 dla pustego pola).
+     * @throws IllegalStateException jeśli historia jest pusta.
+     */
+    public int peekValue(int row, int col) {
+        if (count == 0) {
+            throw new IllegalStateException("Undo history is empty");
+        }
+        return BitBoard.toValue(cells[previous(head) * cellCount + row * size + col]);
+    }
+
+    /**
+     * Zwraca wynik w ostatnim zapisanym stanie.
+     *
+     * @return wynik.
+     * @throws IllegalStateException jeśli historia jest pusta.
+     */
+    public int peekScore() {
+        if (count == 0) {
+            throw new IllegalStateException("Undo history is empty");
+        }
+        return scores[previous(head)];
+    }
+
+    /**
+     * Sprawdza, czy plansza różni się od ostatniego zapisanego stanu.
+     *
+     * @param tiles plansza do porównania.
+     * @return true, jeśli historia nie jest pusta, a plansza różni się od ostatniego stanu.
+     */
+    public boolean differsFromLast(Tile[][] tiles) {
+        if (count == 0 || tiles.length != size) return false;
+        int offset = previous(head) * cellCount;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (tiles[i][j].value != BitBoard.toValue(cells[offset++])) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zamienia miejscami planszę i wynik z pozycją {@link #head} w buforze.
+     *
+     * @param tiles plansza.
+     * @param score wynik.
+     * @return wynik, który był zapisany na tej pozycji.
+     */
+    private int swap(Tile[][] tiles, int score) {
+        int offset = head * cellCount;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                byte saved = cells[offset];
+                cells[offset++] = (byte) BitBoard.toExponent(tiles[i][j].value);
+                tiles[i][j].value = BitBoard.toValue(saved);
+            }
+        }
+        int saved = scores[head];
+        scores[head] = score;
+        return saved;
+    }
+
+    /**
+     * Przydziela bufor dla podanego rozmiaru planszy. Przy zmianie rozmiaru historia jest czyszczona.
+     *
+     * @param boardSize rozmiar planszy.
+     */
+    private void ensureSize(int boardSize) {
+        if (boardSize == size) return;
+        size = boardSize;
+        cellCount = boardSize * boardSize;
+        cells = new byte[capacity * cellCount];
+        clear();
+    }
+
+    /**
+     * Zwraca indeks następnej pozycji w buforze.
+     *
+     * @param index indeks pozycji.
+     * @return indeks następnej pozycji.
+     */
+    private int next(int index) {
+        return index + 1 == capacity ? 0 : index + 1;
+    }
+
+    /**
+     * Zwraca indeks poprzedniej pozycji w buforze.
+     *
+     * @param index indeks pozycji.
+     * @return indeks poprzedniej pozycji.
+     */
+    private int previous(int index) {
+        return index == 0 ? capacity - 1 : index - 1;
+    }
+}
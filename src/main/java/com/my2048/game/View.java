@@ -2,6 +2,10 @@ package com.my2048.game;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Klasa reprezentująca graficzny interfejs użytkownika gry 2048.
@@ -82,9 +86,89 @@ public class View extends JPanel {
      */
     public boolean hasPlayerWonBefore = false;
     /**
-     * Nazwa czcionki używanej w grze.
+     * Kolory, czcionki i zmierzone napisy kafelków używane przy rysowaniu.
      */
-    private static final String FONT_NAME = "Arial";
+    private final Theme theme = new Theme(this);
+
+    /**
+     * Narysowane wcześniej obrazy kafelków.
+     */
+    private final TileSprites sprites = new TileSprites(theme, this);
+
+    /**
+     * Częstotliwość odświeżania używana, gdy nie można odczytać jej z ekranu.
+     */
+    private static final int DEFAULT_REFRESH_RATE = 60;
+
+    /**
+     * Zegar animacji ruchu.
+     */
+    private final TileAnimator animator = new TileAnimator();
+
+    /**
+     * Zegar wywołujący kolejne klatki animacji z częstotliwością odświeżania ekranu. Działa tylko w trakcie animacji.
+     */
+    private final Timer frameTimer = new Timer(1000 / DEFAULT_REFRESH_RATE, e -> animationFrame());
+
+    /**
+     * Gradient tła, tworzony ponownie tylko po zmianie rozmiaru panelu.
+     */
+    private GradientPaint background;
+
+    /**
+     * Obszar pola z wynikiem.
+     */
+    private static final Rectangle SCORE_BOX = new Rectangle(160, 10, 110, 60);
+
+    /**
+     * Obszar pola z najlepszym wynikiem.
+     */
+    private static final Rectangle BEST_SCORE_BOX = new Rectangle(280, 10, 150, 60);
+
+    /**
+     * Narysowane wcześniej nieruchome elementy ekranu gry: tło, tytuł, przyciski, pola wyniku i ramka planszy.
+     */
+    private BufferedImage gameLayer;
+
+    /**
+     * Narysowany wcześniej ekran menu.
+     */
+    private BufferedImage menuLayer;
+
+    /**
+     * Kopia stanu gry, którą ostatnio narysowano albo zlecono do narysowania.
+     */
+    private BoardSnapshot shownSnapshot;
+
+    /**
+     * Stan gry, dla którego narysowano {@link #shownSnapshot}.
+     */
+    private GameState shownState;
+
+    /**
+     * Rozmiar kafelka, dla którego narysowano {@link #shownSnapshot}.
+     */
+    private int shownTileSize;
+
+    /**
+     * Wynik, dla którego utworzono {@link #scoreText}.
+     */
+    private int shownScore = -1;
+
+    /**
+     * Napis z wynikiem.
+     */
+    private String scoreText;
+
+    /**
+     * Najlepszy wynik, dla którego utworzono {@link #bestScoreText}.
+     */
+    private int shownBestScore = -1;
+
+    /**
+     * Napis z najlepszym wynikiem.
+     */
+    private String bestScoreText;
 
     /**
      * Ustawia rozmiar kafelka (komórki) na planszy gry.
@@ -134,6 +218,23 @@ public class View extends JPanel {
         this.addMouseListener(controller);
         this.addMouseMotionListener(controller);
     }
+    /**
+     * Po dodaniu panelu do okna (być może na innym ekranie) tworzy od nowa obrazy tła i kafelków
+     * i dopasowuje częstotliwość klatek animacji do ekranu.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        gameLayer = null;
+        menuLayer = null;
+        sprites.invalidate();
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        int refreshRate = configuration == null
+                ? DisplayMode.REFRESH_RATE_UNKNOWN
+                : configuration.getDevice().getDisplayMode().getRefreshRate();
+        frameTimer.setDelay(1000 / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+    }
+
     /**
      * Metoda rysowania komponentów gry na panelu.
      *
@@ -143,31 +244,37 @@ public class View extends JPanel {
     public void paint(Graphics g) {
         super.paint(g);
         Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        int width = this.getSize().width;
-        int height = this.getSize().height;
-
-        Color color1 = Color.BLUE;
-        Color color2 = Color.MAGENTA;
-
-        GradientPaint gradient = new GradientPaint(0, 0, color1, width, height, color2);
-
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, width, height);
+        int width = getWidth();
+        int height = getHeight();
+        // rysujemy grę z jednej kopii stanu, aby plansza i wynik były ze sobą zgodne
+        BoardSnapshot snapshot = controller.getSnapshot();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null || clip.contains(0, 0, width, height)) {
+            shownSnapshot = snapshot;
+            shownState = currentState;
+            shownTileSize = TILE_SIZE;
+        }
+        // nieruchome elementy są rysowane raz do obrazu, a przy odświeżaniu tylko kopiowane
+        if (currentState == GameState.MENU) {
+            menuLayer = layer(menuLayer, g2d, true);
+            g2d.drawImage(menuLayer, 0, 0, width, height, null);
+        } else {
+            gameLayer = layer(gameLayer, g2d, false);
+            g2d.drawImage(gameLayer, 0, 0, width, height, null);
+        }
 
         switch (currentState) {
             case MENU:
-                drawMenu(g);
                 break;
             case PLAYING:
-                drawGame(g);
+                drawGame(g, snapshot);
                 break;
             case WON:
-                drawGame(g);
+                drawGame(g, snapshot);
                 drawGameWon(g);
                 break;
             case LOST:
-                drawGame(g);
+                drawGame(g, snapshot);
                 drawGameOver(g);
                 break;
         }
@@ -176,38 +283,233 @@ public class View extends JPanel {
     }
 
     /**
-     * Metoda drawGame służy do rysowania planszy gry. Wyświetla planszę z kafelkami,
-     * a także informacje o grze, takie jak aktualny wynik i najlepszy wynik.
+     * Odświeża widok po zmianie stanu gry. Jeśli zmieniły się tylko kafelki lub wynik,
+     * przerysowywane są jedynie zmienione pola; po zmianie ekranu, rozmiaru planszy
+     * lub rozmiaru kafelka przerysowywany jest cały panel. Ruch zmieniający planszę jest
+     * animowany; nowy ruch w trakcie animacji od razu ją zastępuje.
+     */
+    public void refresh() {
+        BoardSnapshot snapshot = controller.getSnapshot();
+        if (shownSnapshot == null || shownState != currentState || shownTileSize != TILE_SIZE
+                || shownSnapshot.getSize() != snapshot.getSize()) {
+            animator.finish();
+            repaint();
+        } else if (currentState != GameState.MENU && shownSnapshot.getSequence() != snapshot.getSequence()) {
+            MoveTransitions transitions = MoveTransitions.between(shownSnapshot, snapshot);
+            if (transitions != null) {
+                animator.start(transitions, System.nanoTime());
+                frameTimer.start();
+                repaint(boardBounds(snapshot.getSize()));
+            } else if (animator.isRunning()) {
+                animator.finish();
+                repaint(boardBounds(snapshot.getSize()));
+            }
+            for (Rectangle region : dirtyRegions(shownSnapshot, snapshot)) {
+                repaint(region);
+            }
+        }
+        shownSnapshot = snapshot;
+        shownState = currentState;
+        shownTileSize = TILE_SIZE;
+    }
+
+    /**
+     * Przesuwa animację do następnej klatki i przerysowuje planszę. Po zakończeniu animacji zatrzymuje zegar klatek.
+     */
+    private void animationFrame() {
+        MoveTransitions transitions = animator.getTransitions();
+        if (transitions == null) {
+            frameTimer.stop();
+            return;
+        }
+        if (!animator.tick(System.nanoTime())) frameTimer.stop();
+        repaint(boardBounds(transitions.getSize()));
+    }
+
+    /**
+     * Zwraca obszar planszy wraz z marginesami.
+     *
+     * @param size rozmiar planszy.
+     * @return obszar planszy.
+     */
+    private Rectangle boardBounds(int size) {
+        int extent = offsetCoors(size);
+        return new Rectangle(0, 100, extent, extent);
+    }
+
+    /**
+     * Wyznacza obszary panelu, które różnią się między dwiema kopiami stanu gry tego samego rozmiaru:
+     * zmienione kafelki oraz pola wyników.
+     *
+     * @param from kopia stanu, która jest narysowana.
+     * @param to kopia stanu, która ma zostać narysowana.
+     * @return lista obszarów do przerysowania.
+     */
+    List<Rectangle> dirtyRegions(BoardSnapshot from, BoardSnapshot to) {
+        List<Rectangle> regions = new ArrayList<>();
+        if (from.getSequence() == to.getSequence()) return regions;
+        for (int x = 0; x < to.getSize(); x++) {
+            for (int y = 0; y < to.getSize(); y++) {
+                if (from.getExponent(y, x) != to.getExponent(y, x)) {
+                    regions.add(new Rectangle(offsetCoors(x), offsetCoors(y) + 100, TILE_SIZE, TILE_SIZE));
+                }
+            }
+        }
+        if (from.getScore() != to.getScore()) regions.add(new Rectangle(SCORE_BOX));
+        if (from.getBestScore() != to.getBestScore()) regions.add(new Rectangle(BEST_SCORE_BOX));
+        return regions;
+    }
+
+    /**
+     * Zwraca obraz z nieruchomymi elementami ekranu, rysując go ponownie tylko wtedy, gdy
+     * zmienił się rozmiar panelu lub skala ekranu (np. przy ekranach o wysokiej rozdzielczości).
+     *
+     * @param layer obraz narysowany wcześniej albo null.
+     * @param target kontekst graficzny, do którego obraz będzie kopiowany.
+     * @param menu true dla ekranu menu, false dla ekranu gry.
+     * @return aktualny obraz.
+     */
+    private BufferedImage layer(BufferedImage layer, Graphics2D target, boolean menu) {
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        AffineTransform transform = target.getTransform();
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        int imageWidth = (int) Math.ceil(width * scaleX);
+        int imageHeight = (int) Math.ceil(height * scaleY);
+        if (layer != null && layer.getWidth() == imageWidth && layer.getHeight() == imageHeight) return layer;
+
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        layer = configuration != null
+                ? configuration.createCompatibleImage(imageWidth, imageHeight, Transparency.OPAQUE)
+                : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = layer.createGraphics();
+        g.scale(scaleX, scaleY);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (background == null || background.getPoint2().getX() != width || background.getPoint2().getY() != height) {
+            background = new GradientPaint(0, 0, Theme.BACKGROUND_START, width, height, Theme.BACKGROUND_END);
+        }
+        g2d.setPaint(background);
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        if (menu) {
+            drawMenu(g);
+        } else {
+            drawGameLayer(g);
+        }
+        g.dispose();
+        return layer;
+    }
+
+    /**
+     * Metoda drawGame służy do rysowania planszy gry. Wyświetla kafelki oraz aktualny
+     * i najlepszy wynik na nieruchomych elementach narysowanych przez {@link #drawGameLayer(Graphics)}.
+     * Pomijane są kafelki leżące poza obszarem przerysowania. W trakcie animacji ruchu
+     * kafelki są rysowane przez {@link #drawTransitions(Graphics, MoveTransitions)}.
+     * @param g Obiekt Graphics, który dostarcza kontekst graficzny.
+     * @param snapshot Kopia stanu gry do narysowania.
+     */
+    private void drawGame(Graphics g, BoardSnapshot snapshot) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(Theme.TEXT);
+        g.setFont(Theme.SCORE);
+        if (snapshot.getScore() != shownScore) {
+            shownScore = snapshot.getScore();
+            scoreText = String.valueOf(shownScore);
+        }
+        g.drawString(scoreText, 180, 60);
+
+        if (snapshot.getBestScore() != shownBestScore) {
+            shownBestScore = snapshot.getBestScore();
+            bestScoreText = String.valueOf(shownBestScore);
+        }
+        g.drawString(bestScoreText, 300, 60);
+
+        MoveTransitions transitions = animator.getTransitions();
+        if (transitions != null) {
+            drawTransitions(g, transitions);
+            return;
+        }
+        for (int x = 0; x < snapshot.getSize(); x++) {
+            for (int y = 0; y < snapshot.getSize(); y++) {
+                if (clip != null && !clip.intersects(offsetCoors(x), offsetCoors(y) + 100, TILE_SIZE, TILE_SIZE)) continue;
+                drawTile(g, snapshot.getExponent(y, x), x, y );
+            }
+        }
+    }
+
+    /**
+     * Rysuje bieżącą klatkę animacji ruchu: najpierw kafelki przesuwające się między polami,
+     * potem kafelki po ruchu, z pulsowaniem kafelków z połączenia i pojawianiem się nowego kafelka.
      * @param g Obiekt Graphics, który dostarcza kontekst graficzny.
+     * @param transitions Przejścia animowanego ruchu.
      */
-    private void drawGame(Graphics g) {
-        // rysujemy grę
+    private void drawTransitions(Graphics g, MoveTransitions transitions) {
+        Graphics2D g2d = (Graphics2D) g;
+        int size = transitions.getSize();
+        for (int cell = 0; cell < size * size; cell++) {
+            drawTile(g, 0, cell % size, cell / size);
+        }
+
+        double slide = animator.slideProgress();
+        if (slide < 1) {
+            for (int i = 0; i < transitions.getCount(); i++) {
+                int from = transitions.getFrom(i);
+                int to = transitions.getTo(i);
+                double x = offsetCoors(from % size) + (offsetCoors(to % size) - offsetCoors(from % size)) * slide;
+                double y = offsetCoors(from / size) + (offsetCoors(to / size) - offsetCoors(from / size)) * slide;
+                drawSprite(g2d, transitions.getExponent(i), x, y + 100, TILE_SIZE);
+            }
+            return;
+        }
+
+        double pop = animator.popProgress();
+        for (int cell = 0; cell < size * size; cell++) {
+            int exponent = transitions.getAfter(cell);
+            if (exponent == 0) continue;
+            double grow = transitions.isMerged(cell) ? TILE_SIZE * 0.05 * Math.sin(Math.PI * pop) : 0;
+            drawSprite(g2d, exponent, offsetCoors(cell % size) - grow, offsetCoors(cell / size) + 100 - grow, TILE_SIZE + 2 * grow);
+        }
+        int spawn = transitions.getSpawnCell();
+        if (spawn >= 0) {
+            Graphics2D fade = (Graphics2D) g.create();
+            fade.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) pop));
+            drawSprite(fade, transitions.getSpawnExponent(), offsetCoors(spawn % size), offsetCoors(spawn / size) + 100, TILE_SIZE);
+            fade.dispose();
+        }
+    }
+
+    /**
+     * Metoda drawGameLayer rysuje nieruchome elementy ekranu gry: tytuł, przycisk menu,
+     * pola wyników z podpisami, opis klawiszy oraz ramkę planszy.
+     * @param g Obiekt Graphics, który dostarcza kontekst graficzny.
+     */
+    private void drawGameLayer(Graphics g) {
         Graphics2D g2d = (Graphics2D) g.create();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setColor(new Color(0xFFFFFF));
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 50));
+        g.setColor(Theme.TEXT);
+        g.setFont(Theme.TITLE);
         g.drawString("2048", 10, 50);
 
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
+        g2d.setColor(Theme.PANEL);
         g2d.fillRoundRect(15, 70, 50, 20, 10, 10);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 12));
-        g.setColor(new Color(0xFFFFFF));
+        g.setFont(Theme.SMALL_BUTTON);
+        g.setColor(Theme.TEXT);
         g.drawString("MENU", 23, 85);
 
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
-        g2d.fillRoundRect(160, 10, 110, 60, 10, 10);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 24));
+        g2d.setColor(Theme.PANEL);
+        g2d.fillRoundRect(SCORE_BOX.x, SCORE_BOX.y, SCORE_BOX.width, SCORE_BOX.height, 10, 10);
+        g.setFont(Theme.SCORE);
         g.drawString("Wynik ", 180, 35);
-        g.drawString(String.valueOf(controller.getScore()), 180, 60);
 
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
-        g2d.fillRoundRect(280, 10, 150, 60, 10, 10);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 24));
+        g2d.setColor(Theme.PANEL);
+        g2d.fillRoundRect(BEST_SCORE_BOX.x, BEST_SCORE_BOX.y, BEST_SCORE_BOX.width, BEST_SCORE_BOX.height, 10, 10);
+        g.setFont(Theme.SCORE);
         g.drawString("Najlepszy ", 300, 35);
-        g.drawString(String.valueOf(controller.getbestScore()), 300, 60);
 
 
-        g.setFont(new Font(FONT_NAME, Font.PLAIN, 14));
+        g.setFont(Theme.HINT);
         // Cofnij ruch
         g.setColor(Color.BLACK);
         g.drawString("Cofnij ruch - ",100, 90);
@@ -231,12 +533,7 @@ public class View extends JPanel {
                 (96 + TILE_MARGIN+2) * 4,
                 (96 + TILE_MARGIN+2) * 4,
                 10, 10);
-
-        for (int x = 0; x < size; x++) {
-            for (int y = 0; y < size; y++) {
-                drawTile(g, controller.getGameTiles()[y][x], x, y );
-            }
-        }
+        g2d.dispose();
     }
     /**
      * Metoda drawMenu służy do rysowania menu głównego gry. Wyświetla opcje wyboru
@@ -248,24 +545,25 @@ public class View extends JPanel {
         Graphics2D g2d = (Graphics2D) g.create();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setColor(Color.WHITE);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 70));
+        g.setFont(Theme.MENU_TITLE);
         g.drawString("2048", 140, 100);
 
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 20));
+        g.setFont(Theme.MENU_SUBTITLE);
         g.drawString("Wybierz rozmiar planszy", 100, 170);
 
-        g.setFont(new Font(FONT_NAME, Font.PLAIN, 30));
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
+        g.setFont(Theme.MENU_OPTION);
+        g2d.setColor(Theme.PANEL);
         g2d.fillRoundRect(50, 200, 110, 60, 10, 10);
         g.drawString("3x3", 80, 240);
 
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
+        g2d.setColor(Theme.PANEL);
         g2d.fillRoundRect(170, 200, 110, 60, 10, 10);
         g.drawString("4x4", 200, 240);
 
-        g2d.setColor(new Color(0xcd, 0xc1, 0xb4, 128));
+        g2d.setColor(Theme.PANEL);
         g2d.fillRoundRect(290, 200, 110, 60, 10, 10);
         g.drawString("5x5", 320, 240);
+        g2d.dispose();
     }
     /**
      * Metoda drawGameWon służy do rysowania ekranu po wygranej grze. Wyświetla komunikat
@@ -274,16 +572,16 @@ public class View extends JPanel {
      */
     private void drawGameWon(Graphics g) {
         // Przyciemniamy planszę gry
-        g.setColor(new Color(0, 0, 0, 127));
+        g.setColor(Theme.OVERLAY);
         g.fillRect(0, 0, getWidth(), getHeight());
 
         // Wyświetlamy napis "Wygrałeś" na środku planszy
         g.setColor(Color.WHITE);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 48));
+        g.setFont(Theme.MESSAGE);
         g.drawString("Wygrałeś", getWidth() / 4, getHeight() / 2);
 
         // Wyświetlamy napis "Stuknij, aby kontynuować" poniżej
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 24));
+        g.setFont(Theme.SCORE);
         g.drawString("Stuknij, aby kontynuować", 80, (getHeight() / 2) + 40);
     }
     /**
@@ -293,51 +591,49 @@ public class View extends JPanel {
      */
     private void drawGameOver(Graphics g) {
         // Przyciemniamy planszę gry
-        g.setColor(new Color(0, 0, 0, 127));
+        g.setColor(Theme.OVERLAY);
         g.fillRect(0, 0, getWidth(), getHeight());
 
         // Wyświetlamy napis "Koniec Gry!" na środku planszy
         g.setColor(Color.WHITE);
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 48));
+        g.setFont(Theme.MESSAGE);
         g.drawString("Koniec Gry!", getWidth() / 4, getHeight() / 2);
 
         // Wyświetlamy informacje o możliwości cofnięcia ruchu, resetu gry lub powrotu do menu
-        g.setFont(new Font(FONT_NAME, Font.BOLD, 24));
+        g.setFont(Theme.SCORE);
         g.drawString("Cofnij ruch - Z, Reset - R", 90, (getHeight() / 2) + 40);
     }
 
 
     /**
      * Prywatna metoda do rysowania kafelka na planszy gry.
+     * Kafelek jest kopiowany z obrazu narysowanego wcześniej przez {@link TileSprites}.
      *
      * @param g2 Obiekt graficzny do rysowania komponentów.
-     * @param tile Kafelek do narysowania.
+     * @param exponent Wykładnik kafelka do narysowania (0 dla pustego pola).
      * @param x Pozycja x kafelka na planszy.
      * @param y Pozycja y kafelka na planszy.
      */
-    private void drawTile(Graphics g2, Tile tile, int x, int y) {
+    private void drawTile(Graphics g2, int exponent, int x, int y) {
         Graphics2D g = ((Graphics2D) g2);
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        int value = tile.value;
         int xOffset = offsetCoors(x);
         int yOffset = offsetCoors(y) + 100;
 
+        drawSprite(g, exponent, xOffset, yOffset, TILE_SIZE);
+    }
 
-        g.setColor(tile.getTileColor());
-        g.fillRoundRect(xOffset, yOffset, TILE_SIZE, TILE_SIZE, 8, 8);
-        g.setColor(tile.getFontColor());
-        final int size = value < 100 ? 36 : value < 1000 ? 32 : 24;
-        final Font font = new Font(FONT_NAME, Font.BOLD, size);
-        g.setFont(font);
-
-        String s = String.valueOf(value);
-        final FontMetrics fm = getFontMetrics(font);
-
-        final int w = fm.stringWidth(s);
-        final int h = -(int) fm.getLineMetrics(s, g).getBaselineOffsets()[2];
-
-        if (value != 0)
-            g.drawString(s, xOffset + (TILE_SIZE - w) / 2, yOffset + TILE_SIZE - (TILE_SIZE - h) / 2 - 2);
+    /**
+     * Kopiuje obraz kafelka w podane miejsce, w razie potrzeby skalując go.
+     *
+     * @param g Obiekt graficzny do rysowania komponentów.
+     * @param exponent Wykładnik kafelka (0 dla pustego pola).
+     * @param x Położenie lewej krawędzi w pikselach.
+     * @param y Położenie górnej krawędzi w pikselach.
+     * @param extent Rozmiar rysowanego kafelka w pikselach.
+     */
+    private void drawSprite(Graphics2D g, int exponent, double x, double y, double extent) {
+        int size = (int) Math.round(extent);
+        g.drawImage(sprites.sprite(exponent, TILE_SIZE, g), (int) Math.round(x), (int) Math.round(y), size, size, null);
     }
     /**
      * Prywatna metoda do obliczania przesunięcia koordynat kafelka na planszy gry.
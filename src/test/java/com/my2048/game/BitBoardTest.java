@@ -0,0 +1,231 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    /**
+     * Buduje planszę z wykładników podanych wierszami.
+     */
+    private static long board(int... exponents) {
+        long board = 0;
+        for (int i = 0; i < exponents.length; i++) {
+            board = BitBoard.set(board, i / 4, i % 4, exponents[i]);
+        }
+        return board;
+    }
+
+    @Test
+    void leftMergesEachTileOnce() {
+        long before = board(
+                1, 1, 1, 1,
+                2, 2, 3, 3,
+                0, 1, 0, 1,
+                1, 2, 1, 2);
+        long expected = board(
+                2, 2, 0, 0,
+                3, 4, 0, 0,
+                2, 0, 0, 0,
+                1, 2, 1, 2);
+        assertEquals(expected, BitBoard.left(before));
+        assertEquals(8 + 8 + 16 + 4, BitBoard.moveScore(before, Direction.LEFT));
+    }
+
+    @Test
+    void rightMirrorsLeft() {
+        long before = board(
+                1, 1, 1, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 0);
+        assertEquals(board(
+                0, 0, 1, 2,
+                0, 0, 0, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 0), BitBoard.right(before));
+        assertEquals(4, BitBoard.moveScore(before, Direction.RIGHT));
+    }
+
+    @Test
+    void upAndDownMoveColumns() {
+        long before = board(
+                1, 0, 0, 0,
+                1, 0, 0, 0,
+                0, 0, 0, 0,
+                2, 0, 0, 3);
+        assertEquals(board(
+                2, 0, 0, 3,
+                2, 0, 0, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 0), BitBoard.up(before));
+        assertEquals(board(
+                0, 0, 0, 0,
+                0, 0, 0, 0,
+                2, 0, 0, 0,
+                2, 0, 0, 3), BitBoard.down(before));
+        assertEquals(4, BitBoard.moveScore(before, Direction.UP));
+    }
+
+    @Test
+    void transposeIsAnInvolution() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            long board = random.nextLong();
+            long transposed = BitBoard.transpose(board);
+            assertEquals(board, BitBoard.transpose(transposed));
+            assertEquals(BitBoard.get(board, 1, 3), BitBoard.get(transposed, 3, 1));
+        }
+    }
+
+    @Test
+    void countEmptyAndMaxExponent() {
+        long board = board(
+                0, 1, 0, 0,
+                0, 0, 11, 0,
+                0, 0, 0, 0,
+                15, 0, 0, 0);
+        assertEquals(13, BitBoard.countEmpty(board));
+        assertEquals(15, BitBoard.maxExponent(board));
+        assertEquals(16, BitBoard.countEmpty(0L));
+    }
+
+    @Test
+    void tilesRoundTrip() {
+        Tile[][] tiles = new Tile[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                tiles[i][j] = new Tile();
+                tiles[i][j].value = (i + j) % 3 == 0 ? 0 : 1 << (i + j);
+            }
+        }
+        long board = BitBoard.fromTiles(tiles);
+        Tile[][] copy = new Tile[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                copy[i][j] = new Tile();
+            }
+        }
+        BitBoard.toTiles(board, copy);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(tiles[i][j].value, copy[i][j].value);
+            }
+        }
+    }
+
+    @Test
+    void matchesGridEngine() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            Direction direction = Direction.of(random.nextInt(4));
+            Model model = new Model();
+            model.setBitBoardEnabled(false);
+            for (Tile[] row : model.getGameTiles()) {
+                for (Tile tile : row) {
+                    int exponent = random.nextInt(5);
+                    tile.value = BitBoard.toValue(exponent);
+                }
+            }
+            model.markTilesChanged();
+            long before = BitBoard.fromTiles(model.getGameTiles());
+            long expected = BitBoard.move(before, direction);
+            model.setScore(0);
+            switch (direction) {
+                case LEFT: model.left(); break;
+                case RIGHT: model.right(); break;
+                case UP: model.up(); break;
+                default: model.down(); break;
+            }
+            long actual = BitBoard.fromTiles(model.getGameTiles());
+
+            // Plansze mogą różnić się jedynie nowym kafelkiem dodanym na puste pole.
+            int differences = 0;
+            for (int row = 0; row < 4; row++) {
+                for (int col = 0; col < 4; col++) {
+                    if (BitBoard.get(expected, row, col) != BitBoard.get(actual, row, col)) {
+                        assertEquals(0, BitBoard.get(expected, row, col));
+                        differences++;
+                    }
+                }
+            }
+            assertTrue(differences <= 1);
+            assertEquals(expected == before ? 0 : 1, differences);
+            assertEquals(BitBoard.moveScore(before, direction), model.getScore());
+        }
+    }
+
+    @Test
+    void legalMovesMatchMoves() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            long board = 0;
+            for (int cell = 0; cell < 16; cell++) {
+                int exponent = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(random.nextBoolean() ? 4 : 15);
+                board = BitBoard.set(board, cell / 4, cell % 4, exponent);
+            }
+            int expected = 0;
+            for (int d = 0; d < 4; d++) {
+                if (BitBoard.move(board, Direction.of(d)) != board) expected |= 1 << d;
+            }
+            assertEquals(expected, BitBoard.legalMoves(board), "Niepoprawna maska dozwolonych ruchów");
+        }
+    }
+
+    @Test
+    void blockedBoardHasNoLegalMoves() {
+        long blocked = board(
+                1, 2, 1, 2,
+                2, 1, 2, 1,
+                1, 2, 1, 2,
+                2, 1, 2, 1);
+        assertEquals(0, BitBoard.legalMoves(blocked));
+        long maxPair = board(
+                15, 15, 1, 2,
+                2, 1, 2, 1,
+                1, 2, 1, 2,
+                2, 1, 2, 1);
+        assertEquals(0, BitBoard.legalMoves(maxPair), "Kafelki o maksymalnym wykładniku nie są łączone");
+        assertEquals(1 << Direction.RIGHT.ordinal() | 1 << Direction.DOWN.ordinal(), BitBoard.legalMoves(board(1)));
+    }
+
+    @Test
+    void largeTilesDoNotFit() {
+        Tile[][] tiles = new Tile[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                tiles[i][j] = new Tile();
+            }
+        }
+        tiles[0][0].value = 16384;
+        assertTrue(BitBoard.fits(tiles), "Kafelek 16384 mieści się w planszy BitBoard");
+        tiles[0][0].value = 32768;
+        assertFalse(BitBoard.fits(tiles), "Kafelki 32768 nie mogą być łączone w planszy BitBoard");
+        tiles[0][0].value = 65536;
+        assertThrows(IllegalArgumentException.class, () -> BitBoard.fromTiles(tiles));
+    }
+
+    @Test
+    void bothEnginesMerge32768() {
+        for (boolean bitBoardEnabled : new boolean[]{true, false}) {
+            Model model = new Model();
+            model.setBitBoardEnabled(bitBoardEnabled);
+            Tile[][] tiles = model.getGameTiles();
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 4; j++) {
+                    tiles[i][j].value = 0;
+                }
+            }
+            tiles[0][0].value = 32768;
+            tiles[0][1].value = 32768;
+            model.markTilesChanged();
+            model.setScore(0);
+            model.left();
+            assertEquals(65536, model.getGameTiles()[0][0].value, "Dwa kafelki 32768 łączą się w 65536");
+            assertEquals(65536, model.getScore());
+        }
+    }
+}
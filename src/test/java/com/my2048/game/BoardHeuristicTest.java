@@ -0,0 +1,57 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardHeuristicTest {
+
+    @Test
+    void prefersMoreEmptyCells() {
+        BoardHeuristic heuristic = new BoardHeuristic(1, 0, 0, 0);
+        GridBoard crowded = new GridBoard(4);
+        crowded.set(0, 0, 1);
+        crowded.set(0, 1, 2);
+        GridBoard sparse = new GridBoard(4);
+        sparse.set(0, 0, 1);
+        assertTrue(heuristic.evaluate(sparse) > heuristic.evaluate(crowded));
+    }
+
+    @Test
+    void prefersMonotonicRows() {
+        BoardHeuristic heuristic = new BoardHeuristic(0, 1, 0, 0);
+        GridBoard monotonic = new GridBoard(3);
+        monotonic.set(0, 0, 3);
+        monotonic.set(0, 1, 2);
+        monotonic.set(0, 2, 1);
+        GridBoard zigzag = new GridBoard(3);
+        zigzag.set(0, 0, 3);
+        zigzag.set(0, 1, 1);
+        zigzag.set(0, 2, 2);
+        assertEquals(0, heuristic.evaluate(monotonic));
+        assertTrue(heuristic.evaluate(monotonic) > heuristic.evaluate(zigzag));
+    }
+
+    @Test
+    void prefersSmoothBoards() {
+        BoardHeuristic heuristic = new BoardHeuristic(0, 0, 1, 0);
+        GridBoard smooth = new GridBoard(3);
+        smooth.set(1, 0, 2);
+        smooth.set(1, 1, 2);
+        GridBoard rough = new GridBoard(3);
+        rough.set(1, 0, 2);
+        rough.set(1, 1, 7);
+        assertTrue(heuristic.evaluate(smooth) > heuristic.evaluate(rough));
+    }
+
+    @Test
+    void rewardsMaxTileInCorner() {
+        BoardHeuristic heuristic = new BoardHeuristic(0, 0, 0, 1);
+        GridBoard corner = new GridBoard(5);
+        corner.set(4, 4, 6);
+        GridBoard center = new GridBoard(5);
+        center.set(2, 2, 6);
+        assertEquals(6, heuristic.evaluate(corner));
+        assertEquals(0, heuristic.evaluate(center));
+    }
+}
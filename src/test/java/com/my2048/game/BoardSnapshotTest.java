@@ -0,0 +1,98 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSnapshotTest {
+
+    private static void assertMatches(Model model, BoardSnapshot snapshot) {
+        Tile[][] tiles = model.getGameTiles();
+        assertEquals(tiles.length, snapshot.getSize());
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles.length; j++) {
+                assertEquals(tiles[i][j].value, snapshot.getValue(i, j), "Niepoprawna wartość pola " + i + "," + j);
+            }
+        }
+        assertEquals(model.getScore(), snapshot.getScore());
+        assertEquals(model.getBestScore(), snapshot.getBestScore());
+    }
+
+    @Test
+    void publishesAfterMovesAndUndo() {
+        Model model = new Model(SpawnRandom.seeded(1));
+        BoardSnapshot start = model.getSnapshot();
+        assertMatches(model, start);
+
+        model.left();
+        model.down();
+        BoardSnapshot afterMoves = model.getSnapshot();
+        assertTrue(afterMoves.getSequence() > start.getSequence(), "Numer kopii powinien rosnąć");
+        assertMatches(model, afterMoves);
+
+        model.rollback();
+        assertMatches(model, model.getSnapshot());
+        model.setScore(1234);
+        assertEquals(1234, model.getSnapshot().getScore(), "Zmiana wyniku powinna zostać opublikowana");
+    }
+
+    @Test
+    void snapshotDoesNotChangeWithModel() {
+        Model model = new Model(SpawnRandom.seeded(2));
+        BoardSnapshot snapshot = model.getSnapshot();
+        int[][] values = new int[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                values[i][j] = snapshot.getValue(i, j);
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            model.move(Direction.of(i % 4));
+        }
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(values[i][j], snapshot.getValue(i, j), "Kopia nie powinna zmieniać się razem z modelem");
+            }
+        }
+        GridBoard board = model.getSnapshot().toBoard();
+        assertEquals(BitBoard.fromTiles(model.getGameTiles()), BitBoard.fromTiles(toTiles(board)));
+    }
+
+    @Test
+    void readersSeeIncreasingSequence() throws InterruptedException {
+        Model model = new Model(SpawnRandom.seeded(3));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long last = -1;
+            while (running.get()) {
+                BoardSnapshot snapshot = model.getSnapshot();
+                if (snapshot.getSequence() < last) failure.set("Numer kopii zmalał");
+                if (snapshot.getScore() > snapshot.getBestScore()) failure.set("Wynik większy od najlepszego");
+                last = snapshot.getSequence();
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2000; i++) {
+            model.move(Direction.of(i % 4));
+            if (!model.canMove()) model.resetGameTiles();
+        }
+        running.set(false);
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    private static Tile[][] toTiles(GridBoard board) {
+        Tile[][] tiles = new Tile[board.size()][board.size()];
+        for (int i = 0; i < board.size(); i++) {
+            for (int j = 0; j < board.size(); j++) {
+                tiles[i][j] = new Tile();
+            }
+        }
+        board.toTiles(tiles);
+        return tiles;
+    }
+}
@@ -1,29 +1,36 @@
 package com.my2048.game;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 
 import javax.swing.*;
 import java.awt.event.KeyEvent;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 
 class ControllerTest {
+
+    @TempDir
+    Path saveDirectory;
     @Test
     void getScore() {
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         controller.setModelScore(5);
         assertEquals(5, controller.getScore(), "Niepoprawna liczba punktów zwrócona przez getter");
     }
     @Test
     void getBestScore() {
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         assertEquals(0, controller.getbestScore(), "Niepoprawna liczba punktów zwrócona przez getter dla najlepszego wyniku");
     }
 
     @Test
     void setModelScore() {
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         controller.setModelScore(7);
         assertEquals(7, controller.getScore(), "Niepoprawna liczba punktów po użyciu settera");
     }
@@ -31,7 +38,7 @@ class ControllerTest {
     @Test
     void keyPressed() throws InterruptedException {
 
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         KeyEvent keyEvent = new KeyEvent(new JPanel(), 0, 0, 0, KeyEvent.VK_R, ' ');
 
         controller.setModelScore(100);
@@ -41,13 +48,77 @@ class ControllerTest {
         assertEquals(0, controller.getScore(), "Po naciśnięciu klawisza ESCAPE, gra powinna zostać zresetowana, więc liczba punktów powinna wynosić 0");
     }
 
+    @Test
+    void arrowKeysAreAppliedInOrder() {
+        Model model = new Model(ModelTest.lastEmptyCell());
+        Controller controller = new Controller(model, saveDirectory);
+        JPanel source = new JPanel();
+
+        controller.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED));
+        controller.keyReleased(new KeyEvent(source, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED));
+        controller.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_DOWN, KeyEvent.CHAR_UNDEFINED));
+        // przytrzymany klawisz - powtórzenie czekającego ruchu jest łączone
+        controller.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_DOWN, KeyEvent.CHAR_UNDEFINED));
+        controller.close(); // czekamy na wykonanie ruchów w wątku gry
+
+        Model expected = new Model(ModelTest.lastEmptyCell());
+        expected.left();
+        expected.down();
+        assertEquals(2, model.getReplay().getMoveCount(), "Powinny zostać wykonane dwa ruchy");
+        assertEquals(BitBoard.fromTiles(expected.getGameTiles()), BitBoard.fromTiles(model.getGameTiles()));
+    }
+
+    @Test
+    void movesQueuedWhilePlaybackStartsAreDropped() {
+        Model model = new Model(ModelTest.lastEmptyCell());
+        model.left();
+        Controller controller = new Controller(model, saveDirectory);
+        controller.getView().currentState = View.GameState.PLAYING;
+        JPanel source = new JPanel();
+
+        controller.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_P, KeyEvent.CHAR_UNDEFINED));
+        // odtwarzanie jest już zlecone, ale zegar odtwarzania jeszcze nie działa
+        controller.keyPressed(new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_RIGHT, KeyEvent.CHAR_UNDEFINED));
+        controller.close();
+
+        assertEquals(1, model.getReplay().getMoveCount(), "Ruch zgłoszony w trakcie odtwarzania nie powinien zostać wykonany");
+    }
+
+    @Test
+    void slowAutoMoveDoesNotBlockEventThread() throws InterruptedException {
+        Model model = new Model(SpawnRandom.seeded(9));
+        CountDownLatch release = new CountDownLatch(1);
+        model.setAutoPlayer(board -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Direction.LEFT;
+        });
+        Controller controller = new Controller(model, saveDirectory);
+
+        long start = System.nanoTime();
+        controller.keyPressed(new KeyEvent(new JPanel(), KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_A, KeyEvent.CHAR_UNDEFINED));
+        assertNotNull(controller.getSnapshot());
+        controller.getScore();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "Obsługa klawisza nie powinna czekać na automatycznego gracza");
+        assertEquals(1, release.getCount(), "Automatyczny gracz powinien nadal szukać ruchu");
+
+        release.countDown();
+        controller.close();
+        assertEquals(1, model.getReplay().getMoveCount(), "Automatyczny ruch powinien zostać wykonany w wątku gry");
+    }
+
     @Test
     void resetGame() throws InterruptedException {
-        // Załóżmy, że mamy dostęp do instancji klasy Controller
-        Controller controller = new Controller(new Model());
+        // Załóżmy, że mamy dostęp do instancji klasy Controller; nowe kafelki trafiają zawsze na ostatnie puste pola
+        Model model = new Model(ModelTest.lastEmptyCell());
+        model.getGameTiles()[0][0].value = 2;
+        model.markTilesChanged();
+        Controller controller = new Controller(model, saveDirectory);
 
         // Symulacja jakiegoś działania gry
-        controller.getGameTiles()[0][0].value = 2;
         controller.setModelScore(5000);
         controller.getView().isGameWon = true;
 
@@ -66,7 +137,7 @@ class ControllerTest {
 
     @Test
     void checkGameStatus() {
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         controller.getView().isGameWon = true;
         controller.getView().hasPlayerWonBefore = false;
         controller.checkGameStatus();
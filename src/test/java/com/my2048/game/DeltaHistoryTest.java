@@ -0,0 +1,105 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaHistoryTest {
+
+    private static int[][] values(Tile[][] tiles) {
+        int[][] values = new int[tiles.length][tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles.length; j++) {
+                values[i][j] = tiles[i][j].value;
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void undoAndRedoWholeGame() {
+        Model model = new Model();
+        model.setUnlimitedUndo(true);
+        List<int[][]> boards = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        boards.add(values(model.getGameTiles()));
+        scores.add(model.getScore());
+
+        Direction[] directions = Direction.values();
+        for (int move = 0; move < 300; move++) {
+            model.move(directions[move % 3 == 2 ? 2 + move % 2 : move % 2]);
+            boards.add(values(model.getGameTiles()));
+            scores.add(model.getScore());
+        }
+
+        // Cofamy wszystkie ruchy - każda pozycja powinna zostać odtworzona z punktu kontrolnego
+        for (int position = 299; position >= 0; position--) {
+            model.rollback();
+            assertArrayEquals(boards.get(position), values(model.getGameTiles()), "Błędna plansza po cofnięciu do pozycji " + position);
+            assertEquals(scores.get(position), model.getScore(), "Błędny wynik po cofnięciu do pozycji " + position);
+        }
+
+        // I ponawiamy je z powrotem
+        for (int position = 1; position <= 300; position++) {
+            model.redo();
+            assertArrayEquals(boards.get(position), values(model.getGameTiles()), "Błędna plansza po ponowieniu do pozycji " + position);
+            assertEquals(scores.get(position), model.getScore());
+        }
+    }
+
+    @Test
+    void checkpoints() {
+        DeltaHistory history = new DeltaHistory(4);
+        Model model = new Model();
+        for (int move = 0; move < 10; move++) {
+            history.beginMove(model.getGameTiles(), model.getScore());
+            history.record(MoveRecord.pack(Direction.LEFT, -1, 0, 0), model.getGameTiles(), model.getScore());
+        }
+
+        // Punkty kontrolne na pozycjach 0, 4 i 8
+        assertEquals(3, history.checkpointCount());
+        assertEquals(10, history.length());
+        assertFalse(history.lastMoveChangedBoard());
+    }
+
+    @Test
+    void editOutsideHistoryAddsCheckpoint() {
+        Model model = new Model();
+        model.setUnlimitedUndo(true);
+        model.left();
+        model.right();
+
+        // Zmiana planszy poza ruchami
+        Tile[][] tiles = model.getGameTiles();
+        for (Tile[] row : tiles) {
+            for (Tile tile : row) {
+                tile.value = 0;
+            }
+        }
+        tiles[0][0].value = 2;
+        tiles[0][1].value = 2;
+        model.markTilesChanged();
+        int[][] edited = values(tiles);
+        model.left();
+
+        model.rollback();
+        assertArrayEquals(edited, values(model.getGameTiles()), "Cofnięcie powinno przywrócić planszę po zmianie");
+    }
+
+    @Test
+    void newMoveDropsRedo() {
+        Model model = new Model();
+        model.setUnlimitedUndo(true);
+        model.left();
+        model.up();
+        model.rollback();
+        model.right();
+        int[][] afterRight = values(model.getGameTiles());
+
+        model.redo();
+        assertArrayEquals(afterRight, values(model.getGameTiles()), "Po nowym ruchu nie powinno być czego ponawiać");
+    }
+}
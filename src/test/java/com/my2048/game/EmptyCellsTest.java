@@ -0,0 +1,72 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmptyCellsTest {
+
+    @Test
+    void bitBoardMaskMatchesTiles() {
+        Random random = new Random(3);
+        EmptyCells fromBoard = new EmptyCells();
+        EmptyCells fromTiles = new EmptyCells();
+        for (int round = 0; round < 200; round++) {
+            long board = 0;
+            for (int cell = 0; cell < 16; cell++) {
+                if (random.nextBoolean()) board |= (long) (1 + random.nextInt(15)) << (4 * cell);
+            }
+            Tile[][] tiles = new Tile[4][4];
+            for (int i = 0; i < 4; i++) {
+                for (int j = 0; j < 4; j++) {
+                    tiles[i][j] = new Tile();
+                }
+            }
+            BitBoard.toTiles(board, tiles);
+
+            fromBoard.fromBitBoard(board);
+            fromTiles.fromTiles(tiles);
+            assertEquals(BitBoard.countEmpty(board), fromBoard.count());
+            assertEquals(fromTiles.count(), fromBoard.count());
+            for (int n = 0; n < fromBoard.count(); n++) {
+                assertEquals(fromTiles.nth(n), fromBoard.nth(n), "Puste pole numer " + n);
+            }
+        }
+    }
+
+    @Test
+    void tracksLargeBoardsAndRemovals() {
+        GridBoard board = new GridBoard(9);
+        board.set(0, 1);
+        board.set(64, 2);
+        EmptyCells empty = new EmptyCells();
+        empty.fromGridBoard(board);
+
+        assertEquals(79, empty.count());
+        assertEquals(1, empty.nth(0), "Pierwsze puste pole");
+        assertEquals(63, empty.nth(62));
+        assertEquals(65, empty.nth(63), "Pole 64 jest zajęte, więc kolejne puste to 65");
+        assertEquals(80, empty.nth(78));
+
+        empty.remove(65);
+        assertEquals(78, empty.count());
+        assertEquals(66, empty.nth(63));
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.nth(78));
+    }
+
+    @Test
+    void fillMarksEveryCellEmpty() {
+        EmptyCells empty = new EmptyCells();
+        empty.fill(64);
+        assertEquals(64, empty.count());
+        assertEquals(63, empty.nth(63));
+        empty.fill(9);
+        assertTrue(empty.isValid(9));
+        assertFalse(empty.isValid(16), "Maska innego rozmiaru nie jest aktualna");
+        assertEquals(8, empty.nth(8));
+        empty.invalidate();
+        assertFalse(empty.isValid(9));
+    }
+}
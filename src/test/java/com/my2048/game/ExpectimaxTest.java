@@ -0,0 +1,73 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectimaxTest {
+
+    /**
+     * Dodaje losowy kafelek na puste pole, tak jak robi to gra.
+     */
+    private static void spawn(GridBoard board, Random random) {
+        int index = random.nextInt(board.countEmpty());
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.get(cell) == 0 && index-- == 0) {
+                board.set(cell, random.nextDouble() < Expectimax.TWO_PROBABILITY ? 1 : 2);
+                return;
+            }
+        }
+    }
+
+    @Test
+    void returnsNullWhenNoMoveIsPossible() {
+        GridBoard board = new GridBoard(3);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            board.set(cell, cell % 2 == 0 ? 1 : 2);
+        }
+        assertNull(new Expectimax(BoardHeuristic.standard(), 3, 100).bestMove(board));
+    }
+
+    @Test
+    void doesNotModifyBoard() {
+        GridBoard board = new GridBoard(4);
+        board.set(0, 0, 1);
+        board.set(0, 1, 1);
+        board.set(2, 3, 3);
+        GridBoard copy = board.copy();
+        new Expectimax(BoardHeuristic.standard(), 3, 1000).bestMove(board);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            assertEquals(copy.get(cell), board.get(cell));
+        }
+    }
+
+    @Test
+    void respectsTimeBudget() {
+        GridBoard board = new GridBoard(5);
+        board.set(0, 0, 1);
+        board.set(4, 4, 1);
+        long start = System.nanoTime();
+        Direction direction = new Expectimax(BoardHeuristic.standard(), 20, 50).bestMove(board);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(direction);
+        assertTrue(elapsedMillis < 1000, "Przeszukiwanie powinno zakończyć się krótko po upływie limitu czasu");
+    }
+
+    @Test
+    void playsBetterThanRandom() {
+        Random random = new Random(42);
+        GridBoard board = new GridBoard(4);
+        spawn(board, random);
+        spawn(board, random);
+        Expectimax expectimax = new Expectimax(BoardHeuristic.standard(), 2, 10_000);
+        for (Direction direction = expectimax.bestMove(board); direction != null; direction = expectimax.bestMove(board)) {
+            board.move(direction);
+            spawn(board, random);
+        }
+        // Gra losowa praktycznie nigdy nie dochodzi do kafelka 512
+        assertTrue(board.maxExponent() >= 9, "Automatyczny gracz powinien dojść co najmniej do kafelka 512");
+    }
+}
@@ -0,0 +1,48 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLoopTest {
+
+    @Test
+    void runsCommandsInOrderOnOneThread() {
+        GameLoop loop = new GameLoop();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            loop.execute(() -> {
+                order.add(n);
+                threads.add(Thread.currentThread().getName());
+            });
+        }
+        assertTrue(loop.call(loop::isGameThread), "Zadanie powinno działać w wątku gry");
+        assertFalse(loop.isGameThread());
+        loop.close();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, order.get(i), "Polecenia powinny być wykonywane w kolejności zgłoszenia");
+        }
+        assertEquals(1, threads.stream().distinct().count(), "Wszystkie polecenia w jednym wątku");
+    }
+
+    @Test
+    void failingCommandDoesNotStopLoop() {
+        GameLoop loop = new GameLoop();
+        loop.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        assertEquals(42, loop.call(() -> 42), "Wątek gry powinien działać po błędzie polecenia");
+        assertThrows(IllegalStateException.class, () -> loop.call(() -> {
+            throw new java.io.IOException("test");
+        }));
+        assertEquals(7, loop.call(() -> loop.call(() -> 7)), "Zadanie zlecone z wątku gry wykonuje się od razu");
+        loop.close();
+    }
+}
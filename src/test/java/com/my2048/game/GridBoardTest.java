@@ -0,0 +1,149 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridBoardTest {
+
+    /**
+     * Buduje planszę z wykładników podanych wierszami.
+     */
+    private static GridBoard board(int size, int... exponents) {
+        GridBoard board = new GridBoard(size);
+        for (int i = 0; i < exponents.length; i++) {
+            board.set(i, exponents[i]);
+        }
+        return board;
+    }
+
+    private static void assertBoard(GridBoard expected, GridBoard actual) {
+        for (int i = 0; i < expected.cellCount(); i++) {
+            assertEquals(expected.get(i), actual.get(i), "Niepoprawna wartość pola " + i);
+        }
+    }
+
+    @Test
+    void moveLeftAndRightOn5x5() {
+        GridBoard board = board(5,
+                1, 1, 1, 1, 1,
+                0, 2, 0, 2, 3,
+                4, 0, 0, 0, 0,
+                1, 2, 3, 4, 5,
+                0, 0, 0, 0, 1);
+        GridBoard left = board.copy();
+        assertEquals(4 + 4 + 8, left.move(Direction.LEFT));
+        assertBoard(board(5,
+                2, 2, 1, 0, 0,
+                3, 3, 0, 0, 0,
+                4, 0, 0, 0, 0,
+                1, 2, 3, 4, 5,
+                1, 0, 0, 0, 0), left);
+
+        GridBoard right = board.copy();
+        assertEquals(4 + 4 + 8, right.move(Direction.RIGHT));
+        assertBoard(board(5,
+                0, 0, 1, 2, 2,
+                0, 0, 0, 3, 3,
+                0, 0, 0, 0, 4,
+                1, 2, 3, 4, 5,
+                0, 0, 0, 0, 1), right);
+    }
+
+    @Test
+    void moveUpAndDownOn3x3() {
+        GridBoard board = board(3,
+                1, 0, 2,
+                1, 0, 0,
+                1, 3, 2);
+        GridBoard up = board.copy();
+        assertEquals(4 + 8, up.move(Direction.UP));
+        assertBoard(board(3,
+                2, 3, 3,
+                1, 0, 0,
+                0, 0, 0), up);
+
+        GridBoard down = board.copy();
+        assertEquals(4 + 8, down.move(Direction.DOWN));
+        assertBoard(board(3,
+                0, 0, 0,
+                1, 0, 0,
+                2, 3, 3), down);
+    }
+
+    @Test
+    void unchangedMoveReturnsMinusOne() {
+        GridBoard board = board(3,
+                1, 2, 0,
+                3, 0, 0,
+                0, 0, 0);
+        assertEquals(-1, board.move(Direction.LEFT));
+        assertEquals(-1, board.move(Direction.UP));
+        assertEquals(0, board.move(Direction.RIGHT));
+    }
+
+    @Test
+    void countEmptyAndMaxExponent() {
+        GridBoard board = board(3,
+                0, 7, 0,
+                0, 0, 0,
+                1, 0, 0);
+        assertEquals(7, board.countEmpty());
+        assertEquals(7, board.maxExponent());
+    }
+
+    @Test
+    void matchesBitBoardOn4x4() {
+        Random random = new Random(3);
+        GridBoard grid = new GridBoard(4);
+        for (int i = 0; i < 2000; i++) {
+            long bits = 0;
+            for (int cell = 0; cell < 16; cell++) {
+                int exponent = random.nextInt(6);
+                bits = BitBoard.set(bits, cell / 4, cell % 4, exponent);
+                grid.set(cell, exponent);
+            }
+            Direction direction = Direction.of(random.nextInt(4));
+            long expected = BitBoard.move(bits, direction);
+            int gained = grid.move(direction);
+
+            assertEquals(expected == bits ? -1 : BitBoard.moveScore(bits, direction), gained);
+            for (int cell = 0; cell < 16; cell++) {
+                assertEquals(BitBoard.get(expected, cell / 4, cell % 4), grid.get(cell));
+            }
+        }
+    }
+
+    @Test
+    void largeBoard() {
+        GridBoard board = new GridBoard(8);
+        board.set(0, 7, 1);
+        board.set(7, 7, 1);
+        assertEquals(4, board.move(Direction.UP));
+        assertEquals(2, board.get(0, 7));
+        assertEquals(0, board.get(7, 7));
+    }
+
+    @Test
+    void legalMovesMatchMoves() {
+        Random random = new Random(5);
+        for (int i = 0; i < 3000; i++) {
+            int size = 2 + random.nextInt(5);
+            GridBoard board = new GridBoard(size);
+            for (int cell = 0; cell < board.cellCount(); cell++) {
+                board.set(cell, random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(size));
+            }
+            if (random.nextInt(10) == 0) board.set(0, GridBoard.MAX_EXPONENT);
+            if (random.nextInt(10) == 0) board.set(1, GridBoard.MAX_EXPONENT);
+            int expected = 0;
+            GridBoard scratch = new GridBoard(size);
+            for (int d = 0; d < 4; d++) {
+                scratch.copyFrom(board);
+                if (scratch.move(Direction.of(d)) >= 0) expected |= 1 << d;
+            }
+            assertEquals(expected, board.legalMoves(), "Niepoprawna maska dozwolonych ruchów dla rozmiaru " + size);
+        }
+    }
+}
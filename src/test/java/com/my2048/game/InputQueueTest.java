@@ -0,0 +1,55 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputQueueTest {
+
+    @Test
+    void keepsMovesInOrder() {
+        InputQueue queue = new InputQueue(8, true, 0);
+        assertTrue(queue.offer(Direction.LEFT, false, 0));
+        assertTrue(queue.offer(Direction.LEFT, false, 1), "Osobne naciśnięcia nie są łączone");
+        assertTrue(queue.offer(Direction.UP, false, 2));
+        assertEquals(3, queue.size());
+
+        assertEquals(Direction.LEFT, queue.poll());
+        assertEquals(Direction.LEFT, queue.poll());
+        assertEquals(Direction.UP, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void coalescesAndLimitsRepeats() {
+        InputQueue queue = new InputQueue(8, true, 50);
+        queue.offer(Direction.RIGHT, false, 0);
+        assertFalse(queue.offer(Direction.RIGHT, true, 100), "Powtórzenie czekającego ruchu powinno zostać połączone");
+        assertFalse(queue.offer(Direction.DOWN, true, 10), "Powtórzenie przed upływem odstępu powinno zostać pominięte");
+        assertTrue(queue.offer(Direction.DOWN, true, 60));
+        assertEquals(2, queue.size());
+
+        queue.poll();
+        queue.poll();
+        assertTrue(queue.offer(Direction.DOWN, true, 120), "Powtórzenie wykonanego ruchu powinno trafić do kolejki");
+
+        InputQueue unlimited = new InputQueue(8, false, 0);
+        assertTrue(unlimited.offer(Direction.RIGHT, false, 0));
+        assertTrue(unlimited.offer(Direction.RIGHT, true, 0), "Bez łączenia powtórzenia trafiają do kolejki");
+        unlimited.configure(true, 0);
+        assertFalse(unlimited.offer(Direction.RIGHT, true, 0), "Po zmianie ustawień powtórzenia są łączone");
+        assertEquals(2, unlimited.size(), "Zmiana ustawień nie usuwa czekających ruchów");
+    }
+
+    @Test
+    void isBounded() {
+        InputQueue queue = new InputQueue(2, true, 0);
+        assertTrue(queue.offer(Direction.LEFT, false, 0));
+        assertTrue(queue.offer(Direction.RIGHT, false, 0));
+        assertFalse(queue.offer(Direction.UP, false, 0), "Pełna kolejka nie przyjmuje ruchów");
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertTrue(queue.offer(Direction.UP, false, 0));
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(0, true, 0));
+    }
+}
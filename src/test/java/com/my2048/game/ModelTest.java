@@ -1,7 +1,9 @@
 package com.my2048.game;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,8 +40,34 @@ class ModelTest {
     }
 
     @Test
-    void hasBoardChanged() {
+    void autoMoveOnBlockedBoard() {
+        Model model = new Model();
+        Tile[][] gameTiles = model.getGameTiles();
+        for (int i = 0; i < model.getFieldWidth(); i++) {
+            for (int j = 0; j < model.getFieldWidth(); j++) {
+                gameTiles[i][j].value = (i + j) % 2 == 0 ? 2 : 4;
+            }
+        }
+        model.markTilesChanged();
+
+        // Na zablokowanej planszy autoMove() nie powinien niczego zmieniać
+        model.autoMove();
+
+        assertEquals(2, model.getGameTiles()[0][0].value);
+        assertEquals(0, model.getScore());
+    }
+
+    @Test
+    void greedyMove() {
         Model model = new Model();
+        model.greedyMove();
+        assertTrue(model.hasBoardChanged(), "Po wywołaniu metody greedyMove() powinna nastąpić zmiana na planszy gry.");
+    }
+
+    @Test
+    void hasBoardChanged() {
+        // Kafelki początkowe trafiają na pola [3][3] i [3][2], więc ruch w lewo zawsze zmienia planszę
+        Model model = new Model(lastEmptyCell());
 
         // Zapiszemy stan początkowy gry
         model.saveState(model.getGameTiles());
@@ -84,14 +112,10 @@ class ModelTest {
 
 
         // Sprawdzamy, czy poprzedni stan został poprawnie zapisany.
-        Tile[][] savedState = model.getPreviousStates().peek();
+        UndoHistory savedState = model.getUndoHistory();
         for (int i = 0; i < model.getFieldWidth(); i++) {
             for (int j = 0; j < model.getFieldWidth(); j++) {
-                if (originalState[i][j] != null) {
-                    assertEquals(originalState[i][j].value, savedState[i][j].value);
-                } else {
-                    assertNull(savedState[i][j]);
-                }
+                assertEquals(originalState[i][j].value, savedState.peekValue(i, j));
             }
         }
     }
@@ -115,6 +139,25 @@ class ModelTest {
     }
 
 
+    @Test
+    void undoLimit() {
+        Model model = new Model();
+        model.setUndoLimit(2);
+
+        model.left();
+        model.right();
+        model.left();
+
+        // Historia przechowuje tylko dwa ostatnie stany
+        assertEquals(2, model.getUndoHistory().size(), "Historia nie powinna przekraczać ustawionego limitu");
+        model.rollback();
+        model.rollback();
+        assertTrue(model.getUndoHistory().isEmpty());
+        Tile[][] tiles = model.getGameTiles();
+        model.rollback();
+        assertSame(tiles, model.getGameTiles(), "Cofnięcie przy pustej historii nie powinno zmieniać planszy");
+    }
+
     @Test
     void resetGameTiles() {
         Model model = new Model();
@@ -141,10 +184,14 @@ class ModelTest {
         // Test dla pustego pola gry - powinno zwrócić true
         assertTrue(model.canMove(), "Metoda canMove powinna zwrócić true dla pustego pola gry");
 
-        // Wypełnij pole gry losowymi kafelkami
-        for(int i=0; i<1000; i++) {
-            model.autoMove();
+        // Wypełnij pole gry kafelkami, których nie da się połączyć
+        Tile[][] gameTiles = model.getGameTiles();
+        for (int i = 0; i < model.getFieldWidth(); i++) {
+            for (int j = 0; j < model.getFieldWidth(); j++) {
+                gameTiles[i][j].value = (i + j) % 2 == 0 ? 2 : 4;
+            }
         }
+        model.markTilesChanged();
         // Test dla pełnego pola gry - powinno zwrócić false
         assertFalse(model.canMove(), "Metoda canMove powinna zwrócić false dla pełnego pola gry");
 
@@ -231,7 +278,7 @@ class ModelTest {
     }
 
     @Test
-    void saveAndLoadGameTest() {
+    void saveAndLoadGameTest(@TempDir Path directory) {
         Model model = new Model();
         model.setScore(5000);
         model.setBestScore(6000);
@@ -239,7 +286,7 @@ class ModelTest {
         // (właściwe wartości zależą od twojego konkretnego rozwiązania)
         model.getGameTiles()[0][0].value = 2;
 
-        model.saveGame();
+        model.saveGame(directory);
 
         // teraz resetujemy model
         model.setScore(0);
@@ -247,11 +294,30 @@ class ModelTest {
         model.getGameTiles()[0][0].value = 0;
 
         // teraz wczytujemy stan gry
-        model.loadGame();
+        model.loadGame(directory);
 
         assertEquals(5000, model.getScore());
         assertEquals(6000, model.getBestScore());
         assertEquals(2, model.getGameTiles()[0][0].value);
     }
 
-}
\ No newline at end of file
+    /**
+     * Zwraca źródło liczb losowych, które zawsze wybiera ostatnie puste pole i kafelek 2,
+     * dzięki czemu przebieg testu nie zależy od losowania.
+     *
+     * @return przewidywalne źródło liczb losowych.
+     */
+    static SpawnRandom lastEmptyCell() {
+        return new SpawnRandom() {
+            @Override
+            public int nextInt(int bound) {
+                return bound - 1;
+            }
+
+            @Override
+            public double nextDouble() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveEvaluationTest {
+
+    private static GridBoard board(int size, int... exponents) {
+        GridBoard board = new GridBoard(size);
+        for (int i = 0; i < exponents.length; i++) {
+            board.set(i, exponents[i]);
+        }
+        return board;
+    }
+
+    @Test
+    void evaluatesWithoutChangingBoard() {
+        GridBoard board = board(3,
+                1, 1, 0,
+                2, 0, 2,
+                0, 0, 3);
+        MoveEvaluation left = MoveEvaluation.evaluate(board, Direction.LEFT);
+
+        assertTrue(left.isChanged());
+        assertEquals(4 + 8, left.getScoreGained());
+        assertEquals(6, left.getEmptyCount());
+        assertEquals(Direction.LEFT, left.getDirection());
+        assertEquals(2, left.getBoard().get(0, 0));
+        assertEquals(3, left.getBoard().get(1, 0));
+        assertEquals(1, board.get(0, 0), "Plansza źródłowa nie powinna się zmienić");
+
+        MoveEvaluation down = MoveEvaluation.evaluate(board(2, 0, 0, 1, 2), Direction.DOWN);
+        assertFalse(down.isChanged(), "Ruch, który nie zmienia planszy, jest niedozwolony");
+        assertEquals(0, down.getScoreGained());
+    }
+
+    @Test
+    void modelEvaluationHasNoSideEffects() {
+        Model model = new Model(ModelTest.lastEmptyCell());
+        model.setUnlimitedUndo(true);
+        model.right();
+        int score = model.getScore();
+        int moves = model.getReplay().getMoveCount();
+        long before = BitBoard.fromTiles(model.getGameTiles());
+
+        for (int d = 0; d < 4; d++) {
+            MoveEvaluation evaluation = model.evaluate(Direction.of(d));
+            long expected = BitBoard.move(before, Direction.of(d));
+            assertEquals(expected != before, evaluation.isChanged());
+            assertEquals(BitBoard.countEmpty(expected), evaluation.getEmptyCount());
+        }
+
+        assertEquals(before, BitBoard.fromTiles(model.getGameTiles()), "Ocena nie powinna zmieniać planszy");
+        assertEquals(score, model.getScore());
+        assertEquals(moves, model.getReplay().getMoveCount(), "Ocena nie powinna trafiać do historii");
+    }
+
+    @Test
+    void moveEfficiencyHasNoSideEffects() {
+        Model model = new Model(ModelTest.lastEmptyCell());
+        model.right();
+        long sequence = model.getSnapshot().getSequence();
+        int replayMoves = model.getReplay().getMoveCount();
+
+        for (int d = 0; d < 4; d++) {
+            MoveEvaluation evaluation = model.evaluate(Direction.of(d));
+            MoveEfficiency expected = evaluation.isChanged()
+                    ? new MoveEfficiency(evaluation.getEmptyCount(), model.getScore() + evaluation.getScoreGained(), null)
+                    : new MoveEfficiency(-1, 0, null);
+            assertEquals(0, model.getMoveEfficiency(Direction.of(d)).compareTo(expected), "Kierunek " + Direction.of(d));
+        }
+
+        assertEquals(sequence, model.getSnapshot().getSequence(), "Ocena nie powinna publikować stanu gry");
+        assertEquals(replayMoves, model.getReplay().getMoveCount(), "Ocena nie powinna trafiać do przebiegu gry");
+        model.getMoveEfficiency(Direction.LEFT).getMove().move();
+        assertEquals(replayMoves + 1, model.getReplay().getMoveCount(), "Ruch z oceny powinien zostać wykonany");
+    }
+
+    @Test
+    void evaluatesConcurrently() throws Exception {
+        GridBoard board = board(4,
+                1, 1, 2, 2,
+                0, 3, 3, 0,
+                4, 0, 4, 1,
+                2, 2, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MoveEvaluation>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                Direction direction = Direction.of(i % 4);
+                results.add(executor.submit(() -> MoveEvaluation.evaluate(board, direction)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                MoveEvaluation expected = MoveEvaluation.evaluate(board, Direction.of(i % 4));
+                MoveEvaluation actual = results.get(i).get();
+                assertEquals(expected.getScoreGained(), actual.getScoreGained());
+                assertEquals(expected.getEmptyCount(), actual.getEmptyCount());
+                assertEquals(expected.getBoard().hash(), actual.getBoard().hash());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
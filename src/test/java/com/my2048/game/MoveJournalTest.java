@@ -0,0 +1,72 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static long[] moves(int count) {
+        long[] moves = new long[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = MoveRecord.pack(Direction.of(i % 4), i % 16, 1 + i % 2, 4 * i);
+        }
+        return moves;
+    }
+
+    @Test
+    void readsAppendedMoves() throws IOException {
+        Path file = directory.resolve("test.journal");
+        long[] moves = moves(200);
+        try (MoveJournal journal = MoveJournal.create(file, 4, 7)) {
+            journal.append(Arrays.copyOf(moves, 3));
+            journal.append(Arrays.copyOfRange(moves, 3, 200));
+            assertEquals(200, journal.recordCount());
+        }
+        assertArrayEquals(moves, MoveJournal.read(file, 4, 7), "Odczytane ruchy powinny być takie same jak dopisane");
+    }
+
+    @Test
+    void ignoresOtherGenerationAndSize() throws IOException {
+        Path file = directory.resolve("test.journal");
+        try (MoveJournal journal = MoveJournal.create(file, 4, 7)) {
+            journal.append(moves(5));
+        }
+        assertEquals(0, MoveJournal.read(file, 4, 8).length, "Dziennik innej generacji powinien zostać pominięty");
+        assertEquals(0, MoveJournal.read(file, 5, 7).length, "Dziennik innego rozmiaru powinien zostać pominięty");
+        assertEquals(0, MoveJournal.read(directory.resolve("missing.journal"), 4, 7).length);
+    }
+
+    @Test
+    void stopsAtDamagedRecord() throws IOException {
+        Path file = directory.resolve("test.journal");
+        long[] moves = moves(10);
+        try (MoveJournal journal = MoveJournal.create(file, 4, 7)) {
+            journal.append(moves);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Uszkodzenie siódmego rekordu i niepełny rekord na końcu pliku
+            channel.write(ByteBuffer.wrap(new byte[]{0x55}),
+                    MoveJournal.HEADER_BYTES + 6L * MoveJournal.RECORD_BYTES + 2);
+            channel.write(ByteBuffer.wrap(new byte[5]), channel.size());
+        }
+        assertArrayEquals(Arrays.copyOf(moves, 6), MoveJournal.read(file, 4, 7),
+                "Odczyt powinien zakończyć się na pierwszym uszkodzonym rekordzie");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(MoveJournal.HEADER_BYTES - 1);
+        }
+        assertEquals(0, MoveJournal.read(file, 4, 7).length, "Niepełny nagłówek powinien zostać pominięty");
+    }
+}
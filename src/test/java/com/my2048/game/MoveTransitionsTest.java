@@ -0,0 +1,83 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveTransitionsTest {
+
+    @Test
+    void transitionsLeadToBoardAfterMove() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int size = 2; size <= 6; size++) {
+            for (int round = 0; round < 200; round++) {
+                GridBoard before = new GridBoard(size);
+                for (int cell = 0; cell < before.cellCount(); cell++) {
+                    before.set(cell, random.nextInt(3) == 0 ? 0 : random.nextInt(1, 4));
+                }
+                for (Direction direction : Direction.values()) {
+                    GridBoard expected = before.copy();
+                    expected.move(direction);
+                    MoveTransitions transitions = MoveTransitions.of(before, direction, -1, 0);
+
+                    int[] after = new int[before.cellCount()];
+                    int tiles = 0;
+                    for (int i = 0; i < transitions.getCount(); i++) {
+                        assertEquals(before.get(transitions.getFrom(i)), transitions.getExponent(i), "Kafelek powinien zaczynać na swoim polu");
+                        after[transitions.getTo(i)] = transitions.isMerged(transitions.getTo(i))
+                                ? transitions.getExponent(i) + 1
+                                : transitions.getExponent(i);
+                        tiles++;
+                    }
+                    assertEquals(before.cellCount() - before.countEmpty(), tiles, "Każdy kafelek powinien mieć przejście");
+                    for (int cell = 0; cell < before.cellCount(); cell++) {
+                        assertEquals(expected.get(cell), after[cell], "Niepoprawne pole " + cell + " po ruchu " + direction);
+                        assertEquals(expected.get(cell), transitions.getAfter(cell));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mergesAreMarkedOnTargetCell() {
+        GridBoard board = new GridBoard(4);
+        board.set(0, 0, 1);
+        board.set(0, 1, 1);
+        board.set(0, 3, 2);
+        MoveTransitions transitions = MoveTransitions.of(board, Direction.LEFT, 15, 1);
+
+        assertTrue(transitions.isMerged(0), "Połączone kafelki powinny trafić na pole 0");
+        assertEquals(2, transitions.getAfter(0));
+        assertFalse(transitions.isMerged(1));
+        assertEquals(2, transitions.getAfter(1));
+        assertEquals(15, transitions.getSpawnCell());
+        assertEquals(1, transitions.getSpawnExponent());
+    }
+
+    @Test
+    void onlyConsecutiveMoveSnapshotsHaveTransitions() {
+        Model model = new Model(SpawnRandom.seeded(8));
+        BoardSnapshot start = model.getSnapshot();
+        model.left();
+        model.right();
+        BoardSnapshot afterMove = model.getSnapshot();
+        model.rollback();
+        BoardSnapshot afterUndo = model.getSnapshot();
+
+        assertNull(MoveTransitions.between(afterMove, afterUndo), "Cofnięcie ruchu nie jest animowane");
+        assertNull(MoveTransitions.between(start, afterMove), "Kopie rozdzielone dwoma ruchami nie są animowane");
+
+        model.up();
+        BoardSnapshot next = model.getSnapshot();
+        if (next.getSequence() == afterUndo.getSequence() + 1 && MoveRecord.spawnExponent(next.getMove()) != 0) {
+            MoveTransitions transitions = MoveTransitions.between(afterUndo, next);
+            assertNotNull(transitions);
+            int spawn = transitions.getSpawnCell();
+            assertEquals(0, transitions.getAfter(spawn), "Nowy kafelek pojawia się na pustym polu");
+            assertEquals(next.getExponent(spawn / 4, spawn % 4), transitions.getSpawnExponent());
+        }
+    }
+}
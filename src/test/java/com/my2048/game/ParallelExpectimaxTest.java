@@ -0,0 +1,70 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelExpectimaxTest {
+
+    private static ParallelExpectimax player(int depth, long timeBudgetMillis, long nodeBudget) {
+        return new ParallelExpectimax(BoardHeuristic.standard(), depth, timeBudgetMillis, nodeBudget, 1,
+                ForkJoinPool.commonPool());
+    }
+
+    private static ParallelExpectimax playerWithoutTable(int depth) {
+        return new ParallelExpectimax(BoardHeuristic.standard(), depth, 60_000, Long.MAX_VALUE, 0,
+                ForkJoinPool.commonPool());
+    }
+
+    private static GridBoard sampleBoard() {
+        GridBoard board = new GridBoard(4);
+        board.set(0, 0, 5);
+        board.set(0, 1, 4);
+        board.set(1, 0, 3);
+        board.set(1, 1, 3);
+        board.set(2, 3, 1);
+        board.set(3, 2, 2);
+        return board;
+    }
+
+    @Test
+    void agreesWithSequentialSearch() {
+        GridBoard board = sampleBoard();
+        Direction sequential = new Expectimax(BoardHeuristic.standard(), 3, 60_000).bestMove(board);
+        // Bez tablic transpozycji wynik nie zależy od przydziału zadań do wątków
+        Direction parallel = playerWithoutTable(3).bestMove(board);
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void returnsNullWhenNoMoveIsPossible() {
+        GridBoard board = new GridBoard(3);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            board.set(cell, cell % 2 == 0 ? 1 : 2);
+        }
+        assertNull(player(3, 100, Long.MAX_VALUE).bestMove(board));
+    }
+
+    @Test
+    void nodeBudgetStopsSearch() {
+        GridBoard board = new GridBoard(5);
+        board.set(0, 0, 1);
+        board.set(4, 4, 1);
+        SearchLimit limit = new SearchLimit(60_000, 10_000);
+        long start = System.nanoTime();
+        Direction direction = player(20, 60_000, 10_000).bestMove(board, limit);
+
+        assertNotNull(direction);
+        assertTrue(limit.isStopped());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 10_000);
+    }
+
+    @Test
+    void stoppedLimitStillReturnsMove() {
+        SearchLimit limit = new SearchLimit(60_000, Long.MAX_VALUE);
+        limit.stop();
+        assertNotNull(player(6, 60_000, Long.MAX_VALUE).bestMove(sampleBoard(), limit));
+    }
+}
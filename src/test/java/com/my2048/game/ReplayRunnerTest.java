@@ -0,0 +1,42 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysDirectoryAndReportsDamagedFiles() throws IOException {
+        Model model = new Model();
+        for (int i = 0; i < 40; i++) {
+            model.move(Direction.of(i % 4));
+        }
+        model.getReplay().save(directory.resolve("a" + Replay.EXTENSION));
+        model.getReplay().save(directory.resolve("b" + Replay.EXTENSION));
+        Files.write(directory.resolve("c" + Replay.EXTENSION), new byte[]{1, 2, 3});
+        Files.write(directory.resolve("notes.txt"), new byte[]{1});
+
+        List<Path> files = ReplayRunner.collect(Collections.singletonList(directory));
+        assertEquals(3, files.size(), "Powinny zostać zebrane tylko pliki zapisu gier");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int failures = new ReplayRunner(3).run(files, new PrintStream(output, true, "UTF-8"));
+        String text = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(1, failures, "Uszkodzony plik powinien zostać zgłoszony");
+        assertTrue(text.contains("Replayed 2 games (80 moves) x3"), text);
+    }
+}
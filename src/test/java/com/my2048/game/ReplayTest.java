@@ -0,0 +1,132 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    @TempDir
+    Path directory;
+
+    private static void play(Model model, int moves) {
+        for (int i = 0; i < moves; i++) {
+            model.move(Direction.of((i * 7 + i / 3) % 4));
+        }
+    }
+
+    private static void assertReachesModel(Replay replay, Model model) {
+        Replay.Playback playback = replay.play();
+        while (playback.hasNext()) {
+            assertTrue(playback.step(), "Ruch " + playback.getPosition() + " powinien być zgodny z zapisem");
+        }
+        assertEquals(model.getScore(), playback.getScore());
+        Tile[][] tiles = model.getGameTiles();
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles.length; j++) {
+                assertEquals(tiles[i][j].value, BitBoard.toValue(playback.getBoard().get(i, j)),
+                        "Kafelek [" + i + "][" + j + "]");
+            }
+        }
+    }
+
+    @Test
+    void recordsGameFromStart() {
+        for (int size = 3; size <= 5; size++) {
+            Model model = new Model();
+            model.setFieldWidth(size);
+            model.resetGameTiles();
+            play(model, 120);
+
+            Replay replay = model.getReplay();
+            assertEquals(size, replay.getSize());
+            assertEquals(120, replay.getMoveCount());
+            assertEquals(-1, replay.verify());
+            assertReachesModel(replay, model);
+        }
+    }
+
+    @Test
+    void undoneMovesAreNotRecorded() {
+        for (boolean unlimited : new boolean[]{false, true}) {
+            Model model = new Model();
+            model.setUnlimitedUndo(unlimited);
+            play(model, 30);
+            model.rollback();
+            model.rollback();
+            model.redo();
+            model.greedyMove();
+            play(model, 5);
+
+            assertEquals(35, model.getReplay().getMoveCount(), "Cofnięte ruchy nie powinny należeć do zapisu");
+            assertReachesModel(model.getReplay(), model);
+        }
+    }
+
+    @Test
+    void finishStartsNewRecording() {
+        Model model = new Model();
+        play(model, 10);
+        Replay finished = model.finishReplay();
+        play(model, 4);
+
+        assertEquals(10, finished.getMoveCount());
+        assertEquals(4, model.getReplay().getMoveCount());
+        assertReachesModel(model.getReplay(), model);
+    }
+
+    @Test
+    void restartDropsRecordedMoves() {
+        Model model = new Model();
+        play(model, 10);
+        Replay before = model.getReplay();
+        model.restartReplay();
+        play(model, 3);
+
+        assertEquals(10, before.getMoveCount(), "Wcześniej pobrany zapis nie powinien się zmienić");
+        assertEquals(3, model.getReplay().getMoveCount());
+        assertReachesModel(model.getReplay(), model);
+    }
+
+    @Test
+    void savesAndLoadsReplay() throws IOException {
+        Model model = new Model();
+        play(model, 50);
+        Replay replay = model.getReplay();
+        Path file = directory.resolve("nested").resolve(replay.fileName(1));
+        replay.save(file);
+
+        Replay loaded = Replay.load(file);
+        assertNotNull(loaded);
+        assertEquals(replay.getMoveCount(), loaded.getMoveCount());
+        assertEquals(replay.getInitialScore(), loaded.getInitialScore());
+        assertReachesModel(loaded, model);
+        assertEquals(Replay.HEADER_BYTES + 16 + 50 * Long.BYTES + Integer.BYTES, Files.size(file));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[Replay.HEADER_BYTES + 3] ^= 1;
+        Files.write(file, bytes);
+        assertNull(Replay.load(file), "Uszkodzony plik nie powinien zostać wczytany");
+    }
+
+    @Test
+    void verifyReportsFirstMismatch() {
+        Model model = new Model();
+        play(model, 20);
+        Replay replay = model.getReplay();
+        long[] moves = new long[replay.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = MoveRecord.pack(replay.getDirection(i), 0, 0, 0);
+        }
+        Replay tampered = new Replay(4, new byte[16], 0, moves);
+        assertEquals(-1, tampered.verify(), "Ruchy na pustej planszy nie zmieniają jej");
+
+        moves[7] = MoveRecord.pack(Direction.LEFT, 3, 1, 4);
+        assertEquals(7, tampered.verify());
+    }
+}
@@ -0,0 +1,93 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static SavedGame game(int size, int score) {
+        Tile[][] tiles = new Tile[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                tiles[i][j] = new Tile();
+                tiles[i][j].value = (i + j) % 3 == 0 ? 0 : 2 << ((i * size + j) % 11);
+            }
+        }
+        return new SavedGame(tiles, score, score + 1);
+    }
+
+    private static void assertSameGame(SavedGame expected, SavedGame.Snapshot actual) {
+        assertNotNull(actual, "Stan powinien zostać odczytany");
+        assertEquals(expected.getSize(), actual.game.getSize());
+        assertEquals(expected.getScore(), actual.game.getScore());
+        assertEquals(expected.getBestScore(), actual.game.getBestScore());
+        for (int i = 0; i < expected.getSize(); i++) {
+            for (int j = 0; j < expected.getSize(); j++) {
+                assertEquals(expected.getValue(i, j), actual.game.getValue(i, j), "Kafelek [" + i + "][" + j + "]");
+            }
+        }
+    }
+
+    @Test
+    void keepsSeparateSlotsPerSize() throws IOException {
+        Path file = directory.resolve(SaveStore.FILE_NAME);
+        try (SaveStore store = SaveStore.open(file)) {
+            for (int size = 3; size <= 6; size++) {
+                store.write(game(size, size * 100), size);
+            }
+            for (int size = 3; size <= 6; size++) {
+                assertSameGame(game(size, size * 100), store.read(size));
+                assertEquals(size, store.read(size).generation);
+            }
+            assertNull(store.read(2), "Pusty rozmiar nie powinien zostać odczytany");
+
+            // Rozmiary spoza 3-5 dzielą jedno miejsce
+            store.write(game(7, 700), 0);
+            assertNull(store.read(6), "Inny rozmiar powinien zastąpić poprzedni w ostatnim miejscu");
+            assertSameGame(game(4, 400), store.read(4));
+        }
+        assertEquals(SaveStore.FILE_BYTES, Files.size(file), "Plik magazynu powinien mieć stały rozmiar");
+        assertSameGame(game(7, 700), SaveStore.readExisting(file, 7));
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (SaveStore store = SaveStore.open(file)) {
+                store.write(game(SaveStore.MAX_SIZE + 1, 0), 0);
+            }
+        });
+    }
+
+    @Test
+    void fallsBackToOlderCopyWhenNewestIsDamaged() throws IOException {
+        Path file = directory.resolve(SaveStore.FILE_NAME);
+        try (SaveStore store = SaveStore.open(file)) {
+            store.write(game(4, 10), 1);
+            store.write(game(4, 20), 2);
+            store.write(game(4, 30), 3);
+            assertSameGame(game(4, 30), store.read(4));
+        }
+
+        // Trzeci zapis trafił do pierwszej kopii miejsca 4x4 (numer 2)
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 2L * SaveStore.COPY_BYTES + 40);
+        }
+        SavedGame.Snapshot snapshot = SaveStore.readExisting(file, 4);
+        assertSameGame(game(4, 20), snapshot);
+        assertEquals(2, snapshot.generation, "Powinna zostać odczytana starsza, poprawna kopia");
+
+        try (SaveStore store = SaveStore.open(file)) {
+            store.write(game(4, 40), 4);
+            assertSameGame(game(4, 40), store.read(4));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private SavedGame load(int size) throws IOException {
+        return SavedGame.load(directory, size);
+    }
+
+    @Test
+    void coalescesSubmittedStates() throws Exception {
+        try (SaveWriter writer = new SaveWriter(directory, 60_000)) {
+            Model model = new Model();
+            writer.submit(model.toSavedGame());
+            writer.flush();
+            assertEquals(1, writer.getWriteCount());
+
+            // Kolejne stany w odstępie krótszym niż limit są łączone w jeden zapis
+            for (int score = 1; score <= 100; score++) {
+                model.setScore(score);
+                writer.submit(model.toSavedGame());
+            }
+            assertEquals(1, writer.getWriteCount(), "Zapis nie powinien nastąpić przed upływem odstępu");
+
+            writer.flush();
+            assertEquals(2, writer.getWriteCount(), "Oczekujące stany powinny zostać zapisane jednym zapisem");
+            assertEquals(100, load(4).getScore(), "Zapisany powinien zostać najnowszy stan");
+        }
+    }
+
+    @Test
+    void closeWritesPendingStates() throws Exception {
+        SaveWriter writer = new SaveWriter(directory, 60_000);
+        writer.submit(new Model().toSavedGame());
+        writer.flush();
+
+        Model model = new Model();
+        model.setFieldWidth(3);
+        model.resetGameTiles();
+        model.getGameTiles()[1][2].value = 64;
+        model.setScore(12);
+        model.setBestScore(40);
+        writer.submit(model.toSavedGame());
+        writer.close();
+
+        SavedGame loaded = load(3);
+        assertEquals(12, loaded.getScore());
+        assertEquals(40, loaded.getBestScore());
+        assertEquals(64, loaded.getValue(1, 2), "Zamknięcie powinno zapisać oczekujący stan");
+    }
+
+    @Test
+    void savedGameIsIndependentCopy() {
+        Model model = new Model();
+        model.getGameTiles()[0][0].value = 8;
+        SavedGame saved = model.toSavedGame();
+        model.getGameTiles()[0][0].value = 16;
+
+        assertEquals(8, saved.getValue(0, 0), "Kopia nie powinna zmieniać się razem z modelem");
+        assertEquals(4, saved.getSize());
+    }
+
+    private static void assertSameState(Model expected, SavedGame actual) {
+        assertNotNull(actual, "Stan powinien zostać wczytany");
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getBestScore(), actual.getBestScore());
+        for (int i = 0; i < actual.getSize(); i++) {
+            for (int j = 0; j < actual.getSize(); j++) {
+                assertEquals(expected.getGameTiles()[i][j].value, actual.getValue(i, j), "Kafelek [" + i + "][" + j + "]");
+            }
+        }
+    }
+
+    private static void play(Model model, int moves) {
+        for (int i = 0; i < moves; i++) {
+            model.move(Direction.of(i % 4));
+        }
+    }
+
+    @Test
+    void appendsMovesToJournal() throws Exception {
+        try (SaveWriter writer = new SaveWriter(directory, 0)) {
+            Model model = new Model();
+            writer.submit(model.toSavedGame());
+            writer.flush();
+            for (int i = 0; i < 20; i++) {
+                play(model, 3);
+                writer.submit(model.toSavedGame());
+                writer.flush();
+            }
+            assertEquals(1, writer.getSnapshotCount(), "Ruchy powinny trafiać do dziennika bez zapisu całej planszy");
+
+            // Stan odtworzony bez zamykania usługi, jak po przerwaniu programu
+            assertSameState(model, SavedGame.load(directory, 4));
+        }
+    }
+
+    @Test
+    void writesSnapshotAfterRollbackAndEdit() throws Exception {
+        try (SaveWriter writer = new SaveWriter(directory, 0)) {
+            Model model = new Model();
+            writer.submit(model.toSavedGame());
+            play(model, 8);
+            writer.submit(model.toSavedGame());
+            writer.flush();
+
+            model.rollback();
+            writer.submit(model.toSavedGame());
+            writer.flush();
+            assertEquals(2, writer.getSnapshotCount(), "Cofnięcie zapisanego ruchu powinno wymusić zapis całej planszy");
+            assertSameState(model, SavedGame.load(directory, 4));
+
+            model.setScore(model.getScore() + 1000);
+            writer.submit(model.toSavedGame());
+            writer.flush();
+            assertEquals(3, writer.getSnapshotCount(), "Zmiana poza ruchami powinna wymusić zapis całej planszy");
+            assertSameState(model, SavedGame.load(directory, 4));
+        }
+    }
+
+    @Test
+    void ignoresDamagedJournalTail() throws Exception {
+        Model model = new Model();
+        try (SaveWriter writer = new SaveWriter(directory, 0)) {
+            writer.submit(model.toSavedGame());
+            writer.flush();
+            play(model, 4);
+            writer.submit(model.toSavedGame());
+        }
+
+        // Ostatni ruch zapisany tylko częściowo
+        Files.write(directory.resolve(SavedGame.journalFileName(4)), new byte[]{1, 2, 3, 4, 5},
+                StandardOpenOption.APPEND);
+        assertSameState(model, SavedGame.load(directory, 4));
+    }
+
+    @Test
+    void rejectsDamagedSnapshot() throws Exception {
+        Files.write(directory.resolve(SavedGame.fileName(4)), new byte[0]);
+        assertNull(SavedGame.load(directory, 4), "Pusty plik nie powinien zostać wczytany");
+
+        Files.write(directory.resolve(SavedGame.fileName(4)), new byte[SavedGame.HEADER_BYTES + 16]);
+        assertNull(SavedGame.load(directory, 4), "Plik bez nagłówka nie powinien zostać wczytany");
+
+        Files.delete(directory.resolve(SavedGame.fileName(4)));
+        Files.write(directory.resolve(SavedGame.jsonFileName(4)), "{\"gameTiles\":[[{\"value\":3}]],\"score\":1".getBytes());
+        assertNull(SavedGame.load(directory, 4), "Uszkodzony plik nie powinien zostać wczytany");
+        assertNull(SavedGame.load(directory, 5), "Brak pliku powinien zwrócić null");
+    }
+
+    @Test
+    void loadsFromStoreAfterRestart() throws Exception {
+        Model model = new Model();
+        try (SaveWriter writer = new SaveWriter(directory, 60_000)) {
+            writer.submit(model.toSavedGame());
+            play(model, 6);
+            writer.submit(model.toSavedGame());
+            assertSameState(model, writer.load(4));
+            assertNull(writer.load(5), "Brak zapisu powinien zwrócić null");
+        }
+        assertTrue(Files.exists(directory.resolve(SaveStore.FILE_NAME)));
+        assertFalse(Files.exists(directory.resolve(SavedGame.fileName(4))), "Stan powinien trafić do magazynu");
+
+        try (SaveWriter writer = new SaveWriter(directory, 60_000)) {
+            assertSameState(model, writer.load(4));
+        }
+    }
+}
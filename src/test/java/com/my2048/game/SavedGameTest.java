@@ -0,0 +1,91 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedGameTest {
+
+    @TempDir
+    Path directory;
+
+    private static SavedGame sample() {
+        Model model = new Model();
+        model.setFieldWidth(3);
+        model.resetGameTiles();
+        Tile[][] tiles = model.getGameTiles();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                tiles[i][j].value = (i * 3 + j) % 2 == 0 ? 0 : 1 << (i * 3 + j + 1);
+            }
+        }
+        tiles[2][2].value = 1 << 30;
+        return new SavedGame(tiles, 1234, 5678);
+    }
+
+    private static void assertSameGame(SavedGame expected, SavedGame actual) {
+        assertNotNull(actual, "Stan powinien zostać wczytany");
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getBestScore(), actual.getBestScore());
+        for (int i = 0; i < expected.getSize(); i++) {
+            for (int j = 0; j < expected.getSize(); j++) {
+                assertEquals(expected.getValue(i, j), actual.getValue(i, j), "Kafelek [" + i + "][" + j + "]");
+            }
+        }
+    }
+
+    @Test
+    void binaryRoundTrip() throws IOException {
+        SavedGame game = sample();
+        game.save(directory);
+
+        Path file = directory.resolve(SavedGame.fileName(3));
+        assertEquals(SavedGame.HEADER_BYTES + 9, Files.size(file), "Plik binarny powinien mieć nagłówek i bajt na pole");
+        assertFalse(Files.exists(directory.resolve(SavedGame.fileName(3) + ".tmp")), "Plik tymczasowy powinien zniknąć");
+        assertSameGame(game, SavedGame.load(directory, 3));
+        assertNull(SavedGame.load(directory, 4), "Zapis innego rozmiaru nie powinien zostać wczytany");
+    }
+
+    @Test
+    void rejectsOtherVersion() throws IOException {
+        byte[] data = sample().toBytes(0).array();
+        data[Integer.BYTES] = (byte) (SavedGame.VERSION + 1);
+        Files.write(directory.resolve(SavedGame.fileName(3)), data);
+        assertNull(SavedGame.load(directory, 3), "Nieznana wersja formatu nie powinna zostać wczytana");
+    }
+
+    @Test
+    void exportsAndImportsJson() throws IOException {
+        SavedGame game = sample();
+        Path file = directory.resolve("export.json");
+        game.exportJson(file);
+
+        assertSameGame(game, SavedGame.importJson(file, 3));
+        assertNull(SavedGame.importJson(file, 4), "Eksport innego rozmiaru nie powinien zostać wczytany");
+    }
+
+    @Test
+    void loadsLegacyJsonSave() throws IOException {
+        // Zapis z poprzednich wersji gry: pełny obiekt Model zapisany przez Gson
+        String json = "{\"gameTiles\":[[{\"value\":2},{\"value\":0}],[{\"value\":0},{\"value\":4}]],"
+                + "\"score\":12,\"bestScore\":40,\"FIELD_WIDTH\":2,\"maxTile\":4,\"isSaveNeeded\":true}";
+        Files.write(directory.resolve(SavedGame.jsonFileName(2)), json.getBytes(StandardCharsets.UTF_8));
+
+        SavedGame loaded = SavedGame.load(directory, 2);
+        assertNotNull(loaded, "Stary zapis JSON powinien zostać wczytany");
+        assertEquals(12, loaded.getScore());
+        assertEquals(40, loaded.getBestScore());
+        assertEquals(4, loaded.getValue(1, 1));
+
+        // Po zapisie binarnym stary plik JSON jest pomijany
+        new SavedGame(loaded.toTiles(), 100, 100).save(directory);
+        assertEquals(100, SavedGame.load(directory, 2).getScore());
+    }
+}
@@ -0,0 +1,36 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchLimitTest {
+
+    @Test
+    void largeTimeBudgetDoesNotStopSearch() {
+        assertFalse(new SearchLimit(Long.MAX_VALUE / 1_000_000L, Long.MAX_VALUE).check(1),
+                "Duży limit czasu nie powinien przepełniać terminu");
+        assertFalse(new SearchLimit(Long.MAX_VALUE, Long.MAX_VALUE).check(1));
+    }
+
+    @Test
+    void stopsAfterTimeBudget() throws InterruptedException {
+        SearchLimit limit = new SearchLimit(0, Long.MAX_VALUE);
+        Thread.sleep(1);
+        assertTrue(limit.check(1), "Przeszukiwanie powinno zostać przerwane po upływie limitu czasu");
+        assertTrue(limit.isStopped());
+    }
+
+    @Test
+    void stopsAfterNodeBudget() {
+        SearchLimit limit = new SearchLimit(60_000, 10);
+        assertFalse(limit.check(10));
+        assertTrue(limit.check(1), "Przeszukiwanie powinno zostać przerwane po przekroczeniu limitu węzłów");
+        assertEquals(11, limit.getNodes());
+    }
+
+    @Test
+    void rejectsNegativeTimeBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimit(-1, Long.MAX_VALUE));
+    }
+}
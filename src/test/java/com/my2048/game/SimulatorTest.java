@@ -0,0 +1,71 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    void sameSeedGivesSameResultsRegardlessOfThreads() throws InterruptedException {
+        SimulationResult single = new Simulator(4, 50, 1, 123, Simulator.Policy.RANDOM, 1, 0).run();
+        SimulationResult parallel = new Simulator(4, 50, 4, 123, Simulator.Policy.RANDOM, 1, 0).run();
+        for (int game = 0; game < 50; game++) {
+            assertEquals(single.getScore(game), parallel.getScore(game));
+            assertEquals(single.getMaxExponent(game), parallel.getMaxExponent(game));
+        }
+        assertEquals(single.getTotalMoves(), parallel.getTotalMoves());
+    }
+
+    @Test
+    void greedyBeatsRandom() throws InterruptedException {
+        SimulationResult random = new Simulator(4, 200, 2, 7, Simulator.Policy.RANDOM, 1, 0).run();
+        SimulationResult greedy = new Simulator(4, 200, 2, 7, Simulator.Policy.GREEDY, 1, 0).run();
+        assertTrue(greedy.getMeanScore() > random.getMeanScore());
+    }
+
+    @Test
+    void expectimaxPolicyFinishesGames() throws InterruptedException {
+        SimulationResult result = new Simulator(3, 4, 2, 1, Simulator.Policy.EXPECTIMAX, 2, 1000).run();
+        assertEquals(4, result.getGames());
+        assertTrue(result.getTotalMoves() > 0);
+    }
+
+    @Test
+    void reportStatistics() {
+        SimulationResult result = new SimulationResult(
+                new int[]{40, 10, 30, 20}, new int[]{4, 1, 3, 2}, new int[]{5, 3, 5, 4}, 2_000_000_000L);
+        assertEquals(10, result.getScorePercentile(25));
+        assertEquals(20, result.getScorePercentile(50));
+        assertEquals(40, result.getScorePercentile(100));
+        assertEquals(25.0, result.getMeanScore());
+        assertEquals(2.0, result.getGamesPerSecond());
+        assertEquals(5.0, result.getMovesPerSecond());
+        int[] counts = result.getMaxTileCounts();
+        assertEquals(1, counts[3]);
+        assertEquals(1, counts[4]);
+        assertEquals(2, counts[5]);
+        assertEquals(4, Arrays.stream(counts).sum());
+    }
+
+    @Test
+    void greedyPlayerPrefersMoreEmptyCells() {
+        GridBoard board = new GridBoard(3);
+        board.set(0, 0, 1);
+        board.set(0, 1, 1);
+        board.set(1, 0, 2);
+        // Ruch w lewo lub w prawo łączy dwa kafelki, ruch w górę niczego nie zmienia
+        Direction direction = new GreedyPlayer().bestMove(board);
+        assertTrue(direction == Direction.LEFT || direction == Direction.RIGHT);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(1, 10, 1, 1, Simulator.Policy.RANDOM, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(4, 10, 1, 1, Simulator.Policy.EXPECTIMAX, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(4, 10, 1, 1, Simulator.Policy.GREEDY, 1, -1));
+        assertDoesNotThrow(() -> new Simulator(4, 10, 1, 1, Simulator.Policy.GREEDY, 0, 0), "Głębokość dotyczy tylko strategii EXPECTIMAX");
+    }
+}
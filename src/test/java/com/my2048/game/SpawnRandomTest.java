@@ -0,0 +1,83 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpawnRandomTest {
+
+    private static int[][] values(Model model) {
+        Tile[][] tiles = model.getGameTiles();
+        int[][] values = new int[tiles.length][tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles.length; j++) {
+                values[i][j] = tiles[i][j].value;
+            }
+        }
+        return values;
+    }
+
+    private static void play(Model model, int moves) {
+        for (int i = 0; i < moves; i++) {
+            switch (i % 4) {
+                case 0: model.left(); break;
+                case 1: model.down(); break;
+                case 2: model.right(); break;
+                default: model.up(); break;
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameGame() {
+        Model first = new Model(SpawnRandom.seeded(42));
+        Model second = new Model(SpawnRandom.seeded(42));
+        assertArrayEquals(values(first), values(second), "Ta sama pozycja początkowa dla tego samego ziarna");
+
+        play(first, 60);
+        play(second, 60);
+        assertArrayEquals(values(first), values(second), "Ta sama plansza po tych samych ruchach");
+        assertEquals(first.getScore(), second.getScore(), "Ten sam wynik po tych samych ruchach");
+        assertEquals(first.getReplay().getMoveCount(), second.getReplay().getMoveCount());
+        assertEquals(-1, first.getReplay().verify(), "Zapis gry z ziarnem powinien być zgodny z silnikiem");
+    }
+
+    @Test
+    void setSeedRestartsSequence() {
+        Model model = new Model();
+        model.setSeed(7);
+        model.resetGameTiles();
+        int[][] start = values(model);
+        play(model, 20);
+
+        model.setSeed(7);
+        model.resetGameTiles();
+        assertArrayEquals(start, values(model), "Po ponownym ustawieniu ziarna gra zaczyna się tak samo");
+    }
+
+    @Test
+    void exponentFollowsTwoProbability() {
+        SpawnRandom random = SpawnRandom.of(new SplittableRandom(1));
+        int twos = 0;
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            int exponent = random.nextExponent();
+            assertTrue(exponent == 1 || exponent == 2, "Nowy kafelek to 2 albo 4");
+            if (exponent == 1) twos++;
+        }
+        assertEquals(Expectimax.TWO_PROBABILITY, (double) twos / draws, 0.01);
+    }
+
+    @Test
+    void threadLocalStaysInBounds() {
+        SpawnRandom random = SpawnRandom.threadLocal();
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(5);
+            assertTrue(value >= 0 && value < 5);
+            double fraction = random.nextDouble();
+            assertTrue(fraction >= 0 && fraction < 1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThemeTest {
+
+    @Test
+    void colorsAreSharedPerExponent() {
+        Tile tile = new Tile();
+        for (int exponent = 0; exponent <= GridBoard.MAX_EXPONENT; exponent++) {
+            tile.value = BitBoard.toValue(exponent);
+            assertSame(Theme.tileColor(exponent), tile.getTileColor(), "Kolor kafelka " + tile.value + " powinien być współdzielony");
+            assertSame(Theme.fontColor(exponent), tile.getFontColor());
+        }
+        assertEquals(new Color(0xDE0235), Theme.tileColor(11));
+        assertEquals(new Color(0x000000), Theme.fontColor(3), "Czcionka powinna być czarna dla wartości poniżej 16");
+        assertEquals(new Color(0xFFFFFF), Theme.fontColor(4));
+    }
+
+    @Test
+    void tileFontShrinksForLongerNumbers() {
+        assertEquals(36, Theme.tileFont(6).getSize(), "Czcionka dla 64");
+        assertEquals(32, Theme.tileFont(7).getSize(), "Czcionka dla 128");
+        assertEquals(24, Theme.tileFont(10).getSize(), "Czcionka dla 1024");
+        assertSame(Theme.tileFont(10), Theme.tileFont(13));
+    }
+
+    @Test
+    void measuresLabelsOnce() {
+        JPanel panel = new JPanel();
+        Theme theme = new Theme(panel);
+        Graphics g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).getGraphics();
+        try {
+            String label = theme.label(11, g);
+            assertEquals("2048", label);
+            assertSame(label, theme.label(11, g), "Napis powinien być tworzony tylko raz");
+            assertEquals(panel.getFontMetrics(Theme.tileFont(11)).stringWidth("2048"), theme.labelWidth(11, g));
+            assertTrue(theme.labelHeight(11, g) > 0);
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileAnimatorTest {
+
+    private static MoveTransitions transitions() {
+        GridBoard board = new GridBoard(3);
+        board.set(0, 2, 1);
+        return MoveTransitions.of(board, Direction.LEFT, 8, 1);
+    }
+
+    @Test
+    void advancesInFixedSteps() {
+        TileAnimator animator = new TileAnimator();
+        assertFalse(animator.tick(0), "Bez ruchu nie ma animacji");
+
+        animator.start(transitions(), 0);
+        assertTrue(animator.tick(TileAnimator.STEP_NANOS - 1));
+        assertEquals(0.0, animator.slideProgress(), "Niepełny krok nie przesuwa animacji");
+        assertTrue(animator.tick(TileAnimator.SLIDE_NANOS / 2));
+        assertTrue(animator.slideProgress() > 0 && animator.slideProgress() < 1);
+        assertEquals(0.0, animator.popProgress());
+
+        assertTrue(animator.tick(TileAnimator.SLIDE_NANOS + TileAnimator.POP_NANOS / 2));
+        assertEquals(1.0, animator.slideProgress());
+        assertTrue(animator.popProgress() > 0 && animator.popProgress() < 1);
+
+        assertFalse(animator.tick(TileAnimator.SLIDE_NANOS + TileAnimator.POP_NANOS), "Animacja powinna się zakończyć");
+        assertNull(animator.getTransitions());
+    }
+
+    @Test
+    void newMoveReplacesRunningAnimation() {
+        TileAnimator animator = new TileAnimator();
+        animator.start(transitions(), 0);
+        animator.tick(TileAnimator.SLIDE_NANOS);
+        MoveTransitions next = transitions();
+        animator.start(next, TileAnimator.SLIDE_NANOS);
+
+        assertSame(next, animator.getTransitions());
+        assertEquals(0.0, animator.slideProgress(), "Nowa animacja zaczyna się od początku");
+        animator.finish();
+        assertFalse(animator.isRunning());
+    }
+}
@@ -0,0 +1,56 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileSpritesTest {
+
+    private static Graphics2D target(double scale) {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        g.scale(scale, scale);
+        return g;
+    }
+
+    @Test
+    void spritesAreRenderedOncePerSize() {
+        JPanel panel = new JPanel();
+        TileSprites sprites = new TileSprites(new Theme(panel), panel);
+        Graphics2D g = target(1);
+        try {
+            BufferedImage sprite = sprites.sprite(11, 96, g);
+            assertEquals(96, sprite.getWidth());
+            assertEquals(96, sprite.getHeight());
+            assertSame(sprite, sprites.sprite(11, 96, g), "Obraz kafelka powinien być tworzony tylko raz");
+            assertEquals(74, sprites.sprite(11, 74, g).getWidth(), "Każdy rozmiar kafelka ma własny obraz");
+            assertSame(sprite, sprites.sprite(11, 96, g), "Obraz innego rozmiaru nie powinien usuwać poprzedniego");
+            assertEquals(Theme.tileColor(11).getRGB(), sprite.getRGB(5, 48), "Tło kafelka powinno mieć kolor kafelka");
+
+            sprites.invalidate();
+            assertNotSame(sprite, sprites.sprite(11, 96, g), "Po unieważnieniu obraz powinien zostać utworzony ponownie");
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Test
+    void spritesFollowDisplayScale() {
+        JPanel panel = new JPanel();
+        TileSprites sprites = new TileSprites(new Theme(panel), panel);
+        Graphics2D normal = target(1);
+        Graphics2D doubled = target(2);
+        try {
+            BufferedImage sprite = sprites.sprite(1, 132, normal);
+            BufferedImage sharp = sprites.sprite(1, 132, doubled);
+            assertEquals(264, sharp.getWidth(), "Obraz powinien mieć rozdzielczość ekranu");
+            assertNotSame(sprite, sprites.sprite(1, 132, normal));
+        } finally {
+            normal.dispose();
+            doubled.dispose();
+        }
+    }
+}
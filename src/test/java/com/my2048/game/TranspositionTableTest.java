@@ -0,0 +1,90 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void capacityIsRoundedToPowerOfTwo() {
+        assertEquals(1024, new TranspositionTable(1000).capacity());
+        assertEquals(1024, new TranspositionTable(1024).capacity());
+        assertTrue(TranspositionTable.withMemory(1).capacity() * TranspositionTable.ENTRY_BYTES <= 1024 * 1024);
+    }
+
+    @Test
+    void storeAndFind() {
+        TranspositionTable table = new TranspositionTable(64);
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(42L));
+
+        table.store(42L, 3, 1.5, Direction.UP.ordinal());
+        int slot = table.find(42L);
+        assertNotEquals(TranspositionTable.NOT_FOUND, slot);
+        assertEquals(3, table.depth(slot));
+        assertEquals(1.5, table.value(slot));
+        assertEquals(Direction.UP.ordinal(), table.bestMove(slot));
+    }
+
+    @Test
+    void shallowerResultDoesNotReplaceDeeperOneInSameSearch() {
+        TranspositionTable table = new TranspositionTable(64);
+        table.store(7L, 4, 10.0, 0);
+        table.store(7L, 2, 20.0, 1);
+        assertEquals(4, table.depth(table.find(7L)));
+        assertEquals(10.0, table.value(table.find(7L)));
+
+        table.newSearch();
+        table.store(7L, 2, 20.0, 1);
+        assertEquals(2, table.depth(table.find(7L)));
+    }
+
+    @Test
+    void fullBucketReplacesOldestThenShallowest() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.BUCKET_SIZE);
+        // Wszystkie klucze trafiają do jednego kubełka, bo tablica ma rozmiar kubełka.
+        table.store(1L, 9, 1, 0);
+        table.newSearch();
+        table.store(2L, 5, 2, 0);
+        table.store(3L, 1, 3, 0);
+        table.store(4L, 6, 4, 0);
+
+        table.store(5L, 2, 5, 0);
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(1L), "Najstarszy wpis powinien zostać zastąpiony");
+
+        table.store(6L, 2, 6, 0);
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(3L), "Najpłytszy wpis powinien zostać zastąpiony");
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(2L));
+        assertNotEquals(TranspositionTable.NOT_FOUND, table.find(4L));
+    }
+
+    @Test
+    void clearRemovesEntries() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(11L, 1, 1, 0);
+        table.clear();
+        assertEquals(TranspositionTable.NOT_FOUND, table.find(11L));
+    }
+
+    @Test
+    void expectimaxUsesTable() {
+        GridBoard board = new GridBoard(4);
+        board.set(0, 0, 3);
+        board.set(0, 1, 3);
+        board.set(3, 3, 1);
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        Direction direction = new Expectimax(BoardHeuristic.standard(), 3, 10_000, table).bestMove(board);
+        assertNotNull(direction);
+
+        GridBoard child = board.copy();
+        assertTrue(child.move(direction) >= 0, "Wybrany ruch powinien być dozwolony");
+        int stored = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (child.get(cell) != 0) continue;
+            child.set(cell, 1);
+            if (table.find(child.hash()) != TranspositionTable.NOT_FOUND) stored++;
+            child.set(cell, 0);
+        }
+        assertTrue(stored > 0, "Węzły po wybranym ruchu powinny trafić do tablicy transpozycji");
+    }
+}
@@ -0,0 +1,102 @@
+package com.my2048.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoHistoryTest {
+
+    private static Tile[][] board(int[][] values) {
+        Tile[][] tiles = new Tile[values.length][values.length];
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values.length; j++) {
+                tiles[i][j] = new Tile();
+                tiles[i][j].value = values[i][j];
+            }
+        }
+        return tiles;
+    }
+
+    @Test
+    void pushAndPop() {
+        UndoHistory history = new UndoHistory(4);
+        Tile[][] tiles = board(new int[][]{{2, 0, 4}, {0, 8, 0}, {1024, 0, 2}});
+        history.push(tiles, 120);
+
+        tiles[0][0].value = 0;
+        tiles[2][0].value = 2048;
+        assertTrue(history.differsFromLast(tiles), "Plansza po zmianie powinna różnić się od zapisanego stanu");
+        assertEquals(2, history.peekValue(0, 0));
+        assertEquals(120, history.peekScore());
+
+        assertEquals(120, history.pop(tiles, 124));
+        assertEquals(2, tiles[0][0].value);
+        assertEquals(1024, tiles[2][0].value);
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    void overwritesOldestState() {
+        UndoHistory history = new UndoHistory(3);
+        Tile[][] tiles = board(new int[][]{{0, 0}, {0, 0}});
+        for (int score = 1; score <= 5; score++) {
+            tiles[0][0].value = 1 << score;
+            history.push(tiles, score);
+        }
+
+        assertEquals(3, history.size(), "Historia nie powinna przekraczać pojemności");
+        assertEquals(5, history.pop(tiles, 6));
+        assertEquals(4, history.pop(tiles, 5));
+        assertEquals(3, history.pop(tiles, 4));
+        assertEquals(8, tiles[0][0].value);
+        assertTrue(history.isEmpty());
+        assertThrows(IllegalStateException.class, () -> history.pop(tiles, 0));
+    }
+
+    @Test
+    void boardSizeChangeClearsHistory() {
+        UndoHistory history = new UndoHistory(3);
+        history.push(board(new int[][]{{2, 2}, {2, 2}}), 0);
+        history.push(board(new int[][]{{2, 0, 0}, {0, 0, 0}, {0, 0, 0}}), 4);
+
+        assertEquals(1, history.size(), "Zmiana rozmiaru planszy powinna wyczyścić historię");
+        assertEquals(3, history.boardSize());
+        assertThrows(IllegalArgumentException.class, () -> history.pop(board(new int[][]{{0, 0}, {0, 0}}), 0));
+    }
+
+    @Test
+    void redo() {
+        UndoHistory history = new UndoHistory(4);
+        Tile[][] tiles = board(new int[][]{{2, 0}, {0, 0}});
+        history.push(tiles, 0);
+        tiles[0][0].value = 4;
+        history.push(tiles, 4);
+        tiles[0][0].value = 8;
+
+        history.pop(tiles, 12);
+        history.pop(tiles, 4);
+        assertEquals(2, tiles[0][0].value);
+        assertTrue(history.canRedo());
+
+        assertEquals(4, history.redo(tiles, 0));
+        assertEquals(4, tiles[0][0].value);
+        assertEquals(12, history.redo(tiles, 4));
+        assertEquals(8, tiles[0][0].value);
+        assertFalse(history.canRedo(), "Wszystkie cofnięte stany powinny zostać ponowione");
+
+        // Nowy zapis po cofnięciu usuwa możliwość ponowienia
+        history.pop(tiles, 12);
+        history.push(tiles, 4);
+        assertFalse(history.canRedo(), "Nowy stan powinien usunąć cofnięte stany");
+        assertEquals(2, history.size());
+    }
+
+    @Test
+    void unchangedBoard() {
+        UndoHistory history = new UndoHistory(1);
+        Tile[][] tiles = board(new int[][]{{2, 4}, {8, 16}});
+        assertFalse(history.differsFromLast(tiles), "Pusta historia nie powinna zgłaszać zmiany");
+        history.push(tiles, 0);
+        assertFalse(history.differsFromLast(tiles), "Niezmieniona plansza nie powinna różnić się od zapisanego stanu");
+    }
+}
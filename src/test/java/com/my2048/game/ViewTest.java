@@ -1,17 +1,24 @@
 package com.my2048.game;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ViewTest {
 
+    @TempDir
+    Path saveDirectory;
+
     @Test
     void testSetSize() {
         // given
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         View view = new View(controller);
         int newSize = 4;
 
@@ -25,7 +32,7 @@ class ViewTest {
     @Test
     void testSetTileSize() {
         // given
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         View view = new View(controller);
         int newTileSize = 100;
 
@@ -39,7 +46,7 @@ class ViewTest {
     @Test
     void testGetButtonArea() {
         // given
-        Controller controller = new Controller(new Model());
+        Controller controller = new Controller(new Model(), saveDirectory);
         View view = new View(controller);
 
         // then
@@ -47,4 +54,64 @@ class ViewTest {
         assertEquals(new Rectangle(170, 200, 110, 60), view.get4x4ButtonArea());
         assertEquals(new Rectangle(290, 200, 110, 60), view.get5x5ButtonArea());
     }
-}
\ No newline at end of file
+
+    @Test
+    void dirtyRegionsCoverOnlyChangedCells() {
+        Model model = new Model(SpawnRandom.seeded(4));
+        Controller controller = new Controller(model, saveDirectory);
+        View view = controller.getView();
+        BoardSnapshot before = model.getSnapshot();
+        assertTrue(view.dirtyRegions(before, before).isEmpty(), "Ten sam stan nie wymaga przerysowania");
+
+        model.left();
+        BoardSnapshot after = model.getSnapshot();
+        List<Rectangle> regions = view.dirtyRegions(before, after);
+        int changed = 0;
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                if (before.getValue(i, j) != after.getValue(i, j)) changed++;
+            }
+        }
+        int scoreBoxes = (before.getScore() != after.getScore() ? 1 : 0) + (before.getBestScore() != after.getBestScore() ? 1 : 0);
+        assertEquals(changed + scoreBoxes, regions.size(), "Należy przerysować tylko zmienione pola i wyniki");
+    }
+
+    @Test
+    void repaintingDirtyRegionsMatchesFullRepaint() {
+        Model model = new Model(SpawnRandom.seeded(5));
+        Controller controller = new Controller(model, saveDirectory);
+        View view = controller.getView();
+        view.setSize(460, 580);
+        view.currentState = View.GameState.PLAYING;
+
+        BufferedImage partial = paint(view, null);
+        BoardSnapshot before = model.getSnapshot();
+        model.up();
+        model.left();
+        BufferedImage full = paint(view, null);
+        for (Rectangle region : view.dirtyRegions(before, model.getSnapshot())) {
+            paint(view, region, partial);
+        }
+
+        for (int x = 0; x < full.getWidth(); x++) {
+            for (int y = 0; y < full.getHeight(); y++) {
+                assertEquals(full.getRGB(x, y), partial.getRGB(x, y), "Różnica w pikselu " + x + "," + y);
+            }
+        }
+    }
+
+    private static BufferedImage paint(View view, Rectangle clip) {
+        return paint(view, clip, new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB));
+    }
+
+    private static BufferedImage paint(View view, Rectangle clip, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            if (clip != null) g.setClip(clip);
+            view.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}